@@ -0,0 +1,44 @@
+package com.pos.techchallenge_backend.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pos.techchallenge_backend.model.dto.AddressRequest;
+import com.pos.techchallenge_backend.model.dto.user.UserRegistrationRequest;
+import com.pos.techchallenge_backend.model.enums.UserType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Dados e objetos compartilhados pelos microbenchmarks JMH.
+ * @author Erick Calazães
+ */
+final class BenchmarkFixtures {
+
+    static final String PASSWORD = "SenhaSegura123";
+
+    private BenchmarkFixtures() {
+    }
+
+    static UserRegistrationRequest registrationRequest() {
+        AddressRequest address = new AddressRequest();
+        address.setStreet("Rua das Flores");
+        address.setNumber("100A");
+        address.setCity("São Paulo");
+        address.setZipCode("01234567");
+
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setName("João da Silva");
+        request.setEmail("joao.silva@teste.com");
+        request.setLogin("joao.cliente");
+        request.setPassword(PASSWORD);
+        request.setUserType(UserType.CLIENT);
+        request.setAddress(address);
+        return request;
+    }
+
+    // Mesma configuração do ObjectMapper do Spring Boot (datas ISO-8601, mixin do ProblemDetail)
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.pos.techchallenge_backend.jmh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.pos.techchallenge_backend.model.dto.AddressResponse;
+import com.pos.techchallenge_backend.model.dto.user.UserResponse;
+import com.pos.techchallenge_backend.model.enums.UserType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da serialização Jackson dos corpos de resposta: UserResponse (consultas e cadastro)
+ * e ProblemDetail (erros do GlobalExceptionHandler, como o 409 de e-mail duplicado).
+ * @author Erick Calazães
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private ObjectWriter writer;
+    private UserResponse userResponse;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = BenchmarkFixtures.objectMapper();
+        writer = objectMapper.writer();
+
+        AddressResponse address = new AddressResponse();
+        address.setStreet("Rua das Flores");
+        address.setNumber("100A");
+        address.setCity("São Paulo");
+        address.setZipCode("01234567");
+
+        userResponse = new UserResponse();
+        userResponse.setId(42L);
+        userResponse.setName("João da Silva");
+        userResponse.setEmail("joao.silva@teste.com");
+        userResponse.setLogin("joao.cliente");
+        userResponse.setUserType(UserType.CLIENT);
+        userResponse.setLastUpdatedDate(LocalDateTime.now());
+        userResponse.setAddress(address);
+        userResponse.setVersion(3L);
+    }
+
+    @Benchmark
+    public byte[] userResponse() throws JsonProcessingException {
+        return writer.writeValueAsBytes(userResponse);
+    }
+
+    // O handler cria um ProblemDetail novo por erro, então a construção entra na medida
+    @Benchmark
+    public byte[] problemDetail() throws JsonProcessingException {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT,
+                "O e-mail joao.silva@teste.com já está cadastrado.");
+        problemDetail.setTitle("E-mail já cadastrado");
+        problemDetail.setType(URI.create("/problem-details").resolve("/email-already-exists"));
+        problemDetail.setProperty("timestamp", Instant.now());
+        return writer.writeValueAsBytes(problemDetail);
+    }
+}
@@ -0,0 +1,52 @@
+package com.pos.techchallenge_backend.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do BCrypt por strength: encode (cadastro e troca de senha) e matches (login).
+ * Cada ponto a mais de strength dobra o custo; a calibração do SecurityConfig usa essa relação.
+ * @author Erick Calazães
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    @Param({"4", "10", "12"})
+    private int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode(BenchmarkFixtures.PASSWORD);
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode(BenchmarkFixtures.PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(BenchmarkFixtures.PASSWORD, hash);
+    }
+}
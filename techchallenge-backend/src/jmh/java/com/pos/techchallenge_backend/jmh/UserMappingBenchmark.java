@@ -0,0 +1,74 @@
+package com.pos.techchallenge_backend.jmh;
+
+import com.pos.techchallenge_backend.mapper.UserMapper;
+import com.pos.techchallenge_backend.model.dto.user.UserRegistrationRequest;
+import com.pos.techchallenge_backend.model.dto.user.UserResponse;
+import com.pos.techchallenge_backend.model.entity.User;
+import com.pos.techchallenge_backend.repository.projection.UserView;
+import com.pos.techchallenge_backend.security.PasswordHashingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do mapeamento entre DTOs, entidades e projeções no UserMapper (sem o hash da senha,
+ * medido em PasswordHashingBenchmark).
+ * @author Erick Calazães
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMappingBenchmark {
+
+    private UserMapper userMapper;
+    private UserRegistrationRequest request;
+    private String passwordHash;
+    private User user;
+    private UserView view;
+
+    @Setup
+    public void setUp() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        userMapper = new UserMapper(new PasswordHashingService(encoder, new SimpleMeterRegistry(),
+                1, 1, Duration.ofSeconds(5), Duration.ofSeconds(1)));
+        request = BenchmarkFixtures.registrationRequest();
+        passwordHash = encoder.encode(BenchmarkFixtures.PASSWORD);
+
+        user = userMapper.mapRegistrationRequestToUser(request, passwordHash);
+        user.setId(42L);
+        user.setVersion(3L);
+        view = new UserView(42L, request.getName(), request.getEmail(), request.getLogin(), request.getUserType(),
+                LocalDateTime.now(), "Rua das Flores", "100A", "São Paulo", "01234567", 3L);
+    }
+
+    @Benchmark
+    public User mapRegistrationRequestToUser() {
+        return userMapper.mapRegistrationRequestToUser(request, passwordHash);
+    }
+
+    @Benchmark
+    public UserResponse mapUserToUserResponse() {
+        return userMapper.mapUserToUserResponse(user);
+    }
+
+    @Benchmark
+    public UserResponse mapUserViewToUserResponse() {
+        return userMapper.mapUserViewToUserResponse(view);
+    }
+}
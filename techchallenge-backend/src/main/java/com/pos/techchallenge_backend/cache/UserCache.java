@@ -0,0 +1,164 @@
+package com.pos.techchallenge_backend.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pos.techchallenge_backend.datasource.PrimaryReads;
+import com.pos.techchallenge_backend.repository.UserRepository;
+import com.pos.techchallenge_backend.repository.projection.LoginCredentials;
+import com.pos.techchallenge_backend.repository.projection.UserVersionView;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * @Component
+ * Cache em memória (Caffeine, política W-TinyLFU) das credenciais dos usuários por ID e por login,
+ * na frente das consultas feitas a cada login, renovação de token e troca de senha, e das versões
+ * (@Version) por ID, usadas para responder If-None-Match (304) sem ir ao banco.
+ * Guarda apenas a projeção imutável LoginCredentials (ID, login e hash), nunca entidades gerenciadas.
+ * As versões só entram no cache pela carga do próprio Caffeine (nunca por put a partir de uma leitura
+ * feita fora dele), para que a remoção pós-commit sempre vença uma leitura concorrente da versão antiga.
+ * Consistência: toda escrita chama evict(), que remove as entradas na hora e de novo após o commit.
+ * A carga de uma chave acontece dentro do compute do Caffeine, e a remoção da mesma chave espera a
+ * carga em andamento terminar; assim uma leitura do valor antigo iniciada antes do commit nunca
+ * sobrevive à remoção pós-commit. Escritas feitas em outras instâncias só aparecem após o TTL.
+ * As cargas sempre leem do banco primário: um valor lido de uma réplica atrasada ficaria no cache
+ * pelo TTL inteiro, muito depois de a réplica alcançar o primário.
+ * @author Erick Calazães
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, LoginCredentials> byId;
+    private final Cache<String, LoginCredentials> byLogin;
+    private final Cache<Long, Long> versions;
+
+    public UserCache(UserRepository userRepository,
+                     MeterRegistry meterRegistry,
+                     @Value("${users.cache.maximum-size:100000}") long maximumSize,
+                     @Value("${users.cache.ttl:60s}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.byId = newCache(maximumSize, ttl);
+        this.byLogin = newCache(maximumSize, ttl);
+        this.versions = newCache(maximumSize, ttl);
+
+        // cache.gets (hit/miss), cache.evictions, cache.size etc., com a tag cache=users.by-id/users.by-login/users.version
+        monitor(meterRegistry, byId, "users.by-id");
+        monitor(meterRegistry, byLogin, "users.by-login");
+        monitor(meterRegistry, versions, "users.version");
+    }
+
+    /**
+     * Credenciais pelo ID (consulta o banco apenas em caso de miss; ausências não são cacheadas).
+     */
+    public Optional<LoginCredentials> findCredentialsById(Long id) {
+        return Optional.ofNullable(byId.get(id, key -> PrimaryReads.call(() -> userRepository.findCredentialsById(key)).orElse(null)));
+    }
+
+    /**
+     * Credenciais pelo login (consulta o banco apenas em caso de miss; ausências não são cacheadas).
+     * Só cacheia quando o login gravado é idêntico ao pesquisado: com collation case-insensitive
+     * "Joao" encontraria "joao", e essa chave não seria removida pelo evict() do usuário.
+     */
+    public Optional<LoginCredentials> findCredentialsByLogin(String login) {
+        LoginCredentials[] notCached = new LoginCredentials[1];
+        LoginCredentials cached = byLogin.get(login, key -> {
+            LoginCredentials loaded = PrimaryReads.call(() -> userRepository.findCredentialsByLogin(key)).orElse(null);
+            if (loaded != null && !loaded.login().equals(key)) {
+                notCached[0] = loaded;
+                return null;
+            }
+            return loaded;
+        });
+        return Optional.ofNullable(cached != null ? cached : notCached[0]);
+    }
+
+    /**
+     * Versão atual do usuário (consulta o banco apenas em caso de miss; ausências não são cacheadas).
+     */
+    public Optional<Long> findVersion(Long id) {
+        return Optional.ofNullable(versions.get(id, key -> PrimaryReads.call(() -> userRepository.findVersionById(key)).orElse(null)));
+    }
+
+    /**
+     * Versões atuais dos usuários informados; os IDs fora do cache são lidos em uma única consulta (IN).
+     * @return Map<Long, Long> Versão por ID (IDs inexistentes ficam de fora).
+     */
+    public Map<Long, Long> findVersions(Collection<Long> ids) {
+        return versions.getAll(ids, missing -> PrimaryReads.call(() -> userRepository.findVersionsByIdIn(Set.copyOf(missing))).stream()
+                .collect(Collectors.toMap(UserVersionView::id, UserVersionView::version)));
+    }
+
+    /**
+     * Remove o usuário do cache imediatamente e, se houver transação ativa, de novo após o commit.
+     * @param id ID do usuário alterado/excluído.
+     * @param login Login gravado antes da alteração (chave do cache por login).
+     */
+    public void evict(Long id, String login) {
+        Runnable eviction = () -> {
+            byId.invalidate(id);
+            byLogin.invalidate(login);
+            versions.invalidate(id);
+        };
+        eviction.run();
+        afterCompletion(eviction);
+    }
+
+    /**
+     * Remove usuários excluídos do cache sem consultar o banco: o cache por login é percorrido uma
+     * única vez (em memória) atrás das entradas desses IDs. Repete a remoção após o commit, quando
+     * houver transação ativa. Usado nas exclusões, em que o login não é lido antes do DELETE.
+     * @param ids IDs dos usuários excluídos.
+     */
+    public void evictAll(Collection<Long> ids) {
+        Set<Long> evicted = new HashSet<>(ids);
+        Runnable eviction = () -> {
+            byId.invalidateAll(evicted);
+            versions.invalidateAll(evicted);
+            byLogin.asMap().values().removeIf(credentials -> evicted.contains(credentials.id()));
+        };
+        eviction.run();
+        afterCompletion(eviction);
+    }
+
+    private static void afterCompletion(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private static void monitor(MeterRegistry meterRegistry, Cache<?, ?> cache, String name) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name, Tags.empty());
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Proporção de leituras atendidas pelo cache desde a inicialização")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    private static <K, V> Cache<K, V> newCache(long maximumSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+}
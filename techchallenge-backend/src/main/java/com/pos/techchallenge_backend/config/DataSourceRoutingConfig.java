@@ -0,0 +1,86 @@
+package com.pos.techchallenge_backend.config;
+
+import com.pos.techchallenge_backend.datasource.ReadWriteRoutingDataSource;
+import com.pos.techchallenge_backend.datasource.ReadYourWritesFilter;
+import com.pos.techchallenge_backend.datasource.ReadYourWritesWindow;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Réplicas de leitura: ativado quando datasource.replica.urls lista ao menos uma URL.
+ * O primário continua configurado por spring.datasource.* (inclusive spring.datasource.hikari.*);
+ * cada réplica ganha um pool Hikari com as mesmas configurações, exceto URL, credenciais e
+ * connection-timeout (curto, para uma réplica fora do ar cair logo para o primário).
+ * O Flyway e as escritas usam o DataSource principal, que fora de transações readOnly vai para o primário.
+ */
+@Configuration
+@ConditionalOnProperty("datasource.replica.urls")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            MeterRegistry meterRegistry,
+            @Value("${datasource.replica.urls}") List<String> urls,
+            @Value("${datasource.replica.username:}") String username,
+            @Value("${datasource.replica.password:}") String password,
+            @Value("${datasource.replica.connection-timeout:1s}") Duration connectionTimeout,
+            @Value("${datasource.replica.validation-timeout-seconds:1}") int validationTimeoutSeconds) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String name = "replica-" + replicas.size();
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName(name);
+            config.setJdbcUrl(url.trim());
+            if (!username.isBlank()) {
+                config.setUsername(username);
+                config.setPassword(password);
+            }
+            config.setConnectionTimeout(connectionTimeout.toMillis());
+            // Réplica fora do ar não impede a subida: as leituras ficam no primário até ela voltar
+            config.setInitializationFailTimeout(-1);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.put(name, new HikariDataSource(config));
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas, validationTimeoutSeconds, meterRegistry);
+    }
+
+    // DataSource usado pelo JPA, JdbcTemplate e Flyway: a conexão física só é escolhida no primeiro comando
+    // SQL, quando o flag readOnly da transação já está publicado
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReadYourWritesWindow readYourWritesWindow) {
+        return new ReadYourWritesFilter(readYourWritesWindow);
+    }
+}
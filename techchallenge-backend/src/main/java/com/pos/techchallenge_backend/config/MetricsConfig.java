@@ -0,0 +1,33 @@
+package com.pos.techchallenge_backend.config;
+
+import com.pos.techchallenge_backend.metrics.GlobalQueryStatistics;
+import com.pos.techchallenge_backend.metrics.SqlStatementCounter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // Habilita o @Timed nos serviços (service.invocations, com as tags class e method)
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    // Conta os comandos SQL de cada requisição (http.server.requests.sql.statements)
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter sqlStatementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    // Estatísticas do Hibernate só com os contadores globais e por entidade (as exportadas pelo hibernate-micrometer)
+    @Bean
+    public HibernatePropertiesCustomizer globalQueryStatisticsCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATS_BUILDER, (StatisticsFactory) GlobalQueryStatistics::new);
+    }
+}
@@ -1,36 +1,108 @@
 package com.pos.techchallenge_backend.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pos.techchallenge_backend.security.BCryptCalibration;
+import com.pos.techchallenge_backend.security.TokenAuthenticationFilter;
+import com.pos.techchallenge_backend.security.TokenService;
+import jakarta.servlet.DispatcherType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.info.InfoContributor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import java.time.Duration;
+import java.util.Map;
 
 @Configuration
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
+    // Calibra o custo do BCrypt na inicialização para atingir a latência alvo de verificação neste nó.
+    // Com security.password.strength > 0 o custo é fixo e a calibração é ignorada.
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BCryptCalibration bcryptCalibration(
+            @Value("${security.password.strength:0}") int fixedStrength,
+            @Value("${security.password.target-verify-latency:50ms}") Duration targetLatency,
+            @Value("${security.password.min-strength:10}") int minStrength,
+            @Value("${security.password.max-strength:16}") int maxStrength,
+            MeterRegistry meterRegistry) {
+        BCryptCalibration calibration = fixedStrength > 0
+                ? BCryptCalibration.fixed(fixedStrength, targetLatency)
+                : BCryptCalibration.calibrate(targetLatency, minStrength, maxStrength);
+
+        log.info("BCrypt: custo {} ({} ms por verificação, meta {} ms, calibrado: {})",
+                calibration.strength(), calibration.measuredLatency().toMillis(),
+                targetLatency.toMillis(), calibration.calibrated());
+
+        Gauge.builder("password.bcrypt.strength", calibration::strength)
+                .description("Custo do BCrypt escolhido na calibração")
+                .register(meterRegistry);
+        Gauge.builder("password.bcrypt.calibrated.latency", () -> calibration.measuredLatency().toNanos() / 1_000_000.0)
+                .description("Latência de verificação medida na calibração")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        return calibration;
+    }
+
+    // Expõe o resultado da calibração em /actuator/info
+    @Bean
+    public InfoContributor bcryptInfoContributor(BCryptCalibration calibration) {
+        return builder -> builder.withDetail("bcrypt", Map.of(
+                "strength", calibration.strength(),
+                "measuredLatencyMs", calibration.measuredLatency().toMillis(),
+                "targetLatencyMs", calibration.targetLatency().toMillis(),
+                "calibrated", calibration.calibrated()));
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder(BCryptCalibration calibration) {
+        return new BCryptPasswordEncoder(calibration.strength());
     }
 
     // Configuração para desabilitar a proteção para os endpoints da API
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, TokenService tokenService,
+                                                   ObjectMapper objectMapper) throws Exception {
+
+        // Valida o token "Bearer" (HMAC + cache, sem banco/BCrypt) antes dos filtros de autenticação
+        // Instanciado aqui (e não como @Component) para não ser registrado duas vezes como filtro do servlet
+        TokenAuthenticationFilter tokenFilter = new TokenAuthenticationFilter(tokenService, objectMapper);
 
         // Desabilita a proteção CSRF (necessário para APIs REST)
         http.csrf(AbstractHttpConfigurer::disable)
+                // API sem estado: a autenticação vem do token a cada requisição, sem sessão HTTP
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 // Configura a autorização de requisições
                 .authorizeHttpRequests(auth -> auth
+                        // Continuação de uma requisição já autorizada (corpo em streaming da exportação) e páginas de erro
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+                        // Exportação da base: dados pessoais de todos os usuários, só com token de acesso
+                        .requestMatchers(HttpMethod.GET, "/api/v1/users/export").authenticated()
+                        // Exclusão em lote (até users.bulk-delete.max-size contas por chamada): só com token de acesso
+                        .requestMatchers(HttpMethod.POST, "/api/v1/users/bulk-delete").authenticated()
                         // Permite acesso irrestrito aos endpoints REST (Cadastro, Login, etc.)
                         .requestMatchers("/api/v1/**").permitAll()
                         // Permite acesso irrestrito à documentação Swagger/OpenAPI
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                         // Qualquer outra requisição é permitida (sem proteção)
                         .anyRequest().permitAll()
-                );
+                )
+                // Sem token nas rotas autenticadas: 401 (ProblemDetail), e não o 403 padrão
+                .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(tokenFilter))
+                .addFilterBefore(tokenFilter, UsernamePasswordAuthenticationFilter.class);
 
         // O método .httpBasic() e .formLogin() (que causa a tela de login)
         // são removidos ou ignorados pela configuração acima.
@@ -1,6 +1,8 @@
 package com.pos.techchallenge_backend.controller;
 
 import com.pos.techchallenge_backend.model.dto.user.LoginRequest;
+import com.pos.techchallenge_backend.model.dto.user.LoginResponse;
+import com.pos.techchallenge_backend.model.dto.user.RefreshTokenRequest;
 import com.pos.techchallenge_backend.service.LoginService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,12 +15,10 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * @RestController
- * Camada de Controller responsável por expor o endpoint de validação de login.
+ * Camada de Controller responsável por expor o endpoint de validação de login
+ * e a renovação dos tokens de acesso.
  * Garante o versionamento da API e a validação do corpo da requisição.
  * @author Erick Calazães
  */
@@ -33,8 +33,15 @@ public class LoginController {
     }
 
     @Operation(summary = "Valida as credenciais de login",
-            description = "Verifica se o login e a senha fornecidos são válidos. Se for bem-sucedido, retorna mensagem de login bem sucedio.")
-    @ApiResponse(responseCode = "200", description = "Login bem-sucedido", content = @Content)
+            description = "Verifica se o login e a senha fornecidos são válidos. Se for bem-sucedido, retorna um token de acesso " +
+                    "(enviar como 'Authorization: Bearer {token}') e um refresh token.")
+    @ApiResponse(responseCode = "200", description = "Login bem-sucedido",
+            content = @Content(mediaType = "application/json",
+                    examples = @ExampleObject(
+                            name = "Exemplo Sucesso",
+                            value = "{\"status\": \"success\", \"message\": \"Login bem-sucedido.\", \"accessToken\": \"QUNDRVNTfDEwMXwxNzMx...\", \"refreshToken\": \"UkVGUkVTSHwxMDF8MTcz...\", \"tokenType\": \"Bearer\", \"expiresIn\": 900}"
+                    )
+            ))
     @ApiResponse(responseCode = "400", description = "Credenciais inválidas ou requisição malformada",
             content = @Content(mediaType = "application/problem+json",
                     examples = @ExampleObject(
@@ -43,15 +50,26 @@ public class LoginController {
                     )
             ))
     @PostMapping // Endpoint de login separado, fora do /users
-    public ResponseEntity<Map<String, String>> validateLogin(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<LoginResponse> validateLogin(@Valid @RequestBody LoginRequest request) {
         // Chama o serviço de validação. Se falhar, uma exceção (400 Bad Request) será lançada.
-        loginService.validateLogin(request);
-
-        Map<String, String> response = new HashMap<>();
-        response.put("status", "success");
-        response.put("message", "Login bem-sucedido.");
+        LoginResponse response = loginService.login(request);
 
-        // Retorna 200 OK ou 204 No Content para indicar sucesso na validação.
+        // Retorna 200 OK com os tokens da sessão.
         return ResponseEntity.ok(response);
     }
+
+    @Operation(summary = "Renova os tokens de acesso",
+            description = "Troca um refresh token válido por um novo par de tokens, sem reenviar a senha.")
+    @ApiResponse(responseCode = "200", description = "Tokens renovados", content = @Content(mediaType = "application/json"))
+    @ApiResponse(responseCode = "401", description = "Refresh token inválido ou expirado",
+            content = @Content(mediaType = "application/problem+json",
+                    examples = @ExampleObject(
+                            name = "Token Inválido (ProblemDetail)",
+                            value = "{\"type\": \"/problem-details/invalid-token\", \"title\": \"Token Inválido\", \"status\": 401, \"detail\": \"Token expirado.\", \"timestamp\": \"2025-11-03T21:00:00Z\"}"
+                    )
+            ))
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(loginService.refresh(request.getRefreshToken()));
+    }
 }
@@ -1,10 +1,20 @@
 package com.pos.techchallenge_backend.controller;
 
+import com.pos.techchallenge_backend.model.dto.PageResponse;
+import com.pos.techchallenge_backend.model.dto.user.BulkDeleteResponse;
+import com.pos.techchallenge_backend.model.dto.user.BulkRegistrationResponse;
 import com.pos.techchallenge_backend.model.dto.user.PasswordUpdateRequest;
+import com.pos.techchallenge_backend.model.dto.user.UserBatchResponse;
 import com.pos.techchallenge_backend.model.dto.user.UserRegistrationRequest;
 import com.pos.techchallenge_backend.model.dto.user.UserResponse;
 import com.pos.techchallenge_backend.model.dto.user.UserUpdateRequest;
+import com.pos.techchallenge_backend.idempotency.IdempotencyService;
+import com.pos.techchallenge_backend.idempotency.IdempotencyService.IdempotentResult;
+import com.pos.techchallenge_backend.model.enums.UserType;
+import com.pos.techchallenge_backend.repository.UserFilter;
 import com.pos.techchallenge_backend.service.LoginService;
+import com.pos.techchallenge_backend.service.UserBulkRegistrationService;
+import com.pos.techchallenge_backend.service.UserExportService;
 import com.pos.techchallenge_backend.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,11 +22,19 @@ import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * @RestController
@@ -29,19 +47,35 @@ import java.util.List;
 @RequestMapping("/api/v1/users")
 public class UserController {
 
+    // Os dados podem mudar a qualquer momento e incluem e-mail: o cliente guarda a resposta só para si
+    // (private) e revalida a cada uso (no-cache) com If-None-Match, recebendo 304 se nada mudou
+    private static final CacheControl READ_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final UserService userService;
     private final LoginService loginService;
+    private final UserExportService userExportService;
+    private final UserBulkRegistrationService userBulkRegistrationService;
+    private final IdempotencyService idempotencyService;
 
-    public UserController(UserService userService, LoginService loginService) {
+    public UserController(UserService userService, LoginService loginService, UserExportService userExportService,
+                          UserBulkRegistrationService userBulkRegistrationService, IdempotencyService idempotencyService) {
         this.userService = userService;
         this.loginService = loginService;
+        this.userExportService = userExportService;
+        this.userBulkRegistrationService = userBulkRegistrationService;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
      * Requisito: Cadastro de Usuários (POST /api/v1/users)
      */
     @Operation(summary = "Cria um novo usuário (Cliente ou Dono de Restaurante)",
-            description = "Garante que o e-mail seja único e criptografa a senha.")
+            description = "Garante que o e-mail seja único e criptografa a senha. Com o cabeçalho Idempotency-Key, " +
+                    "repetições com a mesma chave e o mesmo corpo recebem a resposta da primeira requisição " +
+                    "(cabeçalho Idempotent-Replayed: true), sem cadastrar de novo.")
     @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
             // 1. Resposta de SUCESSO (201 Created)
             @ApiResponse(responseCode = "201", description = "Usuário criado com sucesso",
@@ -53,7 +87,7 @@ public class UserController {
                             )
                     )),
             // 2. Resposta de ERRO (409 Conflict - E-mail Duplicado)
-            @ApiResponse(responseCode = "409", description = "E-mail já cadastrado (Regra de Negócio)",
+            @ApiResponse(responseCode = "409", description = "E-mail ou Login já cadastrado (Regra de Negócio), ou requisição com a mesma Idempotency-Key em andamento",
                     content = @Content(mediaType = "application/problem+json",
                             examples = @ExampleObject(
                                     name = "Conflito de E-mail (ProblemDetail)",
@@ -67,42 +101,216 @@ public class UserController {
                                     name = "Erro de Validação (ProblemDetail)",
                                     value = "{\"type\": \"/problem-details/invalid-fields\", \"title\": \"Erro de Validação de Campos\", \"status\": 400, \"detail\": \"Campos obrigatórios inválidos: name - Nome é obrigatório\", \"timestamp\": \"2025-11-03T21:00:00Z\"}"
                             )
-                    ))
+                    )),
+            // 4. Idempotency-Key: reutilizada com outro corpo (422) ou requisição original em andamento (409)
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key já usada com outro corpo",
+                    content = @Content(mediaType = "application/problem+json"))
     })
     @PostMapping
-    public ResponseEntity<UserResponse> registerUser(@Valid @RequestBody UserRegistrationRequest request) {
+    public ResponseEntity<UserResponse> registerUser(@Valid @RequestBody UserRegistrationRequest request,
+                                                     @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
         // O @Valid garante que o DTO seja validado (capturado pelo GlobalExceptionHandler)
-        UserResponse response = userService.registerUser(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        if (idempotencyKey == null) {
+            UserResponse response = userService.registerUser(request);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .eTag(UserETag.of(response.getId(), response.getVersion()))
+                    .body(response);
+        }
+
+        // Repetição (timeout do gateway, retry do cliente): mesma resposta 201, sem novo BCrypt nem INSERT
+        IdempotentResult<UserResponse> result = idempotencyService.execute("users.register", idempotencyKey, request,
+                UserResponse.class, () -> userService.registerUser(request));
+        UserResponse response = result.body();
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(UserETag.of(response.getId(), response.getVersion()))
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(result.replayed()))
+                .body(response);
+    }
+
+    /**
+     * Cadastro de usuários em lote (POST /api/v1/users/bulk)
+     */
+    @Operation(summary = "Cadastra vários usuários em lote",
+            description = "Recebe uma lista de cadastros e devolve o resultado de cada item (CREATED, INVALID, " +
+                    "DUPLICATE_IN_REQUEST, EMAIL_ALREADY_EXISTS ou LOGIN_ALREADY_EXISTS). Itens com erro não impedem o cadastro dos demais.")
+    @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado (ver o resultado de cada item)",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BulkRegistrationResponse.class),
+                            examples = @ExampleObject(
+                                    name = "Exemplo Lote",
+                                    value = "{\"created\": 1, \"failed\": 1, \"results\": [{\"index\": 0, \"status\": \"CREATED\", \"id\": 101, \"email\": \"joao.silva@teste.com\", \"message\": null}, {\"index\": 1, \"status\": \"EMAIL_ALREADY_EXISTS\", \"id\": null, \"email\": \"maria@teste.com\", \"message\": \"E-mail já cadastrado: maria@teste.com\"}]}"
+                            )
+                    )),
+            @ApiResponse(responseCode = "400", description = "Lote acima do limite (users.bulk.max-size)",
+                    content = @Content(mediaType = "application/problem+json"))
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkRegistrationResponse> registerUsers(@RequestBody List<UserRegistrationRequest> requests) {
+        // A validação é feita por item no serviço, para que um item inválido não recuse o lote inteiro
+        BulkRegistrationResponse response = userBulkRegistrationService.registerUsers(requests);
+        return ResponseEntity.ok(response);
     }
 
     /**
-     * Requisito: Busca de usuários pelo nome (GET /api/v1/users?name={name})
+     * Requisito: Busca de usuários pelo nome (GET /api/v1/users?name={name}&size={size}&cursor={cursor})
      */
-    @Operation(summary = "Busca usuários por nome",
-            description = "Retorna uma lista de usuários cujo nome contenha o termo de busca (case-insensitive).")
-    @ApiResponse(responseCode = "200", description = "Lista de usuários encontrada",
+    @Operation(summary = "Busca usuários por nome (paginada)",
+            description = "Retorna uma página de usuários cujo nome contenha o termo de busca (ignora maiúsculas e acentos), " +
+                    "ordenada por relevância. O termo deve ter ao menos 3 caracteres. " +
+                    "Para a próxima página, envie o 'nextCursor' recebido no parâmetro 'cursor'.")
+    @ApiResponse(responseCode = "200", description = "Página de usuários encontrada",
             content = @Content(mediaType = "application/json",
-                    schema = @Schema(implementation = UserResponse.class)))
+                    examples = @ExampleObject(
+                            name = "Exemplo Página",
+                            value = "{\"items\": [{\"id\": 101, \"name\": \"João da Silva\", \"email\": \"joao.silva@teste.com\", \"login\": \"joao.cliente\", \"userType\": \"CLIENT\", \"lastUpdatedDate\": \"2025-11-03T18:00:00\", \"address\": {\"street\": \"Rua das Flores\", \"number\": \"100A\", \"city\": \"São Paulo\", \"zipCode\": \"01234567\"}}], \"size\": 1, \"nextCursor\": \"MToxMDE\"}"
+                    )))
+    @ApiResponse(responseCode = "400", description = "Cursor inválido ou termo de busca com menos de 3 caracteres",
+            content = @Content(mediaType = "application/problem+json"))
     @GetMapping
-    public ResponseEntity<List<UserResponse>> findUsersByName(@RequestParam String name) {
-        List<UserResponse> users = userService.findUsersByName(name);
+    public ResponseEntity<PageResponse<UserResponse>> findUsersByName(@RequestParam String name,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(defaultValue = "20") int size) {
+        PageResponse<UserResponse> users = userService.findUsersByName(name, cursor, size);
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * Busca filtrada de usuários (GET /api/v1/users/filter?userType={tipo}&city={cidade}&zipPrefix={cep}&size={size}&cursor={cursor})
+     */
+    @Operation(summary = "Busca usuários por tipo, cidade e prefixo do CEP (paginada)",
+            description = "Retorna uma página de usuários que atendem a todos os filtros informados (os omitidos não " +
+                    "restringem a busca), em ordem de ID, ou de CEP e ID quando só o prefixo do CEP é informado. " +
+                    "O prefixo do CEP aceita de 1 a 8 dígitos (hífen opcional). " +
+                    "Para a próxima página, envie o 'nextCursor' recebido no parâmetro 'cursor'.")
+    @ApiResponse(responseCode = "200", description = "Página de usuários encontrada",
+            content = @Content(mediaType = "application/json",
+                    examples = @ExampleObject(
+                            name = "Exemplo Página Filtrada",
+                            value = "{\"items\": [{\"id\": 102, \"name\": \"Maria Souza\", \"email\": \"maria.souza@teste.com\", \"login\": \"maria.dona\", \"userType\": \"RESTAURANT_OWNER\", \"lastUpdatedDate\": \"2025-11-03T18:00:00\", \"address\": {\"street\": \"Av. Paulista\", \"number\": \"900\", \"city\": \"São Paulo\", \"zipCode\": \"01310100\"}}], \"size\": 1, \"nextCursor\": \"MDEzMTAxMDA6MTAy\"}"
+                    )))
+    @ApiResponse(responseCode = "400", description = "Cursor ou prefixo do CEP inválido",
+            content = @Content(mediaType = "application/problem+json"))
+    @GetMapping("/filter")
+    public ResponseEntity<PageResponse<UserResponse>> findUsersByFilter(@RequestParam(required = false) UserType userType,
+                                                                        @RequestParam(required = false) String city,
+                                                                        @RequestParam(required = false) String zipPrefix,
+                                                                        @RequestParam(required = false) String cursor,
+                                                                        @RequestParam(defaultValue = "20") int size) {
+        PageResponse<UserResponse> users = userService.findUsersByFilter(UserFilter.of(userType, city, zipPrefix), cursor, size);
+        return ResponseEntity.ok(users);
+    }
+
+    /**
+     * Busca de usuário pelo ID (GET /api/v1/users/{id})
+     */
+    @Operation(summary = "Busca um usuário pelo ID",
+            description = "Retorna o usuário (sem a senha) e o ETag da versão atual, usado no If-Match das atualizações. " +
+                    "Com If-None-Match igual ao ETag atual, responde 304 sem corpo.")
+    @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Usuário encontrado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UserResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Usuário não mudou desde o ETag informado", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado",
+                    content = @Content(mediaType = "application/problem+json"))
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<UserResponse> findUserById(@PathVariable Long id,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Revalidação: compara com a versão em cache (ou lida pela chave primária) sem montar a resposta
+        if (ifNoneMatch != null) {
+            Optional<String> etag = userService.findUserVersion(id).map(version -> UserETag.of(id, version));
+            if (etag.isPresent() && UserETag.matches(ifNoneMatch, etag.get())) {
+                return notModified(etag.get());
+            }
+        }
+        UserResponse response = userService.findUserById(id);
+        return ResponseEntity.ok()
+                .eTag(UserETag.of(response.getId(), response.getVersion()))
+                .cacheControl(READ_CACHE_CONTROL)
+                .body(response);
+    }
+
+    /**
+     * Busca de usuários em lote pelos IDs (GET /api/v1/users/batch?ids=1,2,3)
+     */
+    @Operation(summary = "Busca vários usuários pelos IDs",
+            description = "Resolve até users.batch.max-size IDs em uma única consulta. Os usuários voltam na ordem " +
+                    "dos IDs informados e os IDs inexistentes são listados em 'missing'. Com If-None-Match igual ao ETag " +
+                    "atual, responde 304 sem corpo.")
+    @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
+            @ApiResponse(responseCode = "304", description = "Nenhum usuário do lote mudou desde o ETag informado", content = @Content),
+            @ApiResponse(responseCode = "200", description = "Usuários encontrados e IDs inexistentes",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UserBatchResponse.class),
+                            examples = @ExampleObject(
+                                    name = "Exemplo Busca em Lote",
+                                    value = "{\"items\": [{\"id\": 101, \"name\": \"João da Silva\", \"email\": \"joao.silva@teste.com\", \"login\": \"joao.cliente\", \"userType\": \"CLIENT\", \"lastUpdatedDate\": \"2025-11-03T18:00:00\", \"address\": null, \"version\": 0}], \"missing\": [999]}"
+                            )
+                    )),
+            @ApiResponse(responseCode = "400", description = "IDs acima do limite (users.batch.max-size)",
+                    content = @Content(mediaType = "application/problem+json"))
+    })
+    @GetMapping("/batch")
+    public ResponseEntity<UserBatchResponse> findUsersByIds(@RequestParam List<Long> ids,
+                                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (ifNoneMatch != null) {
+            String etag = UserETag.ofBatch(distinct, userService.findUserVersions(distinct));
+            if (UserETag.matches(ifNoneMatch, etag)) {
+                return notModified(etag);
+            }
+        }
+        UserBatchResponse response = userService.findUsersByIds(distinct);
+        Map<Long, Long> versions = response.getItems().stream()
+                .collect(Collectors.toMap(UserResponse::getId, UserResponse::getVersion));
+        return ResponseEntity.ok()
+                .eTag(UserETag.ofBatch(distinct, versions))
+                .cacheControl(READ_CACHE_CONTROL)
+                .body(response);
+    }
+
+    // 304 sem corpo: nada é mapeado nem serializado
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(READ_CACHE_CONTROL)
+                .build();
+    }
+
+    /**
+     * Exportação completa da base de usuários (GET /api/v1/users/export) em NDJSON
+     */
+    @Operation(summary = "Exporta todos os usuários (NDJSON)",
+            description = "Transmite todos os usuários, um JSON por linha (application/x-ndjson), sem carregar a base em memória. " +
+                    "A senha nunca é exportada. Exige o token de acesso do login.")
+    @ApiResponse(responseCode = "200", description = "Exportação em andamento (streaming)",
+            content = @Content(mediaType = "application/x-ndjson"))
+    @ApiResponse(responseCode = "401", description = "Sem token de acesso (Authorization: Bearer) ou token inválido",
+            content = @Content(mediaType = "application/problem+json"))
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = userExportService::exportUsers;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     /**
      * Requisito: Atualização das demais informações do usuário (PUT /api/v1/users/{id}/data)
      */
     // Requisito: Deve ser um endpoint distinto do endpoint de senha [cite: 19, 51]
     @Operation(summary = "Atualiza dados gerais do usuário (Nome, E-mail, Login, Endereço)",
-            description = "Endpoint distinto para atualizar dados, mas não a senha. Atualiza a data da última alteração.")
+            description = "Endpoint distinto para atualizar dados, mas não a senha. Atualiza a data da última alteração. " +
+                    "Envie o ETag recebido no cabeçalho If-Match para só atualizar a versão lida (409 se o usuário mudou).")
     @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Dados atualizados com sucesso",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = UserResponse.class))),
             @ApiResponse(responseCode = "404", description = "Usuário não encontrado",
                     content = @Content(mediaType = "application/problem+json")),
-            @ApiResponse(responseCode = "409", description = "E-mail ou Login já cadastrado",
+            @ApiResponse(responseCode = "409", description = "E-mail ou Login já cadastrado, ou versão desatualizada (If-Match)",
                     content = @Content(mediaType = "application/problem+json",
                             examples = @ExampleObject(
                                     name = "Conflito de E-mail (ProblemDetail)",
@@ -112,9 +320,12 @@ public class UserController {
     })
     @PutMapping("/{id}/data")
     public ResponseEntity<UserResponse> updateUserData(@PathVariable Long id,
+                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                        @Valid @RequestBody UserUpdateRequest request) {
-        UserResponse response = userService.updateUserData(id, request);
-        return ResponseEntity.ok(response);
+        UserResponse response = userService.updateUserData(id, request, UserETag.expectedVersion(id, ifMatch));
+        return ResponseEntity.ok()
+                .eTag(UserETag.of(response.getId(), response.getVersion()))
+                .body(response);
     }
 
     /**
@@ -122,7 +333,8 @@ public class UserController {
      */
     // Requisito: Deve ser um endpoint separado [cite: 18, 50]
     @Operation(summary = "Troca a senha do usuário",
-            description = "Endpoint exclusivo para troca de senha. Requer a senha atual para validação.")
+            description = "Endpoint exclusivo para troca de senha. Requer a senha atual para validação. " +
+                    "Aceita o cabeçalho If-Match com o ETag do usuário (409 se o usuário mudou).")
     @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Senha alterada com sucesso", content = @Content),
             @ApiResponse(responseCode = "404", description = "Usuário não encontrado",
@@ -133,12 +345,15 @@ public class UserController {
                                     name = "Senha Atual Incorreta (ProblemDetail)",
                                     value = "{\"type\": \"/problem-details/invalid-credentials\", \"title\": \"Credenciais Inválidas\", \"status\": 400, \"detail\": \"Senha atual incorreta.\", \"timestamp\": \"2025-11-03T21:00:00Z\"}"
                             )
-                    ))
+                    )),
+            @ApiResponse(responseCode = "409", description = "Versão desatualizada (If-Match)",
+                    content = @Content(mediaType = "application/problem+json"))
     })
     @PutMapping("/{id}/password")
     public ResponseEntity<Void> updatePassword(@PathVariable Long id,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                @Valid @RequestBody PasswordUpdateRequest request) {
-        userService.updatePassword(id, request);
+        userService.updatePassword(id, request, UserETag.expectedVersion(id, ifMatch));
         return ResponseEntity.noContent().build(); // Retorna 204 No Content para sucesso
     }
 
@@ -157,4 +372,31 @@ public class UserController {
         userService.deleteUser(id);
         return ResponseEntity.noContent().build(); // Retorna 204 No Content para sucesso
     }
+
+    /**
+     * Exclusão de usuários em lote (POST /api/v1/users/bulk-delete)
+     */
+    @Operation(summary = "Exclui vários usuários em lote",
+            description = "Recebe uma lista de IDs e exclui os existentes com DELETE em blocos (expurgo LGPD). " +
+                    "Devolve a quantidade excluída e os IDs não encontrados; reenviar o mesmo lote é seguro. " +
+                    "Exige o token de acesso do login.")
+    @io.swagger.v3.oas.annotations.responses.ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BulkDeleteResponse.class),
+                            examples = @ExampleObject(
+                                    name = "Exemplo Exclusão em Lote",
+                                    value = "{\"deleted\": 2, \"notFound\": [999]}"
+                            )
+                    )),
+            @ApiResponse(responseCode = "400", description = "Lote acima do limite (users.bulk-delete.max-size)",
+                    content = @Content(mediaType = "application/problem+json")),
+            @ApiResponse(responseCode = "401", description = "Sem token de acesso (Authorization: Bearer) ou token inválido",
+                    content = @Content(mediaType = "application/problem+json"))
+    })
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<BulkDeleteResponse> deleteUsers(@RequestBody List<Long> ids) {
+        BulkDeleteResponse response = userService.deleteUsers(ids);
+        return ResponseEntity.ok(response);
+    }
 }
@@ -0,0 +1,94 @@
+package com.pos.techchallenge_backend.controller;
+
+import com.pos.techchallenge_backend.exception.custom.VersionConflictException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ETag dos usuários no formato "id.versão" (coluna @Version), leitura do cabeçalho If-Match
+ * enviado nas atualizações para que a escrita só aconteça sobre a versão que o cliente leu,
+ * e do If-None-Match dos GETs condicionais (304 quando o cliente já tem a versão atual).
+ * @author Erick Calazães
+ */
+public final class UserETag {
+
+    private UserETag() {
+    }
+
+    /**
+     * @return String ETag forte (entre aspas) do usuário na versão informada.
+     */
+    public static String of(Long id, Long version) {
+        return "\"" + id + "." + version + "\"";
+    }
+
+    /**
+     * ETag forte da busca em lote: resumo (SHA-256) dos pares "id.versão" na ordem dos IDs,
+     * com "id.-" para os inexistentes. Muda sempre que um usuário do lote muda, é criado ou excluído.
+     * @param ids IDs da requisição, sem repetições, na ordem da resposta.
+     * @param versions Versão por ID (IDs inexistentes ficam de fora).
+     */
+    public static String ofBatch(List<Long> ids, Map<Long, Long> versions) {
+        StringBuilder validator = new StringBuilder();
+        for (Long id : ids) {
+            Long version = versions.get(id);
+            validator.append(id).append('.').append(version == null ? "-" : version).append(',');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(validator.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível.", e);
+        }
+    }
+
+    /**
+     * Indica se o cabeçalho If-None-Match contém o ETag atual (comparação fraca, como manda o HTTP para GET).
+     * @param ifNoneMatch Valor do cabeçalho (lista separada por vírgulas ou "*"; pode ser null).
+     * @param etag ETag atual do recurso.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Extrai a versão esperada do cabeçalho If-Match.
+     * @param id ID do usuário da URL.
+     * @param ifMatch Valor do cabeçalho (pode ser null).
+     * @return Long Versão esperada, ou null se o cabeçalho não foi enviado ou é "*" (qualquer versão).
+     * @throws VersionConflictException Se o ETag não for deste usuário ou estiver malformado.
+     */
+    public static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        String prefix = "\"" + id + ".";
+        if (value.startsWith(prefix) && value.endsWith("\"") && value.length() > prefix.length() + 1) {
+            try {
+                return Long.parseLong(value.substring(prefix.length(), value.length() - 1));
+            } catch (NumberFormatException e) {
+                // Segue para o conflito abaixo
+            }
+        }
+        throw new VersionConflictException("If-Match não corresponde a nenhuma versão deste usuário: " + value);
+    }
+}
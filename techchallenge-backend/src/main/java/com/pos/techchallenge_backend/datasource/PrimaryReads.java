@@ -0,0 +1,62 @@
+package com.pos.techchallenge_backend.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Força as leituras da thread atual a irem para o banco primário, mesmo em transações readOnly.
+ * Vale para as conexões obtidas dentro do bloco: como o ReadWriteRoutingDataSource fica atrás de um
+ * LazyConnectionDataSourceProxy, a conexão física de uma transação só é escolhida no primeiro comando SQL.
+ * Usado por quem não pode ler dados atrasados da réplica (cargas de cache, sincronizações incrementais
+ * e a janela de read-your-writes).
+ * @author Erick Calazães
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> FORCED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static boolean isForced() {
+        return Boolean.TRUE.equals(FORCED.get());
+    }
+
+    /**
+     * Abre um bloco de leituras no primário; fechar o bloco restaura o roteamento anterior.
+     */
+    public static Scope open() {
+        Scope scope = new Scope(FORCED.get());
+        FORCED.set(Boolean.TRUE);
+        return scope;
+    }
+
+    public static <T> T call(Supplier<T> action) {
+        try (Scope ignored = open()) {
+            return action.get();
+        }
+    }
+
+    public static void run(Runnable action) {
+        try (Scope ignored = open()) {
+            action.run();
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Boolean previous;
+
+        private Scope(Boolean previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                FORCED.remove();
+            } else {
+                FORCED.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.pos.techchallenge_backend.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Roteamento de conexões entre o banco primário e as réplicas de leitura.
+ * Transações readOnly (ex.: @Transactional(readOnly = true)) vão para as réplicas saudáveis, em rodízio;
+ * escritas, leituras fora de transação readOnly e leituras forçadas por PrimaryReads vão para o primário.
+ * Saúde: uma réplica que falha ao entregar conexão sai do rodízio na hora (a leitura segue no primário)
+ * e volta quando a verificação periódica (datasource.replica.health-check-interval-ms) conseguir conectar.
+ * Sem nenhuma réplica saudável, todas as leituras vão para o primário.
+ * Deve ficar atrás de um LazyConnectionDataSourceProxy: o flag readOnly da transação só é publicado
+ * depois que o gerenciador de transações pede a conexão.
+ * @author Erick Calazães
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final int validationTimeoutSeconds;
+    private final Counter fallbacks;
+
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                      int validationTimeoutSeconds, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            this.replicas.add(replica);
+            targets.put(name, dataSource);
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("1 se a réplica está no rodízio de leituras, 0 se está fora")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        this.fallbacks = Counter.builder("datasource.replica.fallbacks")
+                .description("Leituras readOnly enviadas ao primário porque a réplica escolhida falhou")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Replica replica = selectReplica();
+        return replica == null ? PRIMARY : replica.name;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = selectReplica();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.dataSource.getConnection();
+        } catch (SQLException ex) {
+            replica.markDown(ex);
+            fallbacks.increment();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Credenciais explícitas só fazem sentido no primário
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Verifica cada réplica (conexão + isValid): recoloca no rodízio as que voltaram e retira as que caíram.
+     */
+    @Scheduled(initialDelayString = "${datasource.replica.health-check-interval-ms:5000}",
+            fixedDelayString = "${datasource.replica.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(validationTimeoutSeconds)) {
+                    replica.markUp();
+                } else {
+                    replica.markDown(null);
+                }
+            } catch (SQLException ex) {
+                replica.markDown(ex);
+            }
+        }
+    }
+
+    /**
+     * Fecha os pools das réplicas (o pool do primário é um bean próprio e é fechado pelo Spring).
+     */
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    // Réplica saudável da vez para uma leitura readOnly, ou null quando a conexão deve vir do primário
+    private Replica selectReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || PrimaryReads.isForced()) {
+            return null;
+        }
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private void markUp() {
+            if (!healthy) {
+                healthy = true;
+                log.info("Réplica {} voltou ao rodízio de leituras", name);
+            }
+        }
+
+        private void markDown(SQLException cause) {
+            if (healthy) {
+                healthy = false;
+                log.warn("Réplica {} fora do rodízio de leituras; leituras seguem no primário: {}", name,
+                        cause == null ? "conexão inválida" : cause.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.pos.techchallenge_backend.datasource;
+
+import com.pos.techchallenge_backend.security.TokenClaims;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Leva para o primário todas as leituras da requisição de um usuário autenticado que alterou os
+ * próprios dados dentro da janela de read-your-writes (ex.: busca por nome logo após trocar o nome).
+ * Registrado depois da cadeia do Spring Security, quando o token já foi validado.
+ * @author Erick Calazães
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final ReadYourWritesWindow readYourWritesWindow;
+
+    public ReadYourWritesFilter(ReadYourWritesWindow readYourWritesWindow) {
+        this.readYourWritesWindow = readYourWritesWindow;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!(authentication != null && authentication.getPrincipal() instanceof TokenClaims claims)
+                || !readYourWritesWindow.isRecent(List.of(claims.userId()))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        try (PrimaryReads.Scope ignored = PrimaryReads.open()) {
+            filterChain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.pos.techchallenge_backend.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * @Component
+ * Janela de read-your-writes: durante datasource.replica.read-your-writes-window após o commit de uma
+ * escrita, as leituras daquele usuário (pelo ID lido ou pelo usuário autenticado) vão para o primário,
+ * cobrindo o atraso de replicação. Só fica ativa com réplicas configuradas e janela maior que zero.
+ * Vale para esta instância: escritas feitas em outra instância não abrem a janela aqui.
+ * @author Erick Calazães
+ */
+@Component
+public class ReadYourWritesWindow {
+
+    private final Cache<Long, Boolean> recentWrites;
+
+    public ReadYourWritesWindow(@Value("${datasource.replica.urls:}") List<String> replicaUrls,
+                                @Value("${datasource.replica.read-your-writes-window:5s}") Duration window,
+                                @Value("${datasource.replica.read-your-writes-maximum-size:100000}") long maximumSize) {
+        boolean enabled = replicaUrls.stream().anyMatch(url -> !url.isBlank()) && !window.isZero();
+        this.recentWrites = enabled
+                ? Caffeine.newBuilder().expireAfterWrite(window).maximumSize(maximumSize).build()
+                : null;
+    }
+
+    public boolean isEnabled() {
+        return recentWrites != null;
+    }
+
+    /**
+     * Abre (ou renova) a janela dos usuários alterados, a partir do commit da transação ativa.
+     * @param userIds IDs dos usuários cadastrados, alterados ou excluídos.
+     */
+    public void recordWrites(Collection<Long> userIds) {
+        if (recentWrites == null || userIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(userIds);
+        Runnable record = () -> ids.forEach(id -> recentWrites.put(id, Boolean.TRUE));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record.run();
+            }
+        });
+    }
+
+    public void recordWrite(Long userId) {
+        recordWrites(List.of(userId));
+    }
+
+    /**
+     * Indica se algum dos usuários foi alterado dentro da janela.
+     */
+    public boolean isRecent(Collection<Long> userIds) {
+        if (recentWrites == null) {
+            return false;
+        }
+        for (Long id : userIds) {
+            if (recentWrites.getIfPresent(id) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Executa a leitura no primário se algum dos usuários foi alterado dentro da janela; senão, segue o roteamento.
+     * @param userIds IDs dos usuários lidos.
+     * @param query Leitura (a conexão da transação readOnly ainda não pode ter sido usada).
+     */
+    public <T> T read(Collection<Long> userIds, Supplier<T> query) {
+        return isRecent(userIds) ? PrimaryReads.call(query) : query.get();
+    }
+}
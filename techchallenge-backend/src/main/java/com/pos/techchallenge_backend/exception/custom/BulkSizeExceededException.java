@@ -0,0 +1,8 @@
+package com.pos.techchallenge_backend.exception.custom;
+
+public class BulkSizeExceededException extends RuntimeException {
+
+    public BulkSizeExceededException(String message) {
+        super(message);
+    }
+}
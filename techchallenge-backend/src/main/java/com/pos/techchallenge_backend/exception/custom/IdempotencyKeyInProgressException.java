@@ -0,0 +1,8 @@
+package com.pos.techchallenge_backend.exception.custom;
+
+public class IdempotencyKeyInProgressException extends RuntimeException {
+
+    public IdempotencyKeyInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.pos.techchallenge_backend.exception.custom;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.pos.techchallenge_backend.exception.custom;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
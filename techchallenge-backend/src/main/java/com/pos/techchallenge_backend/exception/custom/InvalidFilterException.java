@@ -0,0 +1,8 @@
+package com.pos.techchallenge_backend.exception.custom;
+
+public class InvalidFilterException extends RuntimeException {
+
+    public InvalidFilterException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.pos.techchallenge_backend.exception.custom;
+
+public class InvalidSearchTermException extends RuntimeException {
+
+    public InvalidSearchTermException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.pos.techchallenge_backend.exception.custom;
+
+public class LoginAlreadyExistsException extends RuntimeException {
+
+    public LoginAlreadyExistsException(String message) {
+        super(message);
+    }
+}
@@ -1,9 +1,23 @@
 package com.pos.techchallenge_backend.exception.handler;
 
+import com.pos.techchallenge_backend.exception.custom.BulkSizeExceededException;
 import com.pos.techchallenge_backend.exception.custom.EmailAlreadyExistsException;
+import com.pos.techchallenge_backend.exception.custom.HashingCapacityExceededException;
+import com.pos.techchallenge_backend.exception.custom.IdempotencyKeyInProgressException;
+import com.pos.techchallenge_backend.exception.custom.IdempotencyKeyReusedException;
+import com.pos.techchallenge_backend.exception.custom.InvalidCursorException;
+import com.pos.techchallenge_backend.exception.custom.InvalidFilterException;
+import com.pos.techchallenge_backend.exception.custom.InvalidIdempotencyKeyException;
 import com.pos.techchallenge_backend.exception.custom.InvalidLoginCredentialsException;
 import com.pos.techchallenge_backend.exception.custom.InvalidPasswordException;
+import com.pos.techchallenge_backend.exception.custom.InvalidSearchTermException;
+import com.pos.techchallenge_backend.exception.custom.InvalidTokenException;
+import com.pos.techchallenge_backend.exception.custom.LoginAlreadyExistsException;
 import com.pos.techchallenge_backend.exception.custom.ResourceNotFoundException;
+import com.pos.techchallenge_backend.exception.custom.VersionConflictException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ProblemDetail;
@@ -39,6 +53,65 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return ResponseEntity.status(status).body(problemDetail);
     }
 
+    /**
+     * Manipula exceções de Login Duplicado (409 Conflict)
+     */
+    @ExceptionHandler(LoginAlreadyExistsException.class)
+    public ResponseEntity<ProblemDetail> handleLoginAlreadyExistsException(LoginAlreadyExistsException ex) {
+        HttpStatus status = HttpStatus.CONFLICT;
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, ex.getMessage());
+        problemDetail.setTitle("Login já cadastrado");
+        problemDetail.setType(BASE_URI.resolve("/login-already-exists"));
+        problemDetail.setProperty("timestamp", Instant.now());
+
+        return ResponseEntity.status(status).body(problemDetail);
+    }
+
+    /**
+     * Manipula exceções de Versão Desatualizada (409 Conflict): o usuário foi alterado depois de lido (If-Match)
+     */
+    @ExceptionHandler(VersionConflictException.class)
+    public ResponseEntity<ProblemDetail> handleVersionConflictException(VersionConflictException ex) {
+        return versionConflict(ex.getMessage());
+    }
+
+    /**
+     * Manipula falhas do lock otimista (@Version) em escritas feitas pela entidade (409 Conflict)
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ProblemDetail> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        return versionConflict("O registro foi alterado por outra requisição. Leia novamente e repita a operação.");
+    }
+
+    private static ResponseEntity<ProblemDetail> versionConflict(String detail) {
+        HttpStatus status = HttpStatus.CONFLICT;
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, detail);
+        problemDetail.setTitle("Versão desatualizada");
+        problemDetail.setType(BASE_URI.resolve("/version-conflict"));
+        problemDetail.setProperty("timestamp", Instant.now());
+
+        return ResponseEntity.status(status).body(problemDetail);
+    }
+
+    /**
+     * Manipula violações de constraints do banco não traduzidas pelo serviço (409 Conflict)
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ProblemDetail> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        HttpStatus status = HttpStatus.CONFLICT;
+
+        // A mensagem do driver não é exposta (pode conter valores de outros registros)
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status,
+                "A operação viola uma restrição de integridade dos dados.");
+        problemDetail.setTitle("Conflito de Dados");
+        problemDetail.setType(BASE_URI.resolve("/data-conflict"));
+        problemDetail.setProperty("timestamp", Instant.now());
+
+        return ResponseEntity.status(status).body(problemDetail);
+    }
+
     /**
      * Manipula exceções de Recurso Não Encontrado (404 Not Found)
      */
@@ -69,6 +142,145 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return ResponseEntity.status(status).body(problemDetail);
     }
 
+    /**
+     * Manipula exceções de Cursor de Paginação Inválido (400 Bad Request)
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ProblemDetail> handleInvalidCursorException(InvalidCursorException ex) {
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, ex.getMessage());
+        problemDetail.setTitle("Cursor Inválido");
+        problemDetail.setType(BASE_URI.resolve("/invalid-cursor"));
+        problemDetail.setProperty("timestamp", Instant.now());
+
+        return ResponseEntity.status(status).body(problemDetail);
+    }
+
+    /**
+     * Manipula exceções de Termo de Busca Inválido (400 Bad Request) - Uso na busca pelo nome
+     */
+    @ExceptionHandler(InvalidSearchTermException.class)
+    public ResponseEntity<ProblemDetail> handleInvalidSearchTermException(InvalidSearchTermException ex) {
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, ex.getMessage());
+        problemDetail.setTitle("Termo de Busca Inválido");
+        problemDetail.setType(BASE_URI.resolve("/invalid-search-term"));
+        problemDetail.setProperty("timestamp", Instant.now());
+
+        return ResponseEntity.status(status).body(problemDetail);
+    }
+
+    /**
+     * Manipula exceções de Filtro de Busca Inválido (400 Bad Request)
+     */
+    @ExceptionHandler(InvalidFilterException.class)
+    public ResponseEntity<ProblemDetail> handleInvalidFilterException(InvalidFilterException ex) {
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, ex.getMessage());
+        problemDetail.setTitle("Filtro Inválido");
+        problemDetail.setType(BASE_URI.resolve("/invalid-filter"));
+        problemDetail.setProperty("timestamp", Instant.now());
+
+        return ResponseEntity.status(status).body(problemDetail);
+    }
+
+    /**
+     * Manipula exceções de Lote Acima do Limite (400 Bad Request) - Uso no cadastro em lote
+     */
+    @ExceptionHandler(BulkSizeExceededException.class)
+    public ResponseEntity<ProblemDetail> handleBulkSizeExceededException(BulkSizeExceededException ex) {
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, ex.getMessage());
+        problemDetail.setTitle("Lote Acima do Limite");
+        problemDetail.setType(BASE_URI.resolve("/bulk-size-exceeded"));
+        problemDetail.setProperty("timestamp", Instant.now());
+
+        return ResponseEntity.status(status).body(problemDetail);
+    }
+
+    /**
+     * Manipula exceções de Idempotency-Key Inválida (400 Bad Request) - Uso no cadastro
+     */
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    public ResponseEntity<ProblemDetail> handleInvalidIdempotencyKeyException(InvalidIdempotencyKeyException ex) {
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, ex.getMessage());
+        problemDetail.setTitle("Idempotency-Key Inválida");
+        problemDetail.setType(BASE_URI.resolve("/invalid-idempotency-key"));
+        problemDetail.setProperty("timestamp", Instant.now());
+
+        return ResponseEntity.status(status).body(problemDetail);
+    }
+
+    /**
+     * Manipula exceções de Idempotency-Key Reutilizada com outro corpo (422 Unprocessable Entity)
+     */
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ProblemDetail> handleIdempotencyKeyReusedException(IdempotencyKeyReusedException ex) {
+        HttpStatus status = HttpStatus.UNPROCESSABLE_ENTITY;
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, ex.getMessage());
+        problemDetail.setTitle("Idempotency-Key Reutilizada");
+        problemDetail.setType(BASE_URI.resolve("/idempotency-key-reused"));
+        problemDetail.setProperty("timestamp", Instant.now());
+
+        return ResponseEntity.status(status).body(problemDetail);
+    }
+
+    /**
+     * Manipula exceções de Requisição Original em Andamento (409 Conflict + Retry-After)
+     */
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<ProblemDetail> handleIdempotencyKeyInProgressException(IdempotencyKeyInProgressException ex) {
+        HttpStatus status = HttpStatus.CONFLICT;
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, ex.getMessage());
+        problemDetail.setTitle("Requisição em Andamento");
+        problemDetail.setType(BASE_URI.resolve("/idempotency-key-in-progress"));
+        problemDetail.setProperty("timestamp", Instant.now());
+
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(problemDetail);
+    }
+
+    /**
+     * Manipula exceções de Token Inválido ou Expirado (401 Unauthorized) - Uso na renovação de tokens
+     */
+    @ExceptionHandler(InvalidTokenException.class)
+    public ResponseEntity<ProblemDetail> handleInvalidTokenException(InvalidTokenException ex) {
+        HttpStatus status = HttpStatus.UNAUTHORIZED;
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, ex.getMessage());
+        problemDetail.setTitle("Token Inválido");
+        problemDetail.setType(BASE_URI.resolve("/invalid-token"));
+        problemDetail.setProperty("timestamp", Instant.now());
+
+        return ResponseEntity.status(status).body(problemDetail);
+    }
+
+    /**
+     * Manipula exceções de Pool de Hashing Saturado (503 Service Unavailable + Retry-After)
+     */
+    @ExceptionHandler(HashingCapacityExceededException.class)
+    public ResponseEntity<ProblemDetail> handleHashingCapacityExceededException(HashingCapacityExceededException ex) {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, ex.getMessage());
+        problemDetail.setTitle("Serviço Temporariamente Indisponível");
+        problemDetail.setType(BASE_URI.resolve("/service-overloaded"));
+        problemDetail.setProperty("timestamp", Instant.now());
+
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(problemDetail);
+    }
+
     /**
      * Manipula exceções de Validação de DTOs (@Valid / MethodArgumentNotValidException)
      * Sobrescreve o método do ResponseEntityExceptionHandler para usar ProblemDetail.
@@ -0,0 +1,181 @@
+package com.pos.techchallenge_backend.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pos.techchallenge_backend.exception.custom.IdempotencyKeyInProgressException;
+import com.pos.techchallenge_backend.exception.custom.IdempotencyKeyReusedException;
+import com.pos.techchallenge_backend.exception.custom.InvalidIdempotencyKeyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * @Service
+ * Idempotência das requisições com o cabeçalho Idempotency-Key (cadastro de usuário).
+ * 1. A primeira requisição com a chave reserva a chave, executa e grava a resposta no IdempotencyStore.
+ * 2. Repetições recebem a resposta gravada, sem executar de novo (sem BCrypt e sem INSERT).
+ * 3. Repetições concorrentes esperam a requisição em andamento (até idempotency.wait-timeout).
+ * Se a execução falhar, a chave é liberada e a próxima repetição executa normalmente.
+ * A chave só pode ser reutilizada com o mesmo corpo: a impressão digital é um HMAC-SHA256 do corpo
+ * (com o segredo dos tokens), para a tabela não guardar um hash da senha que possa ser atacado por força bruta.
+ * Com o armazenamento compartilhado (idempotency.store=jdbc), o segredo é obrigatório: a aplicação não sobe sem ele.
+ * @author Erick Calazães
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAX_KEY_LENGTH = 200;
+
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+    private final SecretKeySpec fingerprintKey;
+    private final Duration waitTimeout;
+    private final MeterRegistry meterRegistry;
+
+    public IdempotencyService(IdempotencyStore idempotencyStore, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                              @Value("${security.token.secret:}") String secret,
+                              @Value("${idempotency.wait-timeout:10s}") Duration waitTimeout) {
+        this.idempotencyStore = idempotencyStore;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.fingerprintKey = new SecretKeySpec(resolveSecret(secret, idempotencyStore), ALGORITHM);
+        this.waitTimeout = waitTimeout;
+    }
+
+    /**
+     * Executa a ação uma única vez por chave e devolve a mesma resposta às repetições.
+     * @param scope Operação da chave (as chaves de operações diferentes não colidem).
+     * @param key Valor do cabeçalho Idempotency-Key.
+     * @param request Corpo da requisição (comparado entre a original e as repetições).
+     * @param responseType Tipo da resposta, para desserializar a resposta gravada.
+     * @param action Execução da operação.
+     * @return IdempotentResult<T> Resposta e se ela foi repetida (gravada por uma requisição anterior).
+     * @throws InvalidIdempotencyKeyException Se a chave estiver em branco ou passar de 200 caracteres.
+     * @throws IdempotencyKeyReusedException Se a chave já foi usada com outro corpo.
+     * @throws IdempotencyKeyInProgressException Se a requisição original não terminar dentro de idempotency.wait-timeout.
+     */
+    public <T> IdempotentResult<T> execute(String scope, String key, Object request, Class<T> responseType,
+                                           Supplier<T> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(
+                    "O cabeçalho Idempotency-Key deve ter de 1 a " + MAX_KEY_LENGTH + " caracteres.");
+        }
+        String storeKey = scope + ":" + key;
+        String fingerprint = fingerprint(request);
+
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            if (idempotencyStore.tryClaim(storeKey, fingerprint)) {
+                outcome("executed").increment();
+                return new IdempotentResult<>(executeClaimed(storeKey, fingerprint, action), false);
+            }
+
+            long remaining = deadline - System.nanoTime();
+            Optional<StoredResponse> stored = idempotencyStore.await(storeKey, Duration.ofNanos(Math.max(remaining, 0)));
+            if (stored.isPresent()) {
+                if (!stored.get().fingerprint().equals(fingerprint)) {
+                    outcome("reused").increment();
+                    throw new IdempotencyKeyReusedException(
+                            "A chave Idempotency-Key já foi usada em uma requisição com outro corpo.");
+                }
+                outcome("replayed").increment();
+                return new IdempotentResult<>(read(stored.get().body(), responseType), true);
+            }
+            // Vazio: a requisição original falhou (chave liberada, tenta reservar de novo) ou o prazo acabou
+            if (deadline - System.nanoTime() <= 0) {
+                outcome("in-progress").increment();
+                throw new IdempotencyKeyInProgressException(
+                        "Uma requisição com a mesma Idempotency-Key ainda está em andamento; tente novamente.");
+            }
+        }
+    }
+
+    private <T> T executeClaimed(String storeKey, String fingerprint, Supplier<T> action) {
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            idempotencyStore.release(storeKey);
+            throw e;
+        }
+        try {
+            idempotencyStore.complete(storeKey, new StoredResponse(fingerprint, write(response)));
+        } catch (RuntimeException e) {
+            // A operação já foi confirmada: responde normalmente; as repetições aguardam a reserva expirar
+            log.warn("Falha ao gravar a resposta da chave de idempotência {}: {}", storeKey, e.getMessage());
+        }
+        return response;
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(fingerprintKey);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(objectMapper.writeValueAsBytes(request)));
+        } catch (GeneralSecurityException | JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao calcular a impressão digital da requisição", e);
+        }
+    }
+
+    private String write(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar a resposta idempotente", e);
+        }
+    }
+
+    private <T> T read(String body, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(body, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao ler a resposta idempotente gravada", e);
+        }
+    }
+
+    private Counter outcome(String outcome) {
+        return Counter.builder("idempotency.requests")
+                .description("Requisições com Idempotency-Key, por resultado")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static byte[] resolveSecret(String secret, IdempotencyStore idempotencyStore) {
+        if (secret == null || secret.isBlank()) {
+            if (idempotencyStore.isShared()) {
+                // Com um segredo aleatório por instância, a repetição em outra instância seria recusada (chave reutilizada)
+                throw new IllegalStateException("security.token.secret (SECURITY_TOKEN_SECRET) é obrigatório com "
+                        + "idempotency.store=jdbc: as impressões digitais precisam do mesmo segredo em todas as instâncias.");
+            }
+            // Mesma regra dos tokens: sem segredo, as impressões digitais só se comparam nesta instância
+            byte[] random = new byte[32];
+            new SecureRandom().nextBytes(random);
+            return random;
+        }
+        return secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Resposta de uma requisição idempotente.
+     * @param body Corpo da resposta.
+     * @param replayed true se a resposta foi gravada por uma requisição anterior com a mesma chave.
+     */
+    public record IdempotentResult<T>(T body, boolean replayed) {
+    }
+}
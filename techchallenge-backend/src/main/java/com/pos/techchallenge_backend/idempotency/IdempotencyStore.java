@@ -0,0 +1,43 @@
+package com.pos.techchallenge_backend.idempotency;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Armazenamento das chaves de idempotência: a primeira requisição reserva a chave, executa e grava a
+ * resposta; as demais esperam a resposta gravada. Implementações: memória (idempotency.store=memory,
+ * padrão, uma instância) e banco (idempotency.store=jdbc, várias instâncias).
+ * @author Erick Calazães
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Reserva a chave para esta requisição.
+     * @return true se a requisição deve executar; false se a chave já tem resposta ou está em andamento.
+     */
+    boolean tryClaim(String key, String fingerprint);
+
+    /**
+     * Grava a resposta da requisição que reservou a chave e acorda quem espera por ela.
+     */
+    void complete(String key, StoredResponse response);
+
+    /**
+     * Libera a chave sem resposta (a requisição falhou): a próxima repetição executa de novo.
+     */
+    void release(String key);
+
+    /**
+     * Espera a resposta da chave por até "timeout".
+     * @return Optional<StoredResponse> Resposta gravada, ou vazio se a chave foi liberada ou o prazo acabou.
+     */
+    Optional<StoredResponse> await(String key, Duration timeout);
+
+    /**
+     * @return boolean true se as chaves são compartilhadas entre instâncias: as impressões digitais
+     * gravadas por uma instância precisam ser comparáveis nas outras (mesmo segredo).
+     */
+    default boolean isShared() {
+        return false;
+    }
+}
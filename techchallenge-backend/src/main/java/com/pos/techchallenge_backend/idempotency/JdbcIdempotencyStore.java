@@ -0,0 +1,114 @@
+package com.pos.techchallenge_backend.idempotency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * @Component
+ * Chaves de idempotência na tabela idempotency_keys (idempotency.store=jdbc), compartilhadas entre instâncias.
+ * A reserva é o próprio INSERT (a chave primária decide quem executa, sem lock explícito); a linha fica sem
+ * resposta enquanto a requisição original roda e expira em idempotency.in-flight-timeout se a instância cair.
+ * Concluída, a resposta vale por idempotency.ttl. Repetições concorrentes consultam a linha a cada
+ * idempotency.jdbc.poll-interval até a resposta aparecer. Linhas expiradas são apagadas periodicamente.
+ * As instruções rodam fora de transação (autocommit), no banco primário, para a reserva valer na hora.
+ * @author Erick Calazães
+ */
+@Component
+@ConditionalOnProperty(name = "idempotency.store", havingValue = "jdbc")
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcIdempotencyStore.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration inFlightTimeout;
+    private final Duration pollInterval;
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate,
+                                @Value("${idempotency.ttl:24h}") Duration ttl,
+                                @Value("${idempotency.in-flight-timeout:60s}") Duration inFlightTimeout,
+                                @Value("${idempotency.jdbc.poll-interval:50ms}") Duration pollInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.inFlightTimeout = inFlightTimeout;
+        this.pollInterval = pollInterval;
+    }
+
+    @Override
+    public boolean isShared() {
+        return true;
+    }
+
+    @Override
+    public boolean tryClaim(String key, String fingerprint) {
+        LocalDateTime now = LocalDateTime.now();
+        // Uma reserva ou resposta vencida não impede a nova reserva
+        jdbcTemplate.update("delete from idempotency_keys where idempotency_key = ? and expires_at < ?", key, now);
+        try {
+            jdbcTemplate.update("insert into idempotency_keys (idempotency_key, fingerprint, expires_at) values (?, ?, ?)",
+                    key, fingerprint, now.plus(inFlightTimeout));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        jdbcTemplate.update("update idempotency_keys set response_body = ?, expires_at = ? "
+                        + "where idempotency_key = ? and fingerprint = ?",
+                response.body(), LocalDateTime.now().plus(ttl), key, response.fingerprint());
+    }
+
+    @Override
+    public void release(String key) {
+        jdbcTemplate.update("delete from idempotency_keys where idempotency_key = ? and response_body is null", key);
+    }
+
+    @Override
+    public Optional<StoredResponse> await(String key, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            List<StoredResponse> rows = jdbcTemplate.query(
+                    "select fingerprint, response_body from idempotency_keys where idempotency_key = ? and expires_at >= ?",
+                    (rs, rowNum) -> new StoredResponse(rs.getString("fingerprint"), rs.getString("response_body")),
+                    key, LocalDateTime.now());
+            if (rows.isEmpty()) {
+                return Optional.empty();
+            }
+            if (rows.get(0).body() != null) {
+                return Optional.of(rows.get(0));
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return Optional.empty();
+            }
+            try {
+                Thread.sleep(Duration.ofNanos(Math.min(remaining, pollInterval.toNanos())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Optional.empty();
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${idempotency.jdbc.purge-interval-ms:60000}",
+            fixedDelayString = "${idempotency.jdbc.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update("delete from idempotency_keys where expires_at < ?", LocalDateTime.now());
+        if (purged > 0) {
+            log.debug("Chaves de idempotência expiradas removidas: {}", purged);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.pos.techchallenge_backend.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * @Component
+ * Chaves de idempotência em memória (padrão): respostas concluídas em um cache Caffeine limitado
+ * por idempotency.maximum-size e idempotency.ttl; requisições em andamento em um mapa de futures,
+ * que as repetições concorrentes aguardam sem consultar nada. Vale apenas para esta instância.
+ * @author Erick Calazães
+ */
+@Component
+@ConditionalOnProperty(name = "idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class MemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Cache<String, StoredResponse> completed;
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public MemoryIdempotencyStore(@Value("${idempotency.ttl:24h}") Duration ttl,
+                                  @Value("${idempotency.maximum-size:100000}") long maximumSize) {
+        this.completed = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    @Override
+    public boolean tryClaim(String key, String fingerprint) {
+        if (completed.getIfPresent(key) != null) {
+            return false;
+        }
+        CompletableFuture<StoredResponse> claim = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, claim) != null) {
+            return false;
+        }
+        // A requisição anterior pode ter concluído entre a consulta ao cache e a reserva
+        if (completed.getIfPresent(key) != null) {
+            inFlight.remove(key, claim);
+            claim.complete(null);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        completed.put(key, response);
+        CompletableFuture<StoredResponse> claim = inFlight.remove(key);
+        if (claim != null) {
+            claim.complete(response);
+        }
+    }
+
+    @Override
+    public void release(String key) {
+        CompletableFuture<StoredResponse> claim = inFlight.remove(key);
+        if (claim != null) {
+            claim.complete(null);
+        }
+    }
+
+    @Override
+    public Optional<StoredResponse> await(String key, Duration timeout) {
+        StoredResponse response = completed.getIfPresent(key);
+        if (response != null) {
+            return Optional.of(response);
+        }
+        CompletableFuture<StoredResponse> claim = inFlight.get(key);
+        if (claim == null) {
+            return Optional.ofNullable(completed.getIfPresent(key));
+        }
+        try {
+            return Optional.ofNullable(claim.get(timeout.toNanos(), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException | ExecutionException e) {
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.pos.techchallenge_backend.idempotency;
+
+/**
+ * Resposta concluída de uma requisição com Idempotency-Key, devolvida às repetições.
+ * @param fingerprint Impressão digital (HMAC) do corpo da requisição original.
+ * @param body Corpo da resposta original (JSON).
+ * @author Erick Calazães
+ */
+public record StoredResponse(String fingerprint, String body) {
+}
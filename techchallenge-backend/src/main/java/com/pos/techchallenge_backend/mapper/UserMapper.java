@@ -9,7 +9,8 @@ import com.pos.techchallenge_backend.model.entity.Client;
 import com.pos.techchallenge_backend.model.entity.RestaurantOwner;
 import com.pos.techchallenge_backend.model.entity.User;
 import com.pos.techchallenge_backend.model.enums.UserType;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.pos.techchallenge_backend.repository.projection.UserView;
+import com.pos.techchallenge_backend.security.PasswordHashingService;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
@@ -21,19 +22,21 @@ import java.time.LocalDateTime;
  * * * Responsável por:
  * 1. Mapear DTOs de Requisição para Entidades (incluindo a lógica de Single Table Inheritance).
  * 2. Mapear Entidades para DTOs de Resposta (omitindo campos sensíveis como a senha).
+ * 3. Mapear as projeções de leitura (UserView) para DTOs de Resposta.
  * @author Erick Calazães
  */
 @Component
 public class UserMapper {
 
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
 
-    public UserMapper(PasswordEncoder passwordEncoder) {
-        this.passwordEncoder = passwordEncoder;
+    public UserMapper(PasswordHashingService passwordHashingService) {
+        this.passwordHashingService = passwordHashingService;
     }
 
     /**
      * Converte o DTO de Requisição de Endereço para a Entidade Address.
+     * O CEP é gravado só com os dígitos (sem o hífen), formato comparado pelo prefixo da busca filtrada.
      * @param request DTO AddressRequest.
      * @return Entidade Address.
      */
@@ -43,7 +46,7 @@ public class UserMapper {
                 .street(request.getStreet())
                 .number(request.getNumber())
                 .city(request.getCity())
-                .zipCode(request.getZipCode())
+                .zipCode(request.getZipCode() == null ? null : request.getZipCode().replace("-", ""))
                 .build();
     }
 
@@ -67,11 +70,22 @@ public class UserMapper {
     /**
      * Mapeia o DTO de Cadastro para a Entidade User, resolvendo o Single Table Inheritance.
      * 1. Instancia a subclasse correta (Client ou RestaurantOwner) baseada no DTO.
-     * 2. Criptografa a senha usando o PasswordEncoder.
+     * 2. Criptografa a senha usando o PasswordHashingService (pool de hashing).
      * @param request DTO UserRegistrationRequest.
      * @return Entidade User (subclasse: Client ou RestaurantOwner).
      */
     public User mapRegistrationRequestToUser(UserRegistrationRequest request){
+        return mapRegistrationRequestToUser(request, passwordHashingService.encode(request.getPassword()));
+    }
+
+    /**
+     * Mapeia o DTO de Cadastro para a Entidade User com a senha já criptografada
+     * (cadastro em lote, em que os hashes são calculados em paralelo).
+     * @param request DTO UserRegistrationRequest.
+     * @param passwordHash Hash BCrypt da senha do DTO.
+     * @return Entidade User (subclasse: Client ou RestaurantOwner).
+     */
+    public User mapRegistrationRequestToUser(UserRegistrationRequest request, String passwordHash){
         User user;
 
         if (request.getUserType() == UserType.CLIENT){
@@ -85,7 +99,8 @@ public class UserMapper {
         user.setName(request.getName());
         user.setEmail(request.getEmail());
         user.setLogin(request.getLogin());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHash);
+        user.setUserType(request.getUserType()); // Somente leitura no banco: a coluna é gravada pela subclasse
         user.setAddress(mapAddressRequestToAddress(request.getAddress()));
         user.setLastUpdateDate(LocalDateTime.now());
 
@@ -95,8 +110,8 @@ public class UserMapper {
     // --- Mapeamento de Usuário (Entidade para Resposta) ---
 
     /**
-     * Mapeia a Entidade User para o DTO de Resposta, excluindo a senha e
-     * convertendo o tipo da subclasse de volta para o Enum/Tipo de Registro do DTO.
+     * Mapeia a Entidade User para o DTO de Resposta, excluindo a senha.
+     * O tipo vem do atributo userType (coluna discriminadora), sem inspecionar a subclasse.
      * @param user Entidade User (subclasse).
      * @return DTO UserResponse.
      */
@@ -109,13 +124,42 @@ public class UserMapper {
         response.setName(user.getName());
         response.setEmail(user.getEmail());
         response.setLogin(user.getLogin());
+        response.setUserType(user.getUserType());
         response.setLastUpdatedDate(user.getLastUpdateDate());
         response.setAddress(mapAddressToAddressResponse(user.getAddress()));
+        response.setVersion(user.getVersion());
+
+        return response;
+    }
+
+    // --- Mapeamento de Usuário (Projeção para Resposta) ---
+
+    /**
+     * Mapeia a projeção de leitura para o DTO de Resposta (endpoints de consulta).
+     * Assim como no @Embedded, um endereço com todos os campos nulos vira null.
+     * @param view Projeção UserView.
+     * @return DTO UserResponse.
+     */
+    public UserResponse mapUserViewToUserResponse(UserView view){
+        if (view == null) return null;
+
+        UserResponse response = new UserResponse();
 
-        if (user instanceof Client){
-            response.setUserType(UserType.CLIENT);
-        } else if (user instanceof RestaurantOwner) {
-            response.setUserType(UserType.RESTAURANT_OWNER);
+        response.setId(view.id());
+        response.setName(view.name());
+        response.setEmail(view.email());
+        response.setLogin(view.login());
+        response.setUserType(view.userType());
+        response.setLastUpdatedDate(view.lastUpdateDate());
+        response.setVersion(view.version());
+
+        if (view.street() != null || view.number() != null || view.city() != null || view.zipCode() != null) {
+            AddressResponse address = new AddressResponse();
+            address.setStreet(view.street());
+            address.setNumber(view.number());
+            address.setCity(view.city());
+            address.setZipCode(view.zipCode());
+            response.setAddress(address);
         }
 
         return response;
@@ -0,0 +1,57 @@
+package com.pos.techchallenge_backend.metrics;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+
+/**
+ * Estatísticas do Hibernate (hibernate.generate_statistics) sem as estatísticas por consulta.
+ * A implementação padrão mantém, para cada texto de consulta, um registro em um mapa com despejo LIRS
+ * (hibernate.statistics.query_max_size) e o atualiza sob um lock a cada execução, consulta ao cache de
+ * planos e compilação: só isso custava ~0,8% da latência do GET /api/v1/users/{id}
+ * (ver InstrumentationOverheadBenchmark). Como as métricas exportadas (hibernate-micrometer) usam apenas
+ * os contadores globais, as chamadas por consulta repassam a consulta como null, que a implementação
+ * padrão já trata como "sem estatística por consulta"; contadores globais e por entidade continuam iguais.
+ * Registrada em hibernate.stats.factory pelo MetricsConfig.
+ * @author Erick Calazães
+ */
+public class GlobalQueryStatistics extends StatisticsImpl {
+
+    public GlobalQueryStatistics(SessionFactoryImplementor sessionFactory) {
+        super(sessionFactory);
+    }
+
+    @Override
+    public void queryExecuted(String hql, int rows, long time) {
+        super.queryExecuted(null, rows, time);
+    }
+
+    @Override
+    public void queryCompiled(String hql, long microseconds) {
+        super.queryCompiled(null, microseconds);
+    }
+
+    @Override
+    public void queryPlanCacheHit(String query) {
+        super.queryPlanCacheHit(null);
+    }
+
+    @Override
+    public void queryPlanCacheMiss(String query) {
+        super.queryPlanCacheMiss(null);
+    }
+
+    @Override
+    public void queryCacheHit(String hql, String regionName) {
+        super.queryCacheHit(null, regionName);
+    }
+
+    @Override
+    public void queryCacheMiss(String hql, String regionName) {
+        super.queryCacheMiss(null, regionName);
+    }
+
+    @Override
+    public void queryCachePut(String hql, String regionName) {
+        super.queryCachePut(null, regionName);
+    }
+}
@@ -0,0 +1,76 @@
+package com.pos.techchallenge_backend.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Component
+ * StatementInspector do Hibernate que conta os comandos SQL preparados na thread atual, por tipo
+ * (SELECT, INSERT, UPDATE, DELETE), entre begin() e end() (uma requisição HTTP, ver RequestSqlMetricsFilter).
+ * As contagens podem ser aninhadas: ao final, a contagem interna é somada à externa (um teste pode
+ * contar os comandos de uma requisição inteira em volta da contagem do filtro).
+ * Com batch JDBC, cada comando preparado conta uma vez, não importa quantas linhas o batch grava.
+ * Não altera o SQL; fora de uma contagem ativa o custo é uma leitura de ThreadLocal.
+ * Só vê o SQL preparado pela sessão do Hibernate: comandos do JdbcTemplate e os do gerador de IDs
+ * (id_generator, executados direto na conexão) não entram na contagem.
+ * @author Erick Calazães
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<Frame> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        Frame frame = CURRENT.get();
+        if (frame != null) {
+            frame.counts[SqlStatementType.of(sql).ordinal()]++;
+        }
+        return sql;
+    }
+
+    /**
+     * Inicia uma contagem na thread atual (dentro de outra contagem, se houver).
+     */
+    public void begin() {
+        CURRENT.set(new Frame(CURRENT.get()));
+    }
+
+    /**
+     * Encerra a contagem mais interna da thread atual.
+     * @return int Comandos SQL preparados desde o begin() (0 se não havia contagem ativa).
+     */
+    public int end() {
+        return endCounts().total();
+    }
+
+    /**
+     * Encerra a contagem mais interna da thread atual, somando-a à contagem externa.
+     * @return SqlStatementCounts Comandos SQL preparados desde o begin(), por tipo.
+     */
+    public SqlStatementCounts endCounts() {
+        Frame frame = CURRENT.get();
+        if (frame == null) {
+            return SqlStatementCounts.of(new int[SqlStatementType.values().length]);
+        }
+        if (frame.parent == null) {
+            CURRENT.remove();
+        } else {
+            for (int i = 0; i < frame.counts.length; i++) {
+                frame.parent.counts[i] += frame.counts[i];
+            }
+            CURRENT.set(frame.parent);
+        }
+        return SqlStatementCounts.of(frame.counts);
+    }
+
+    private static final class Frame {
+
+        private final Frame parent;
+        private final int[] counts = new int[SqlStatementType.values().length];
+
+        private Frame(Frame parent) {
+            this.parent = parent;
+        }
+    }
+}
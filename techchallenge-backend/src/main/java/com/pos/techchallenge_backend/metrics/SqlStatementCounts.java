@@ -0,0 +1,26 @@
+package com.pos.techchallenge_backend.metrics;
+
+/**
+ * Comandos SQL preparados em uma contagem do SqlStatementCounter, por tipo.
+ * @author Erick Calazães
+ */
+public record SqlStatementCounts(int selects, int inserts, int updates, int deletes, int others) {
+
+    static SqlStatementCounts of(int[] counts) {
+        return new SqlStatementCounts(counts[SqlStatementType.SELECT.ordinal()],
+                counts[SqlStatementType.INSERT.ordinal()],
+                counts[SqlStatementType.UPDATE.ordinal()],
+                counts[SqlStatementType.DELETE.ordinal()],
+                counts[SqlStatementType.OTHER.ordinal()]);
+    }
+
+    public int total() {
+        return selects + inserts + updates + deletes + others;
+    }
+
+    @Override
+    public String toString() {
+        return "SELECT=" + selects + ", INSERT=" + inserts + ", UPDATE=" + updates + ", DELETE=" + deletes
+                + ", OTHER=" + others;
+    }
+}
@@ -0,0 +1,42 @@
+package com.pos.techchallenge_backend.metrics;
+
+/**
+ * Tipo de um comando SQL, pela primeira palavra-chave (após comentários iniciais).
+ * @author Erick Calazães
+ */
+public enum SqlStatementType {
+    SELECT, INSERT, UPDATE, DELETE, OTHER;
+
+    public static SqlStatementType of(String sql) {
+        int start = 0;
+        int length = sql.length();
+        while (start < length) {
+            if (Character.isWhitespace(sql.charAt(start))) {
+                start++;
+            } else if (sql.startsWith("/*", start)) {
+                // Comentários do Hibernate (hibernate.use_sql_comments)
+                int end = sql.indexOf("*/", start + 2);
+                start = end < 0 ? length : end + 2;
+            } else {
+                break;
+            }
+        }
+        if (startsWithKeyword(sql, start, "select") || startsWithKeyword(sql, start, "with")) {
+            return SELECT;
+        }
+        if (startsWithKeyword(sql, start, "insert")) {
+            return INSERT;
+        }
+        if (startsWithKeyword(sql, start, "update")) {
+            return UPDATE;
+        }
+        if (startsWithKeyword(sql, start, "delete")) {
+            return DELETE;
+        }
+        return OTHER;
+    }
+
+    private static boolean startsWithKeyword(String sql, int start, String keyword) {
+        return sql.regionMatches(true, start, keyword, 0, keyword.length());
+    }
+}
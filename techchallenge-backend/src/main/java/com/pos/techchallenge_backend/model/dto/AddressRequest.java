@@ -3,6 +3,7 @@ package com.pos.techchallenge_backend.model.dto;
 import lombok.Getter;
 import lombok.Setter;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 
 @Getter
 @Setter
@@ -17,6 +18,8 @@ public class AddressRequest {
     @NotBlank(message = "Cidade é obrigatória")
     private String city;
 
+    // Gravado só com os dígitos (UserMapper), no mesmo formato do prefixo da busca filtrada
     @NotBlank(message = "CEP é obrigatório")
+    @Pattern(regexp = "\\d{5}-?\\d{3}", message = "CEP deve ter 8 dígitos, com ou sem hífen (ex.: 01234-567)")
     private String zipCode;
 }
\ No newline at end of file
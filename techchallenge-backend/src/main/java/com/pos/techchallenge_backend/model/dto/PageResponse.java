@@ -0,0 +1,15 @@
+package com.pos.techchallenge_backend.model.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class PageResponse<T> {
+
+    private List<T> items;
+    private int size;
+    private String nextCursor; // Cursor opaco da próxima página (null na última página)
+}
@@ -0,0 +1,14 @@
+package com.pos.techchallenge_backend.model.dto.user;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkDeleteResponse {
+
+    private int deleted;
+    private List<Long> notFound; // IDs inexistentes (ou já excluídos), na ordem da requisição
+}
@@ -0,0 +1,16 @@
+package com.pos.techchallenge_backend.model.dto.user;
+
+import com.pos.techchallenge_backend.model.enums.BulkItemStatus;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class BulkRegistrationItemResult {
+
+    private int index; // Posição do item na lista enviada
+    private BulkItemStatus status;
+    private Long id; // Preenchido apenas quando o usuário foi criado
+    private String email;
+    private String message;
+}
@@ -0,0 +1,15 @@
+package com.pos.techchallenge_backend.model.dto.user;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkRegistrationResponse {
+
+    private int created;
+    private int failed;
+    private List<BulkRegistrationItemResult> results; // Um resultado por item, na ordem da requisição
+}
@@ -0,0 +1,16 @@
+package com.pos.techchallenge_backend.model.dto.user;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class LoginResponse {
+
+    private String status;
+    private String message;
+    private String accessToken;
+    private String refreshToken;
+    private String tokenType;
+    private long expiresIn; // Validade do token de acesso, em segundos
+}
@@ -0,0 +1,15 @@
+package com.pos.techchallenge_backend.model.dto.user;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Schema(example = "{\n  \"refreshToken\": \"UkVGUkVTSHwxMDF8MTczMTI4MDAwMHxqb2FvLmNsaWVudGU.c2lnbmF0dXJl\"\n}")
+public class RefreshTokenRequest {
+
+    @NotBlank(message = "Refresh token é obrigatório")
+    private String refreshToken;
+}
@@ -0,0 +1,14 @@
+package com.pos.techchallenge_backend.model.dto.user;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class UserBatchResponse {
+
+    private List<UserResponse> items; // Usuários encontrados, na ordem dos IDs da requisição
+    private List<Long> missing; // IDs inexistentes, na ordem da requisição
+}
@@ -3,6 +3,7 @@ package com.pos.techchallenge_backend.model.dto.user;
 import com.pos.techchallenge_backend.model.dto.AddressRequest;
 import com.pos.techchallenge_backend.model.enums.UserType;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -33,6 +34,7 @@ public class UserRegistrationRequest {
     @Schema(description = "Tipo: CLIENT ou RESTAURANT_OWNER", example = "CLIENT")
     private UserType userType;
 
+    @Valid
     @NotNull(message = "O endereço é obrigatório")
     private AddressRequest address;
 }
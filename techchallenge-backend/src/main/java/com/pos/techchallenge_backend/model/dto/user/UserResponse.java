@@ -19,4 +19,5 @@ public class UserResponse {
     private UserType userType;
     private LocalDateTime lastUpdatedDate;
     private AddressResponse address;
+    private Long version; // Versão para o If-Match das atualizações (também enviada no ETag)
 }
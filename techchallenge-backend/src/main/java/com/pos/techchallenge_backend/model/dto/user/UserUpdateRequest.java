@@ -2,6 +2,7 @@ package com.pos.techchallenge_backend.model.dto.user;
 
 import com.pos.techchallenge_backend.model.dto.AddressRequest;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
@@ -23,5 +24,6 @@ public class UserUpdateRequest {
     @NotBlank(message = "Login é obrigatório")
     private String login;
 
+    @Valid
     private AddressRequest address; // Endereço pode ser opcional ou revalidado
 }
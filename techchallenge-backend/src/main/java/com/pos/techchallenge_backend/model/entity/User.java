@@ -1,11 +1,14 @@
 package com.pos.techchallenge_backend.model.entity;
 
+import com.pos.techchallenge_backend.model.enums.UserType;
+import com.pos.techchallenge_backend.repository.UserConstraints;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.Date;
@@ -16,19 +19,33 @@ import java.util.Date;
 @AllArgsConstructor
 @SuperBuilder
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = UserConstraints.UNIQUE_EMAIL, columnNames = "email"),
+        @UniqueConstraint(name = UserConstraints.UNIQUE_LOGIN, columnNames = "login")
+})
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "user_type", discriminatorType = DiscriminatorType.STRING)
 public abstract class User {
 
+    // Gerador de IDs em tabela, reservando blocos de IDs por ida ao banco (otimizador "pooled").
+    // Com IDENTITY o Hibernate precisa executar cada INSERT para conhecer o ID e desliga o batch JDBC.
+    public static final String ID_GENERATOR_TABLE = "id_generator";
+    public static final String ID_GENERATOR_NAME_COLUMN = "sequence_name";
+    public static final String ID_GENERATOR_VALUE_COLUMN = "next_val";
+    public static final String ID_GENERATOR_KEY = "users";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "users_id")
+    @TableGenerator(name = "users_id", table = ID_GENERATOR_TABLE,
+            pkColumnName = ID_GENERATOR_NAME_COLUMN, valueColumnName = ID_GENERATOR_VALUE_COLUMN,
+            pkColumnValue = ID_GENERATOR_KEY, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
     private String name;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
 
     @Column(nullable = false)
@@ -37,10 +54,23 @@ public abstract class User {
     @Column(nullable = false)
     private String password;
 
+    // Coluna discriminadora exposta como atributo somente leitura: quem grava é o Hibernate,
+    // a partir da subclasse (Client/RestaurantOwner); permite ler o tipo em projeções
+    @Enumerated(EnumType.STRING)
+    @Column(name = "user_type", insertable = false, updatable = false)
+    private UserType userType;
+
     @Temporal(TemporalType.TIMESTAMP)
     private LocalDateTime lastUpdateDate;
 
     @Embedded
     private Address address;
 
+    // Controle de concorrência otimista: toda atualização incrementa a versão e só é aplicada
+    // sobre a versão lida (ETag/If-Match na API)
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
 }
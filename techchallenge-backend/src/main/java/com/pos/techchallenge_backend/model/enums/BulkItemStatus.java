@@ -0,0 +1,9 @@
+package com.pos.techchallenge_backend.model.enums;
+
+public enum BulkItemStatus {
+    CREATED,
+    INVALID,
+    DUPLICATE_IN_REQUEST,
+    EMAIL_ALREADY_EXISTS,
+    LOGIN_ALREADY_EXISTS
+}
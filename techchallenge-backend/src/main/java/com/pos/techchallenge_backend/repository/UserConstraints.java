@@ -0,0 +1,38 @@
+package com.pos.techchallenge_backend.repository;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Nomes das constraints da tabela users e identificação de qual delas foi violada.
+ * A unicidade é garantida pelo banco: o serviço tenta o INSERT/UPDATE e traduz a violação
+ * para a exceção de negócio correspondente, sem consultar antes (e sem janela de corrida).
+ * @author Erick Calazães
+ */
+public final class UserConstraints {
+
+    public static final String UNIQUE_EMAIL = "uk_users_email";
+    public static final String UNIQUE_LOGIN = "uk_users_login";
+
+    private UserConstraints() {
+    }
+
+    /**
+     * Indica se a exceção foi causada pela violação da constraint informada.
+     * Usa o nome extraído pelo Hibernate e, na falta dele, a mensagem do driver.
+     */
+    public static boolean isViolated(DataIntegrityViolationException exception, String constraint) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(constraint)) {
+                return true;
+            }
+            if (cause.getMessage() != null && cause.getMessage().toLowerCase(Locale.ROOT).contains(constraint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,37 @@
+package com.pos.techchallenge_backend.repository;
+
+import com.pos.techchallenge_backend.exception.custom.InvalidFilterException;
+import com.pos.techchallenge_backend.model.enums.UserType;
+
+/**
+ * Filtros da busca de usuários (GET /api/v1/users/filter); filtros nulos não restringem a busca.
+ * @param userType Tipo do usuário.
+ * @param city Cidade do endereço (comparada pela collation da coluna).
+ * @param zipPrefix Início do CEP, só com dígitos (de 1 a 8).
+ * @author Erick Calazães
+ */
+public record UserFilter(UserType userType, String city, String zipPrefix) {
+
+    private static final int ZIP_CODE_LENGTH = 8;
+
+    /**
+     * Normaliza os filtros recebidos da API: textos em branco são ignorados e o hífen do CEP é removido.
+     * @throws InvalidFilterException Se o prefixo do CEP não tiver apenas dígitos ou passar de 8 dígitos.
+     */
+    public static UserFilter of(UserType userType, String city, String zipPrefix) {
+        String normalizedCity = city == null || city.isBlank() ? null : city.trim();
+        String normalizedZip = zipPrefix == null || zipPrefix.isBlank() ? null : zipPrefix.trim().replace("-", "");
+        if (normalizedZip != null && !normalizedZip.matches("\\d{1," + ZIP_CODE_LENGTH + "}")) {
+            throw new InvalidFilterException("O prefixo do CEP deve ter de 1 a " + ZIP_CODE_LENGTH + " dígitos.");
+        }
+        return new UserFilter(userType, normalizedCity, normalizedZip);
+    }
+
+    /**
+     * Só o prefixo do CEP foi informado: a busca percorre o índice (zip_code, id) na ordem dele,
+     * já que nenhum índice com o CEP na frente está em ordem de ID.
+     */
+    public boolean ordersByZipCode() {
+        return zipPrefix != null && userType == null && city == null;
+    }
+}
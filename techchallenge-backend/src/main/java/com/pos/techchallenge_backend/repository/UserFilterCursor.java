@@ -0,0 +1,44 @@
+package com.pos.techchallenge_backend.repository;
+
+import com.pos.techchallenge_backend.exception.custom.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Chave de um usuário na ordem da busca filtrada: CEP e ID.
+ * A busca só pelo prefixo do CEP é ordenada por (CEP, ID), a ordem do índice idx_users_zip_code_id;
+ * as demais combinações de filtros são ordenadas só pelo ID e ignoram o CEP da chave.
+ * A chave do último item de uma página é o cursor da próxima, enviado ao cliente como texto opaco (base64url).
+ * @param zipCode CEP do usuário (só dígitos).
+ * @param id ID do usuário.
+ * @author Erick Calazães
+ */
+public record UserFilterCursor(String zipCode, long id) {
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(((zipCode == null ? "" : zipCode) + ":" + id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @param cursor Cursor opaco recebido do cliente (pode ser nulo ou vazio na primeira página).
+     * @return UserFilterCursor Chave decodificada, ou null para a primeira página.
+     * @throws InvalidCursorException Se o cursor não tiver sido emitido pela API.
+     */
+    public static UserFilterCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            int separator = value.lastIndexOf(':');
+            if (separator < 0) {
+                throw new InvalidCursorException("Cursor de paginação inválido.");
+            }
+            return new UserFilterCursor(value.substring(0, separator), Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Cursor de paginação inválido.");
+        }
+    }
+}
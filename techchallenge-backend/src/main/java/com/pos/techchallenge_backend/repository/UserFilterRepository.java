@@ -0,0 +1,21 @@
+package com.pos.techchallenge_backend.repository;
+
+import java.util.List;
+
+/**
+ * Fragmento do UserRepository com a busca filtrada, montada com a Criteria API conforme os filtros informados.
+ * @author Erick Calazães
+ */
+public interface UserFilterRepository {
+
+    /**
+     * Chaves (CEP e ID) dos usuários que atendem aos filtros, depois de "after" (paginação por chave).
+     * A ordem é a do índice usado: (CEP, ID) na busca só pelo prefixo do CEP e ID nas demais.
+     * Lê apenas colunas dos índices das migrações V3 e V5, sem acessar as linhas da tabela.
+     * @param filter Filtros (os nulos não restringem a busca).
+     * @param after Chave do último usuário da página anterior (null na primeira página).
+     * @param limit Quantidade máxima de chaves.
+     * @return List<UserFilterCursor> Chaves encontradas, na ordem da busca.
+     */
+    List<UserFilterCursor> findKeysByFilter(UserFilter filter, UserFilterCursor after, int limit);
+}
@@ -0,0 +1,71 @@
+package com.pos.techchallenge_backend.repository;
+
+import com.pos.techchallenge_backend.model.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementação do fragmento UserFilterRepository (sufixo Impl, encontrado pelo Spring Data).
+ * Só entram na consulta os filtros informados, para o otimizador escolher o índice composto certo:
+ * tipo + cidade usa idx_users_type_city_id_zip, só o tipo idx_users_type_id_zip, só a cidade
+ * idx_users_city_id_zip e só o CEP idx_users_zip_code_id. O CEP está em todos esses índices:
+ * ler a chave (CEP, ID) continua sem acessar a tabela.
+ * @author Erick Calazães
+ */
+public class UserFilterRepositoryImpl implements UserFilterRepository {
+
+    private final EntityManager entityManager;
+
+    public UserFilterRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<UserFilterCursor> findKeysByFilter(UserFilter filter, UserFilterCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> user = query.from(User.class);
+        Path<String> zipCode = user.get("address").get("zipCode");
+        Path<Long> id = user.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.userType() != null) {
+            predicates.add(cb.equal(user.get("userType"), filter.userType()));
+        }
+        if (filter.city() != null) {
+            predicates.add(cb.equal(user.get("address").get("city"), filter.city()));
+        }
+        if (filter.zipPrefix() != null) {
+            // Prefixo só com dígitos (validado em UserFilter): nenhum curinga a escapar
+            predicates.add(cb.like(zipCode, filter.zipPrefix() + "%"));
+        }
+
+        if (filter.ordersByZipCode()) {
+            // Depois de (CEP, ID) da página anterior: intervalo contínuo no índice (zip_code, id)
+            if (after != null) {
+                predicates.add(cb.or(cb.greaterThan(zipCode, after.zipCode()),
+                        cb.and(cb.equal(zipCode, after.zipCode()), cb.greaterThan(id, after.id()))));
+            }
+            query.orderBy(cb.asc(zipCode), cb.asc(id));
+        } else {
+            predicates.add(cb.greaterThan(id, after == null ? 0L : after.id()));
+            query.orderBy(cb.asc(id));
+        }
+
+        query.multiselect(zipCode, id).where(predicates.toArray(Predicate[]::new));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList()
+                .stream()
+                .map(row -> new UserFilterCursor(row.get(0, String.class), row.get(1, Long.class)))
+                .toList();
+    }
+}
@@ -0,0 +1,67 @@
+package com.pos.techchallenge_backend.repository;
+
+import com.pos.techchallenge_backend.model.entity.User;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Component
+ * Alinha o gerador de IDs em tabela (id_generator) com os IDs já existentes em users.
+ * A migração V1_1 faz o alinhamento inicial (bases da época do AUTO_INCREMENT), mas só uma vez:
+ * usuários gravados depois com ID explícito, fora do Hibernate (importação ou restauração via SQL,
+ * carga de dados dos testes de carga), deixam o gerador para trás, e os próximos cadastros colidiriam
+ * com eles. Roda na inicialização, depois das migrações, e pode ser chamada de novo após uma carga;
+ * só avança o valor (nunca o reduz), então é segura com várias instâncias subindo ao mesmo tempo.
+ * @author Erick Calazães
+ */
+@Component
+public class UserIdGeneratorAligner {
+
+    private static final Logger log = LoggerFactory.getLogger(UserIdGeneratorAligner.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Recebe o FlywayMigrationInitializer apenas para rodar depois das migrações (a tabela id_generator vem da V1_1)
+    public UserIdGeneratorAligner(JdbcTemplate jdbcTemplate, FlywayMigrationInitializer flywayMigrationInitializer) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void align() {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from users", Long.class);
+        if (maxId == null) {
+            return;
+        }
+        // Margem de um bloco inteiro: o otimizador "pooled" entrega IDs abaixo do valor lido da tabela
+        long nextValue = maxId + User.ID_ALLOCATION_SIZE + 1;
+
+        String update = "update " + User.ID_GENERATOR_TABLE + " set " + User.ID_GENERATOR_VALUE_COLUMN + " = ?"
+                + " where " + User.ID_GENERATOR_NAME_COLUMN + " = ? and " + User.ID_GENERATOR_VALUE_COLUMN + " < ?";
+        int updated = jdbcTemplate.update(update, nextValue, User.ID_GENERATOR_KEY, nextValue);
+
+        if (updated == 0 && !generatorRowExists()) {
+            try {
+                jdbcTemplate.update("insert into " + User.ID_GENERATOR_TABLE + " (" + User.ID_GENERATOR_NAME_COLUMN
+                        + ", " + User.ID_GENERATOR_VALUE_COLUMN + ") values (?, ?)", User.ID_GENERATOR_KEY, nextValue);
+                updated = 1;
+            } catch (DuplicateKeyException e) {
+                // Outra instância criou a linha ao mesmo tempo
+                updated = jdbcTemplate.update(update, nextValue, User.ID_GENERATOR_KEY, nextValue);
+            }
+        }
+        if (updated > 0) {
+            log.info("Gerador de IDs de usuários alinhado: próximo valor {} (maior ID existente {})", nextValue, maxId);
+        }
+    }
+
+    private boolean generatorRowExists() {
+        Integer rows = jdbcTemplate.queryForObject("select count(*) from " + User.ID_GENERATOR_TABLE
+                + " where " + User.ID_GENERATOR_NAME_COLUMN + " = ?", Integer.class, User.ID_GENERATOR_KEY);
+        return rows != null && rows > 0;
+    }
+}
@@ -1,20 +1,218 @@
 package com.pos.techchallenge_backend.repository;
 
 import com.pos.techchallenge_backend.model.entity.User;
+import com.pos.techchallenge_backend.repository.projection.LoginCredentials;
+import com.pos.techchallenge_backend.repository.projection.UserNameView;
+import com.pos.techchallenge_backend.repository.projection.UserUniqueKeysView;
+import com.pos.techchallenge_backend.repository.projection.UserVersionView;
+import com.pos.techchallenge_backend.repository.projection.UserView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserFilterRepository {
+
+    // Colunas públicas do usuário (sem a senha) na ordem do construtor de UserView
+    String USER_VIEW = "select new com.pos.techchallenge_backend.repository.projection.UserView(" +
+            "u.id, u.name, u.email, u.login, u.userType, u.lastUpdateDate, " +
+            "u.address.street, u.address.number, u.address.city, u.address.zipCode, u.version) from User u ";
+
+    // Caractere de escape dos curingas do LIKE (a barra invertida é escape de string no MySQL)
+    char LIKE_ESCAPE = '!';
 
     Optional<User> findByEmail(String email);
 
-    List<User> findByNameContainingIgnoreCase(String name);
+    /**
+     * Retorna quais dos e-mails informados já estão cadastrados, em uma única consulta (cadastro em lote).
+     */
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Busca por nome direto no banco (trecho do nome, sem diferenciar maiúsculas), paginada por chave (ID),
+     * usada enquanto o índice de busca carrega. Os curingas do LIKE digitados no termo são tratados como texto.
+     */
+    default List<UserView> findViewsByNameContaining(String name, Long afterId, Pageable pageable) {
+        String escaped = name.toLowerCase(Locale.ROOT)
+                .replace(String.valueOf(LIKE_ESCAPE), LIKE_ESCAPE + "" + LIKE_ESCAPE)
+                .replace("%", LIKE_ESCAPE + "%")
+                .replace("_", LIKE_ESCAPE + "_");
+        return findViewsByNameLike("%" + escaped + "%", afterId, pageable);
+    }
+
+    @Query(USER_VIEW + "where lower(u.name) like :pattern escape '" + LIKE_ESCAPE + "' and u.id > :afterId order by u.id")
+    List<UserView> findViewsByNameLike(@Param("pattern") String pattern, @Param("afterId") Long afterId,
+                                       Pageable pageable);
+
+    /**
+     * Lê um usuário pela chave primária, direto na projeção.
+     */
+    @Query(USER_VIEW + "where u.id = :id")
+    Optional<UserView> findViewById(@Param("id") Long id);
+
+    /**
+     * Lê apenas a versão do usuário (diagnóstico de uma atualização condicional que não alterou nenhuma linha).
+     */
+    @Query("select u.version from User u where u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Lê (ID, versão) dos usuários informados, em uma única consulta (ETag da busca em lote).
+     */
+    @Query("select new com.pos.techchallenge_backend.repository.projection.UserVersionView(u.id, u.version) " +
+            "from User u where u.id in :ids")
+    List<UserVersionView> findVersionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Lê os usuários pelos IDs (página do índice de busca), direto na projeção. A ordem não é garantida.
+     */
+    @Query(USER_VIEW + "where u.id in :ids")
+    List<UserView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
 
     Optional<User> findByLoginAndPassword(String login, String password);
 
     Optional<User> findByLogin(String login);
+
+    boolean existsByLogin(String login);
+
+    boolean existsByEmail(String email);
+
+    /**
+     * Lê apenas ID, login e hash da senha pelo índice único de login (validação do login).
+     */
+    @Query("select new com.pos.techchallenge_backend.repository.projection.LoginCredentials(u.id, u.login, u.password) " +
+            "from User u where u.login = :login")
+    Optional<LoginCredentials> findCredentialsByLogin(@Param("login") String login);
+
+    /**
+     * Lê apenas ID, login e hash da senha pela chave primária (troca de senha e renovação de tokens).
+     */
+    @Query("select new com.pos.techchallenge_backend.repository.projection.LoginCredentials(u.id, u.login, u.password) " +
+            "from User u where u.id = :id")
+    Optional<LoginCredentials> findCredentialsById(@Param("id") Long id);
+
+    /**
+     * Retorna quais dos logins informados já estão cadastrados, em uma única consulta (cadastro em lote).
+     */
+    @Query("select u.login from User u where u.login in :logins")
+    List<String> findExistingLogins(@Param("logins") Collection<String> logins);
+
+    /**
+     * Lê (ID, nome) em ordem de ID a partir de um ID (paginação por chave), para carregar o
+     * índice de busca por nome sem OFFSET e sem hidratar entidades.
+     */
+    @Query("select new com.pos.techchallenge_backend.repository.projection.UserNameView(u.id, u.name) " +
+            "from User u where u.id > :afterId order by u.id")
+    List<UserNameView> findNamesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Lê (ID, nome) dos usuários alterados desde o instante informado (sincronização incremental do índice).
+     */
+    @Query("select new com.pos.techchallenge_backend.repository.projection.UserNameView(u.id, u.name) " +
+            "from User u where u.lastUpdateDate >= :since")
+    List<UserNameView> findNamesUpdatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Lê (ID, e-mail, login) em ordem de ID a partir de um ID (paginação por chave), para carregar o
+     * filtro de unicidade.
+     */
+    @Query("select new com.pos.techchallenge_backend.repository.projection.UserUniqueKeysView(u.id, u.email, u.login) " +
+            "from User u where u.id > :afterId order by u.id")
+    List<UserUniqueKeysView> findUniqueKeysAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Lê (ID, e-mail, login) dos usuários alterados desde o instante informado (sincronização incremental do filtro).
+     */
+    @Query("select new com.pos.techchallenge_backend.repository.projection.UserUniqueKeysView(u.id, u.email, u.login) " +
+            "from User u where u.lastUpdateDate >= :since")
+    List<UserUniqueKeysView> findUniqueKeysUpdatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Percorre todos os usuários em ordem de ID, sem carregar a tabela inteira em memória:
+     * o driver busca as linhas em lotes (fetch size) e cada linha vira uma UserView (nada fica
+     * no contexto de persistência). No MySQL o fetch size exige useCursorFetch=true na URL de conexão.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(USER_VIEW + "order by u.id")
+    Stream<UserView> streamAllOrderedById();
+
+    /**
+     * Atualiza nome, e-mail, login e endereço em um único UPDATE (sem leitura prévia da entidade),
+     * apenas com as colunas de dados, incrementando a versão. Com expectedVersion informada, só
+     * atualiza se a versão gravada ainda for a esperada (If-Match).
+     * @return int Quantidade de linhas atualizadas (0 se o usuário não existe ou a versão mudou).
+     */
+    @Modifying
+    @Query("update User u set u.name = :name, u.email = :email, u.login = :login, " +
+            "u.address.street = :street, u.address.number = :number, u.address.city = :city, " +
+            "u.address.zipCode = :zipCode, u.lastUpdateDate = :now, u.version = u.version + 1 " +
+            "where u.id = :id and (:expectedVersion is null or u.version = :expectedVersion)")
+    int updateData(@Param("id") Long id, @Param("expectedVersion") Long expectedVersion,
+                   @Param("name") String name, @Param("email") String email, @Param("login") String login,
+                   @Param("street") String street, @Param("number") String number, @Param("city") String city,
+                   @Param("zipCode") String zipCode, @Param("now") LocalDateTime now);
+
+    /**
+     * Troca a senha em um único UPDATE condicional: só grava se o hash atual ainda for o que foi
+     * conferido com a senha informada e, com expectedVersion informada, se a versão ainda for a esperada.
+     * @return int Quantidade de linhas atualizadas (0 se o usuário não existe, a senha ou a versão mudou).
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newHash, u.lastUpdateDate = :now, u.version = u.version + 1 " +
+            "where u.id = :id and u.password = :currentHash " +
+            "and (:expectedVersion is null or u.version = :expectedVersion)")
+    int changePassword(@Param("id") Long id, @Param("expectedVersion") Long expectedVersion,
+                       @Param("currentHash") String currentHash, @Param("newHash") String newHash,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Exclui o usuário em um único DELETE (sem carregar a entidade antes, como faz o deleteById).
+     * @return int Quantidade de linhas excluídas (0 se o usuário não existe).
+     */
+    @Modifying
+    @Query("delete from User u where u.id = :id")
+    int deleteUserById(@Param("id") Long id);
+
+    /**
+     * Retorna quais dos IDs informados existem, em uma única consulta (exclusão em lote).
+     */
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Exclui os usuários informados em um único DELETE ... WHERE id IN (...).
+     * @return int Quantidade de linhas excluídas.
+     */
+    @Modifying
+    @Query("delete from User u where u.id in :ids")
+    int deleteUsersByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Troca o hash da senha apenas se o hash atual ainda for o esperado (evita sobrescrever
+     * uma troca de senha concorrente). Usado no rehash transparente após o login: a senha não muda
+     * para o usuário, então a versão é mantida.
+     * @return int Quantidade de linhas atualizadas (0 se o hash mudou nesse meio tempo).
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newHash where u.id = :id and u.password = :currentHash")
+    int updatePasswordHash(@Param("id") Long id, @Param("currentHash") String currentHash,
+                           @Param("newHash") String newHash);
 }
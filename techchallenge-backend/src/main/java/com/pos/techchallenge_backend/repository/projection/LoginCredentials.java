@@ -0,0 +1,8 @@
+package com.pos.techchallenge_backend.repository.projection;
+
+/**
+ * Projeção usada na validação do login: apenas o ID, o login e o hash da senha,
+ * lidos pelo índice único de login, sem hidratar a entidade User.
+ */
+public record LoginCredentials(Long id, String login, String password) {
+}
@@ -0,0 +1,7 @@
+package com.pos.techchallenge_backend.repository.projection;
+
+/**
+ * Projeção com apenas o ID e o nome do usuário (carga do índice de busca por nome).
+ */
+public record UserNameView(Long id, String name) {
+}
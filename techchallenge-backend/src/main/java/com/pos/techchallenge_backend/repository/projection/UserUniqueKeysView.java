@@ -0,0 +1,7 @@
+package com.pos.techchallenge_backend.repository.projection;
+
+/**
+ * Projeção com o ID e os campos únicos do usuário, e-mail e login (carga do filtro de unicidade).
+ */
+public record UserUniqueKeysView(Long id, String email, String login) {
+}
@@ -0,0 +1,7 @@
+package com.pos.techchallenge_backend.repository.projection;
+
+/**
+ * Projeção com apenas o ID e a versão do usuário (validação de ETag sem ler o registro inteiro).
+ */
+public record UserVersionView(Long id, Long version) {
+}
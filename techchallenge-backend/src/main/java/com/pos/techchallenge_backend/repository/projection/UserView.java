@@ -0,0 +1,15 @@
+package com.pos.techchallenge_backend.repository.projection;
+
+import com.pos.techchallenge_backend.model.enums.UserType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção com os campos públicos do usuário (sem a senha), lida direto em uma expressão de
+ * construtor: sem entidade no contexto de persistência, sem snapshot para dirty checking.
+ * O tipo vem da coluna discriminadora (user_type), já convertido para UserType na consulta.
+ */
+public record UserView(Long id, String name, String email, String login, UserType userType,
+                       LocalDateTime lastUpdateDate, String street, String number, String city, String zipCode,
+                       Long version) {
+}
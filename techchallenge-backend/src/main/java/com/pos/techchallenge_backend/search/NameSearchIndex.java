@@ -0,0 +1,297 @@
+package com.pos.techchallenge_backend.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido de trigramas (n-gramas de 3 caracteres) para busca de nomes por trecho.
+ * Substitui o "lower(name) like '%termo%'", que não usa índice e varre a tabela inteira:
+ * a busca intersecta as listas de IDs dos trigramas do termo e só confere os candidatos.
+ * A comparação ignora maiúsculas e acentos (como a collation utf8mb4_unicode_ci do MySQL).
+ * Termos com menos de 3 caracteres não têm trigramas e não são buscados (resultado vazio): resolvê-los
+ * exigiria percorrer todos os nomes segurando o lock de leitura. Quem chama valida o tamanho (MIN_TERM_LENGTH).
+ * Thread-safe: leituras concorrentes, escritas exclusivas.
+ * @author Erick Calazães
+ */
+public class NameSearchIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final int GRAM = 3;
+
+    /**
+     * Tamanho mínimo do termo normalizado: um trigrama.
+     */
+    public static final int MIN_TERM_LENGTH = GRAM;
+
+    /**
+     * Classificação do resultado (quanto menor, mais relevante).
+     */
+    public static final int RANK_EXACT = 0;
+    public static final int RANK_PREFIX = 1;
+    public static final int RANK_WORD_PREFIX = 2;
+    public static final int RANK_INFIX = 3;
+
+    public static final Comparator<Match> ORDER = Comparator.comparingInt(Match::rank).thenComparingLong(Match::id);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String> names = new HashMap<>();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+
+    /**
+     * Inclui ou atualiza o nome de um usuário no índice.
+     */
+    public void put(long id, String name) {
+        String normalized = normalize(name);
+        lock.writeLock().lock();
+        try {
+            String previous = names.put(id, normalized);
+            if (previous != null) {
+                if (previous.equals(normalized)) {
+                    return;
+                }
+                for (long gram : grams(previous)) {
+                    removePosting(gram, id);
+                }
+            }
+            for (long gram : grams(normalized)) {
+                postings.computeIfAbsent(gram, key -> new PostingList()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove um usuário do índice.
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            String previous = names.remove(id);
+            if (previous != null) {
+                for (long gram : grams(previous)) {
+                    removePosting(gram, id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca os nomes que contêm o termo, ordenados por relevância (exato, prefixo do nome,
+     * prefixo de uma palavra, trecho) e, em seguida, por ID.
+     * @param term Termo de busca (parte do nome).
+     * @param limit Quantidade máxima de resultados.
+     * @return List<Match> Resultados ordenados.
+     */
+    public List<Match> search(String term, int limit) {
+        return search(term, null, limit);
+    }
+
+    /**
+     * Busca paginada por chave: devolve apenas os resultados posteriores a "after" na ordenação.
+     * Só os "limit" melhores são mantidos em memória, independentemente da profundidade da página.
+     * @param term Termo de busca (parte do nome).
+     * @param after Último resultado da página anterior (null na primeira página).
+     * @param limit Quantidade máxima de resultados.
+     * @return List<Match> Resultados ordenados.
+     */
+    public List<Match> search(String term, Match after, int limit) {
+        String normalizedTerm = normalize(term);
+        if (normalizedTerm.length() < MIN_TERM_LENGTH || limit <= 0) {
+            return List.of();
+        }
+
+        // Mantém apenas os "limit" melhores resultados (heap invertido: o pior fica no topo)
+        PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, ORDER.reversed());
+
+        String wordPrefix = " " + normalizedTerm;
+        lock.readLock().lock();
+        try {
+            for (long id : candidates(normalizedTerm)) {
+                offer(best, limit, after, id, names.get(id), normalizedTerm, wordPrefix);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Match> result = new ArrayList<>(best);
+        result.sort(ORDER);
+        return result;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Normaliza o texto para comparação: minúsculas (regras independentes do idioma da JVM) e sem acentos.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text.trim().toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("");
+    }
+
+    // IDs presentes em todas as listas dos trigramas do termo (começando pela menor lista)
+    private long[] candidates(String normalizedTerm) {
+        Set<Long> grams = grams(normalizedTerm);
+        PostingList[] lists = new PostingList[grams.size()];
+        int i = 0;
+        for (long gram : grams) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                return new long[0];
+            }
+            lists[i++] = list;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(PostingList::size));
+
+        // Interseção por intercalação (as listas são ordenadas)
+        long[] result = lists[0].toArray();
+        int size = result.length;
+        for (int l = 1; l < lists.length && size > 0; l++) {
+            size = lists[l].retainAll(result, size);
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static void offer(PriorityQueue<Match> best, int limit, Match after, long id, String name, String term,
+                              String wordPrefix) {
+        int rank = rank(name, term, wordPrefix);
+        if (rank < 0 || (after != null && (rank < after.rank() || (rank == after.rank() && id <= after.id())))) {
+            return;
+        }
+        if (best.size() < limit) {
+            best.add(new Match(id, rank));
+            return;
+        }
+        Match worst = best.peek();
+        if (rank < worst.rank() || (rank == worst.rank() && id < worst.id())) {
+            best.poll();
+            best.add(new Match(id, rank));
+        }
+    }
+
+    // Confere o candidato (os trigramas podem aparecer fora de ordem) e calcula a relevância
+    private static int rank(String name, String term, String wordPrefix) {
+        int position = name.indexOf(term);
+        if (position < 0) {
+            return -1;
+        }
+        if (position == 0) {
+            return name.length() == term.length() ? RANK_EXACT : RANK_PREFIX;
+        }
+        if (name.charAt(position - 1) == ' ' || name.indexOf(wordPrefix, position) >= 0) {
+            return RANK_WORD_PREFIX;
+        }
+        return RANK_INFIX;
+    }
+
+    private void removePosting(long gram, long id) {
+        PostingList list = postings.get(gram);
+        if (list != null && list.remove(id) && list.size() == 0) {
+            postings.remove(gram);
+        }
+    }
+
+    // Trigramas distintos do texto, cada um compactado em um long (3 caracteres de 16 bits)
+    private static Set<Long> grams(String text) {
+        Set<Long> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    /**
+     * Resultado da busca: ID do usuário e sua relevância.
+     */
+    public record Match(long id, int rank) {
+    }
+
+    /**
+     * Lista ordenada de IDs (long[] crescente), compacta para milhões de entradas.
+     * IDs novos costumam ser maiores que os existentes, então a inclusão é quase sempre no fim.
+     */
+    private static final class PostingList {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int position = Arrays.binarySearch(ids, 0, size, id);
+                if (position >= 0) {
+                    return;
+                }
+                insertAt(-position - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        // Mantém em "candidates" (ordenado, primeiros "count" itens) apenas os IDs presentes nesta lista
+        int retainAll(long[] candidates, int count) {
+            int kept = 0;
+            int i = 0;
+            for (int c = 0; c < count && i < size; c++) {
+                long candidate = candidates[c];
+                while (i < size && ids[i] < candidate) {
+                    i++;
+                }
+                if (i < size && ids[i] == candidate) {
+                    candidates[kept++] = candidate;
+                }
+            }
+            return kept;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+
+        private void insertAt(int position, long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length + (ids.length >> 1) + 1);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+    }
+}
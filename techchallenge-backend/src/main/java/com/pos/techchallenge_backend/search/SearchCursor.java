@@ -0,0 +1,60 @@
+package com.pos.techchallenge_backend.search;
+
+import com.pos.techchallenge_backend.exception.custom.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posição (chave) do último item de uma página: relevância e ID.
+ * A próxima página começa estritamente depois dessa chave (paginação por chave, sem OFFSET),
+ * então páginas profundas custam o mesmo que a primeira.
+ * O cliente recebe o cursor como texto opaco (base64url).
+ * Cursores emitidos pela busca no banco (antes da carga do índice) usam a relevância DATABASE_ORDER:
+ * a busca continua no banco, em ordem de ID, mesmo que o índice fique pronto entre uma página e outra.
+ * @param rank Relevância do último item da página.
+ * @param id ID do último item da página.
+ * @author Erick Calazães
+ */
+public record SearchCursor(int rank, long id) {
+
+    // Relevância dos cursores da busca no banco (ordem de ID, fora das relevâncias do índice)
+    public static final int DATABASE_ORDER = -1;
+
+    public static SearchCursor inDatabaseOrder(long id) {
+        return new SearchCursor(DATABASE_ORDER, id);
+    }
+
+    public boolean isDatabaseOrder() {
+        return rank == DATABASE_ORDER;
+    }
+
+    public NameSearchIndex.Match toMatch() {
+        return new NameSearchIndex.Match(id, rank);
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((rank + ":" + id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @param cursor Cursor opaco recebido do cliente (pode ser nulo ou vazio na primeira página).
+     * @return SearchCursor Posição decodificada, ou null para a primeira página.
+     * @throws InvalidCursorException Se o cursor não tiver sido emitido pela API.
+     */
+    public static SearchCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII).split(":");
+            if (parts.length != 2) {
+                throw new InvalidCursorException("Cursor de paginação inválido.");
+            }
+            return new SearchCursor(Integer.parseInt(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Cursor de paginação inválido.");
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.pos.techchallenge_backend.search;
+
+import com.pos.techchallenge_backend.datasource.PrimaryReads;
+import com.pos.techchallenge_backend.repository.UserRepository;
+import com.pos.techchallenge_backend.repository.projection.UserNameView;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * @Component
+ * Mantém o NameSearchIndex sincronizado com a tabela users.
+ * 1. Carga completa ao subir a aplicação (paginação por chave, apenas ID e nome).
+ * 2. Atualização incremental a cada escrita do UserService, aplicada após o commit.
+ * 3. Sincronização periódica por lastUpdateDate, para refletir escritas feitas em outras instâncias.
+ * Exclusões feitas em outras instâncias não chegam ao índice, mas não aparecem nos resultados:
+ * os IDs encontrados são sempre carregados do banco, e IDs inexistentes são descartados.
+ * Enquanto a carga inicial não termina, isReady() retorna false e a busca usa o banco.
+ * @author Erick Calazães
+ */
+@Component
+public class UserNameSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserNameSearchIndex.class);
+
+    // Margem para escritas concorrentes com a sincronização (relógios e transações em andamento)
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(10);
+
+    private final UserRepository userRepository;
+    private final NameSearchIndex index = new NameSearchIndex();
+    private final boolean enabled;
+    private final int loadBatchSize;
+
+    private volatile boolean ready;
+    private volatile LocalDateTime lastSync;
+
+    public UserNameSearchIndex(UserRepository userRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${search.name-index.enabled:true}") boolean enabled,
+                               @Value("${search.name-index.load-batch-size:10000}") int loadBatchSize) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.loadBatchSize = loadBatchSize;
+
+        Gauge.builder("search.name-index.size", index, NameSearchIndex::size)
+                .description("Usuários presentes no índice de busca por nome")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Busca no índice os IDs dos usuários cujo nome contém o termo, por relevância.
+     */
+    public List<NameSearchIndex.Match> search(String term, SearchCursor after, int limit) {
+        return index.search(term, after == null ? null : after.toMatch(), limit);
+    }
+
+    /**
+     * Inclui/atualiza o nome do usuário no índice após o commit da transação atual
+     * (ou imediatamente, se não houver transação ativa).
+     */
+    public void indexAfterCommit(Long id, String name) {
+        afterCommit(() -> index.put(id, name));
+    }
+
+    /**
+     * Remove o usuário do índice após o commit da transação atual.
+     */
+    public void removeAfterCommit(Long id) {
+        afterCommit(() -> index.remove(id));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+
+        Long afterId = 0L;
+        List<UserNameView> slice;
+        do {
+            Long from = afterId;
+            slice = PrimaryReads.call(() -> userRepository.findNamesAfter(from, PageRequest.ofSize(loadBatchSize)));
+            for (UserNameView user : slice) {
+                index.put(user.id(), user.name());
+            }
+            if (!slice.isEmpty()) {
+                afterId = slice.get(slice.size() - 1).id();
+            }
+        } while (slice.size() == loadBatchSize);
+
+        lastSync = startedAt;
+        ready = true;
+        log.info("Índice de busca por nome carregado: {} usuários em {} ms",
+                index.size(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    @Scheduled(initialDelayString = "${search.name-index.refresh-interval-ms:30000}",
+            fixedDelayString = "${search.name-index.refresh-interval-ms:30000}")
+    public void refresh() {
+        if (!ready) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        // Sempre no primário: com o atraso de uma réplica maior que SYNC_OVERLAP, alterações se perderiam
+        LocalDateTime since = lastSync.minus(SYNC_OVERLAP);
+        for (UserNameView user : PrimaryReads.call(() -> userRepository.findNamesUpdatedSince(since))) {
+            index.put(user.id(), user.name());
+        }
+        lastSync = startedAt;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
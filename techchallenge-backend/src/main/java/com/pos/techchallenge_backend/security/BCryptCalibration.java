@@ -0,0 +1,60 @@
+package com.pos.techchallenge_backend.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Resultado da calibração do custo (strength) do BCrypt para o hardware do nó.
+ * A calibração mede a verificação de um hash no custo mínimo e sobe o custo enquanto a
+ * latência estimada (que dobra a cada nível) continuar dentro da meta configurada.
+ * @param strength Custo escolhido (log2 das rodadas).
+ * @param measuredLatency Latência medida de uma verificação no custo escolhido.
+ * @param targetLatency Meta de latência de verificação.
+ * @param calibrated False quando o custo foi fixado por configuração (sem medição).
+ * @author Erick Calazães
+ */
+public record BCryptCalibration(int strength, Duration measuredLatency, Duration targetLatency, boolean calibrated) {
+
+    private static final String SAMPLE_PASSWORD = "calibracao-bcrypt";
+    private static final int SAMPLES = 3;
+
+    /**
+     * Usa um custo fixo, sem medição (útil quando todos os nós têm o mesmo hardware).
+     */
+    public static BCryptCalibration fixed(int strength, Duration targetLatency) {
+        return new BCryptCalibration(strength, measure(strength), targetLatency, false);
+    }
+
+    /**
+     * Escolhe o maior custo entre minStrength e maxStrength cuja verificação fica dentro da meta.
+     * O custo mínimo é sempre respeitado, mesmo que o hardware não atinja a meta.
+     */
+    public static BCryptCalibration calibrate(Duration targetLatency, int minStrength, int maxStrength) {
+        int strength = minStrength;
+        Duration latency = measure(strength);
+
+        // Cada nível a mais dobra o custo: só sobe se a estimativa continuar dentro da meta
+        while (strength < maxStrength && latency.multipliedBy(2).compareTo(targetLatency) <= 0) {
+            strength++;
+            latency = measure(strength);
+        }
+        return new BCryptCalibration(strength, latency, targetLatency, true);
+    }
+
+    private static Duration measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        String hash = encoder.encode(SAMPLE_PASSWORD);
+
+        // Mediana de algumas verificações (a primeira aquece o JIT)
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.matches(SAMPLE_PASSWORD, hash);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return Duration.ofNanos(samples[SAMPLES / 2]);
+    }
+}
@@ -0,0 +1,248 @@
+package com.pos.techchallenge_backend.security;
+
+import com.pos.techchallenge_backend.exception.custom.HashingCapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @Service
+ * Executa o hashing de senhas (BCrypt) em um pool dedicado, fora das threads do Tomcat.
+ * O pool tem um número fixo de threads (orçamento de CPU; por padrão metade dos núcleos, para sobrar
+ * CPU aos demais endpoints) e uma fila limitada: quando a fila enche, a requisição falha imediatamente
+ * com HashingCapacityExceededException (503 + Retry-After), em vez de ocupar todas as threads do
+ * servidor e degradar os endpoints baratos.
+ * O timeout limita a espera de quem pediu o hash, não a CPU gasta: o BCrypt não responde a interrupção,
+ * então um hash que já começou vai até o fim mesmo depois do timeout. Por isso uma tarefa que sai da
+ * fila com o prazo já vencido é descartada sem calcular o hash.
+ * Expõe métricas de profundidade da fila, espera na fila e latência do hash por custo do BCrypt.
+ * @author Erick Calazães
+ */
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final long retryAfterSeconds;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> hashTimers = new ConcurrentHashMap<>();
+    private final Timer queueWaitTimer;
+    private final Counter rejectedCounter;
+
+    @Autowired
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${security.hashing.threads:0}") int threads,
+                                  @Value("${security.hashing.queue-capacity:0}") int queueCapacity,
+                                  @Value("${security.hashing.timeout:5s}") Duration timeout,
+                                  @Value("${security.hashing.retry-after:1s}") Duration retryAfter) {
+        this.passwordEncoder = passwordEncoder;
+        this.meterRegistry = meterRegistry;
+        this.timeout = timeout;
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+
+        // 0 = padrão: metade dos núcleos (ao menos uma thread) e fila de 4 tarefas por thread
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        int capacity = queueCapacity > 0 ? queueCapacity : poolSize * 4;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity), new HashingThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+
+        this.queueWaitTimer = Timer.builder("password.hashing.queue.wait")
+                .description("Tempo de espera na fila do pool de hashing")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hashing.rejected")
+                .description("Requisições recusadas por fila de hashing cheia")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.queue.size", executor, e -> e.getQueue().size())
+                .description("Tarefas aguardando no pool de hashing")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Threads do pool de hashing em execução")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.queue.capacity", () -> capacity)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Criptografa a senha em texto puro no pool de hashing.
+     * @param rawPassword Senha em texto puro.
+     * @return String Hash BCrypt da senha.
+     * @throws HashingCapacityExceededException Se o pool estiver saturado.
+     */
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> {
+            long start = System.nanoTime();
+            String hash = passwordEncoder.encode(rawPassword);
+            recordHash("encode", hash, start);
+            return hash;
+        });
+    }
+
+    /**
+     * Criptografa várias senhas em paralelo no pool de hashing (cadastro em lote).
+     * As senhas são enviadas em ondas do tamanho do pool, para não ocupar a fila
+     * compartilhada com os logins e cadastros individuais.
+     * @param rawPasswords Senhas em texto puro.
+     * @return List<String> Hashes BCrypt, na mesma ordem das senhas.
+     * @throws HashingCapacityExceededException Se o pool estiver saturado.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        int wave = executor.getMaximumPoolSize();
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+
+        for (int from = 0; from < rawPasswords.size(); from += wave) {
+            List<Future<String>> futures = new ArrayList<>(wave);
+            try {
+                for (CharSequence rawPassword : rawPasswords.subList(from, Math.min(from + wave, rawPasswords.size()))) {
+                    futures.add(submit(() -> {
+                        long start = System.nanoTime();
+                        String hash = passwordEncoder.encode(rawPassword);
+                        recordHash("encode", hash, start);
+                        return hash;
+                    }));
+                }
+                for (Future<String> future : futures) {
+                    hashes.add(await(future));
+                }
+            } catch (RuntimeException e) {
+                futures.forEach(future -> future.cancel(true));
+                throw e;
+            }
+        }
+        return hashes;
+    }
+
+    /**
+     * Compara a senha em texto puro com o hash armazenado, no pool de hashing.
+     * @param rawPassword Senha em texto puro.
+     * @param encodedPassword Hash armazenado no banco.
+     * @return boolean True se a senha confere.
+     * @throws HashingCapacityExceededException Se o pool estiver saturado.
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> {
+            long start = System.nanoTime();
+            boolean matches = passwordEncoder.matches(rawPassword, encodedPassword);
+            recordHash("matches", encodedPassword, start);
+            return matches;
+        });
+    }
+
+    /**
+     * Indica se o hash armazenado foi gerado com custo menor que o atual e deve ser refeito.
+     * Não executa BCrypt (apenas lê o custo do hash), por isso roda na própria thread.
+     * @param encodedPassword Hash armazenado no banco.
+     * @return boolean True se o hash deve ser atualizado.
+     */
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private void recordHash(String operation, String hash, long start) {
+        String cost = costOf(hash);
+        hashTimers.computeIfAbsent(operation + ":" + cost, key -> Timer.builder("password.hashing.duration")
+                        .description("Tempo de CPU gasto no BCrypt")
+                        .tag("operation", operation)
+                        .tag("cost", cost)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    // Formato BCrypt: $2a$10$... (o custo fica entre o segundo e o terceiro '$')
+    private static String costOf(String hash) {
+        if (hash != null && hash.length() > 7 && hash.charAt(0) == '$' && hash.charAt(3) == '$') {
+            return hash.substring(4, 6);
+        }
+        return "unknown";
+    }
+
+    private <T> T execute(Callable<T> task) {
+        return await(submit(task));
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        try {
+            return executor.submit(() -> {
+                long waited = System.nanoTime() - submittedAt;
+                queueWaitTimer.record(waited, TimeUnit.NANOSECONDS);
+                // Quem pediu o hash já desistiu (ou está desistindo): não gasta CPU com um BCrypt que ninguém vai ler
+                if (waited >= timeout.toNanos()) {
+                    throw overloaded();
+                }
+                return task.call();
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw overloaded();
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Tira a tarefa da fila; se o BCrypt já começou, a interrupção não o interrompe
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw overloaded();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw overloaded();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private HashingCapacityExceededException overloaded() {
+        return new HashingCapacityExceededException(
+                "Serviço de autenticação sobrecarregado. Tente novamente em instantes.", retryAfterSeconds);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hashing-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.pos.techchallenge_backend.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pos.techchallenge_backend.exception.custom.InvalidTokenException;
+import com.pos.techchallenge_backend.security.TokenClaims.TokenType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Filtro da cadeia do Spring Security que autentica requisições com "Authorization: Bearer {token}".
+ * A validação é feita apenas pelo TokenService (HMAC + cache), sem banco e sem BCrypt.
+ * Requisições sem o cabeçalho seguem anônimas; tokens inválidos recebem 401 (ProblemDetail).
+ * O login e a renovação não passam pelo filtro: um cliente com o token de acesso vencido ainda no
+ * cabeçalho precisa conseguir obter um novo par de tokens.
+ * Também é o ponto de entrada da autenticação: uma requisição anônima a uma rota que exige token
+ * recebe 401 no mesmo formato.
+ * @author Erick Calazães
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter implements AuthenticationEntryPoint {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final Set<String> TOKEN_ENDPOINTS = Set.of("/api/v1/login", "/api/v1/login/refresh");
+
+    private final TokenService tokenService;
+    private final ObjectMapper objectMapper;
+
+    public TokenAuthenticationFilter(TokenService tokenService, ObjectMapper objectMapper) {
+        this.tokenService = tokenService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return HttpMethod.POST.matches(request.getMethod()) && TOKEN_ENDPOINTS.contains(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        TokenClaims claims;
+        try {
+            claims = tokenService.verify(header.substring(BEARER_PREFIX.length()).trim(), TokenType.ACCESS);
+        } catch (InvalidTokenException ex) {
+            writeUnauthorized(response, "Token Inválido", "/problem-details/invalid-token", ex.getMessage(),
+                    "Bearer error=\"invalid_token\"");
+            return;
+        }
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                claims, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+        SecurityContextHolder.setContext(context);
+
+        filterChain.doFilter(request, response);
+    }
+
+    // Requisição anônima a uma rota autenticada (SecurityConfig)
+    @Override
+    public void commence(HttpServletRequest request, HttpServletResponse response, AuthenticationException authException)
+            throws IOException {
+        writeUnauthorized(response, "Autenticação Necessária", "/problem-details/authentication-required",
+                "Envie o token de acesso no cabeçalho 'Authorization: Bearer {token}'.", "Bearer");
+    }
+
+    private void writeUnauthorized(HttpServletResponse response, String title, String type, String detail,
+                                   String challenge) throws IOException {
+        HttpStatus status = HttpStatus.UNAUTHORIZED;
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, detail);
+        problemDetail.setTitle(title);
+        problemDetail.setType(URI.create(type));
+        problemDetail.setProperty("timestamp", Instant.now());
+
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, challenge);
+        objectMapper.writeValue(response.getOutputStream(), problemDetail);
+    }
+}
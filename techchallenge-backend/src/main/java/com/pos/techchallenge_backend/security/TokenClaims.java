@@ -0,0 +1,25 @@
+package com.pos.techchallenge_backend.security;
+
+import java.time.Instant;
+
+/**
+ * Dados carregados dentro de um token assinado.
+ * É usado como "principal" no SecurityContext quando a requisição é autenticada via token.
+ * @param type Tipo do token (ACCESS ou REFRESH).
+ * @param userId ID do usuário autenticado.
+ * @param login Login do usuário autenticado.
+ * @param expiresAt Instante de expiração do token.
+ * @param credentialStamp Selo do hash da senha vigente na emissão (TokenService#isIssuedFor).
+ * @author Erick Calazães
+ */
+public record TokenClaims(TokenType type, Long userId, String login, Instant expiresAt, String credentialStamp) {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    public enum TokenType {
+        ACCESS,
+        REFRESH
+    }
+}
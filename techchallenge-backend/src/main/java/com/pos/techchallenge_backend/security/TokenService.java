@@ -0,0 +1,206 @@
+package com.pos.techchallenge_backend.security;
+
+import com.pos.techchallenge_backend.exception.custom.InvalidTokenException;
+import com.pos.techchallenge_backend.security.TokenClaims.TokenType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @Service
+ * Emite e valida tokens assinados (HMAC-SHA256) com prazo de expiração.
+ * Após o login, o cliente envia apenas o token, e a validação passa a custar um HMAC
+ * (sem BCrypt e sem acesso ao banco). Tokens já verificados ficam em um cache pequeno,
+ * então requisições repetidas com o mesmo token nem recalculam o HMAC.
+ * Os tokens carregam um selo das credenciais (HMAC do hash da senha vigente na emissão): a renovação
+ * compara o selo com o hash atual, então trocar a senha revoga os refresh tokens já emitidos.
+ * Formato: base64url(tipo|id|expiração|selo|login) + "." + base64url(assinatura).
+ * @author Erick Calazães
+ */
+@Service
+public class TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration accessTokenTtl;
+    private final Duration refreshTokenTtl;
+    private final int cacheSize;
+    private final Clock clock;
+
+    // Mac não é thread-safe; cada thread mantém a sua instância já inicializada com a chave
+    private final ThreadLocal<Mac> mac;
+
+    // Cache de tokens já verificados (token -> claims)
+    private final Map<String, TokenClaims> verifiedTokens = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TokenService(@Value("${security.token.secret:}") String secret,
+                        @Value("${security.token.access-ttl:15m}") Duration accessTokenTtl,
+                        @Value("${security.token.refresh-ttl:7d}") Duration refreshTokenTtl,
+                        @Value("${security.token.cache-size:10000}") int cacheSize) {
+        this(secret, accessTokenTtl, refreshTokenTtl, cacheSize, Clock.systemUTC());
+    }
+
+    TokenService(String secret, Duration accessTokenTtl, Duration refreshTokenTtl, int cacheSize, Clock clock) {
+        this.key = new SecretKeySpec(resolveSecret(secret), ALGORITHM);
+        this.accessTokenTtl = accessTokenTtl;
+        this.refreshTokenTtl = refreshTokenTtl;
+        this.cacheSize = cacheSize;
+        this.clock = clock;
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Emite o par de tokens (acesso e refresh) para o usuário autenticado.
+     * @param userId ID do usuário.
+     * @param login Login do usuário.
+     * @param passwordHash Hash da senha vigente (os tokens deixam de ser renováveis quando ele muda).
+     * @return IssuedTokens Tokens emitidos e a validade do token de acesso.
+     */
+    public IssuedTokens issueTokens(Long userId, String login, String passwordHash) {
+        Instant now = clock.instant();
+        String stamp = credentialStamp(passwordHash);
+        String accessToken = sign(new TokenClaims(TokenType.ACCESS, userId, login, now.plus(accessTokenTtl), stamp));
+        String refreshToken = sign(new TokenClaims(TokenType.REFRESH, userId, login, now.plus(refreshTokenTtl), stamp));
+        return new IssuedTokens(accessToken, refreshToken, accessTokenTtl.toSeconds());
+    }
+
+    /**
+     * Indica se o token foi emitido para o hash de senha informado (a senha não mudou desde a emissão).
+     * @param claims Dados de um token já verificado.
+     * @param passwordHash Hash da senha atual do usuário.
+     * @return boolean true se o selo do token corresponde ao hash atual.
+     */
+    public boolean isIssuedFor(TokenClaims claims, String passwordHash) {
+        return MessageDigest.isEqual(claims.credentialStamp().getBytes(StandardCharsets.US_ASCII),
+                credentialStamp(passwordHash).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Valida assinatura, tipo e expiração do token.
+     * @param token Token recebido do cliente.
+     * @param expectedType Tipo esperado (ACCESS no filtro, REFRESH na renovação).
+     * @return TokenClaims Dados contidos no token.
+     * @throws InvalidTokenException Se o token for malformado, adulterado, expirado ou de outro tipo.
+     */
+    public TokenClaims verify(String token, TokenType expectedType) {
+        Instant now = clock.instant();
+
+        TokenClaims claims = verifiedTokens.get(token);
+        if (claims == null) {
+            claims = parseAndVerifySignature(token);
+            cache(token, claims);
+        }
+
+        if (claims.type() != expectedType) {
+            throw new InvalidTokenException("Tipo de token inválido.");
+        }
+        if (claims.isExpired(now)) {
+            verifiedTokens.remove(token);
+            throw new InvalidTokenException("Token expirado.");
+        }
+        return claims;
+    }
+
+    private String sign(TokenClaims claims) {
+        String payload = claims.type().name() + "|" + claims.userId() + "|"
+                + claims.expiresAt().getEpochSecond() + "|" + claims.credentialStamp() + "|" + claims.login();
+        String encodedPayload = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return encodedPayload + "." + ENCODER.encodeToString(signature(encodedPayload));
+    }
+
+    private TokenClaims parseAndVerifySignature(String token) {
+        int separator = token.indexOf('.');
+        if (separator <= 0 || separator == token.length() - 1) {
+            throw new InvalidTokenException("Token malformado.");
+        }
+
+        String encodedPayload = token.substring(0, separator);
+        try {
+            byte[] signature = DECODER.decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(signature, signature(encodedPayload))) {
+                throw new InvalidTokenException("Assinatura do token inválida.");
+            }
+
+            // O login vai por último: pode conter o separador
+            String[] parts = new String(DECODER.decode(encodedPayload), StandardCharsets.UTF_8).split("\\|", 5);
+            if (parts.length != 5) {
+                throw new InvalidTokenException("Token malformado.");
+            }
+            return new TokenClaims(TokenType.valueOf(parts[0]), Long.valueOf(parts[1]),
+                    parts[4], Instant.ofEpochSecond(Long.parseLong(parts[2])), parts[3]);
+        } catch (IllegalArgumentException e) {
+            // Base64 inválido, número inválido ou tipo desconhecido
+            throw new InvalidTokenException("Token malformado.");
+        }
+    }
+
+    private void cache(String token, TokenClaims claims) {
+        // Limite simples: ao atingir o tamanho máximo o cache é esvaziado e volta a aquecer
+        if (verifiedTokens.size() >= cacheSize) {
+            verifiedTokens.clear();
+        }
+        verifiedTokens.put(token, claims);
+    }
+
+    // Selo curto (96 bits) do hash da senha: não expõe o hash no token, que o cliente consegue ler
+    private String credentialStamp(String passwordHash) {
+        byte[] digest = mac.get().doFinal(("credential|" + passwordHash).getBytes(StandardCharsets.UTF_8));
+        return ENCODER.encodeToString(Arrays.copyOf(digest, 12));
+    }
+
+    private byte[] signature(String encodedPayload) {
+        return mac.get().doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Não foi possível inicializar o HMAC dos tokens.", e);
+        }
+    }
+
+    private static byte[] resolveSecret(String secret) {
+        if (secret == null || secret.isBlank()) {
+            // Sem segredo configurado os tokens só valem para esta instância e até o próximo restart
+            log.warn("security.token.secret não configurado; usando chave aleatória gerada na inicialização.");
+            byte[] random = new byte[32];
+            new SecureRandom().nextBytes(random);
+            return random;
+        }
+        return secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Tokens emitidos em um login ou renovação.
+     * @param accessToken Token de acesso (curta duração).
+     * @param refreshToken Token de renovação (longa duração).
+     * @param expiresIn Validade do token de acesso, em segundos.
+     */
+    public record IssuedTokens(String accessToken, String refreshToken, long expiresIn) {
+    }
+}
@@ -1,62 +1,168 @@
 package com.pos.techchallenge_backend.service;
 
+import com.pos.techchallenge_backend.cache.UserCache;
+import com.pos.techchallenge_backend.datasource.PrimaryReads;
+import com.pos.techchallenge_backend.exception.custom.HashingCapacityExceededException;
 import com.pos.techchallenge_backend.exception.custom.InvalidLoginCredentialsException;
+import com.pos.techchallenge_backend.exception.custom.InvalidTokenException;
 import com.pos.techchallenge_backend.model.dto.user.LoginRequest;
-import com.pos.techchallenge_backend.model.entity.User;
+import com.pos.techchallenge_backend.model.dto.user.LoginResponse;
 import com.pos.techchallenge_backend.repository.UserRepository;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.pos.techchallenge_backend.repository.projection.LoginCredentials;
+import com.pos.techchallenge_backend.security.PasswordHashingService;
+import com.pos.techchallenge_backend.security.TokenClaims;
+import com.pos.techchallenge_backend.security.TokenService;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import java.util.Optional;
 
 /**
  * @Service
  * Implementa o requisito obrigatório de Validação de Login.
  * Este serviço é responsável por verificar se as credenciais (login e senha)
- * fornecidas pelo usuário são válidas, utilizando o PasswordEncoder para
- * segurança na comparação da senha.
+ * fornecidas pelo usuário são válidas, utilizando o PasswordHashingService (BCrypt
+ * em pool dedicado) para segurança na comparação da senha.
+ * Um login válido emite tokens assinados (TokenService), evitando que o cliente
+ * reenvie as credenciais (e pague um BCrypt) a cada interação.
+ * Sem transação no nível do serviço: a busca usa a transação somente leitura do repositório,
+ * e a comparação BCrypt acontece depois, sem segurar conexão do pool.
+ * A busca lê apenas ID, login e hash pelo índice único de login (uk_users_login), sem carregar a entidade,
+ * e passa pelo UserCache: logins repetidos do mesmo usuário não vão ao banco.
+ * Hashes gerados com custo menor que o calibrado são refeitos de forma transparente no login.
+ * Os tokens são vinculados ao hash da senha: a troca de senha revoga os refresh tokens já emitidos.
  * @author Erick Calazães
  */
 @Service
-@Transactional(readOnly = true)
+@Timed("service.invocations")
 public class LoginService {
 
+    private static final Logger log = LoggerFactory.getLogger(LoginService.class);
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final UserCache userCache;
+    private final PasswordHashingService passwordHashingService;
+    private final TokenService tokenService;
+    private final Counter rehashCounter;
+    private final Counter loginSucceeded;
+    private final Counter loginUnknown;
+    private final Counter loginWrongPassword;
 
-    public LoginService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public LoginService(UserRepository userRepository, UserCache userCache, PasswordHashingService passwordHashingService,
+                        TokenService tokenService, MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.userCache = userCache;
+        this.passwordHashingService = passwordHashingService;
+        this.tokenService = tokenService;
+        this.rehashCounter = Counter.builder("password.rehash")
+                .description("Hashes refeitos no login por estarem com custo desatualizado")
+                .register(meterRegistry);
+        this.loginSucceeded = loginAttempts(meterRegistry, "success");
+        this.loginUnknown = loginAttempts(meterRegistry, "unknown_login");
+        this.loginWrongPassword = loginAttempts(meterRegistry, "wrong_password");
+    }
+
+    private static Counter loginAttempts(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("login.attempts")
+                .description("Tentativas de login por resultado")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Valida as credenciais e emite o par de tokens (acesso e refresh) da sessão.
+     * @param request DTO contendo o login e a senha para validação.
+     * @return LoginResponse Resposta com os tokens emitidos.
+     * @throws InvalidLoginCredentialsException Se o login ou a senha forem inválidos.
+     */
+    public LoginResponse login(LoginRequest request) {
+        LoginCredentials credentials = validateLogin(request);
+        return toLoginResponse(tokenService.issueTokens(credentials.id(), credentials.login(), credentials.password()));
+    }
+
+    /**
+     * Renova os tokens a partir de um refresh token válido, sem exigir a senha (sem BCrypt).
+     * Confirma que o usuário ainda existe e que a senha não mudou desde a emissão do token.
+     * As credenciais são lidas no banco primário pela chave primária, sem o UserCache: uma troca de senha
+     * feita em outra instância revoga o token na hora, e não só depois do TTL do cache.
+     * @param refreshToken Refresh token emitido no login.
+     * @return LoginResponse Resposta com o novo par de tokens.
+     * @throws InvalidTokenException Se o token for inválido/expirado, o usuário não existir mais ou a senha tiver mudado.
+     */
+    public LoginResponse refresh(String refreshToken) {
+        TokenClaims claims = tokenService.verify(refreshToken, TokenClaims.TokenType.REFRESH);
+
+        LoginCredentials credentials = PrimaryReads.call(() -> userRepository.findCredentialsById(claims.userId()))
+                .orElseThrow(() -> new InvalidTokenException("Usuário do token não encontrado."));
+        if (!tokenService.isIssuedFor(claims, credentials.password())) {
+            throw new InvalidTokenException("Token revogado: a senha foi alterada.");
+        }
+
+        return toLoginResponse(tokenService.issueTokens(credentials.id(), credentials.login(), credentials.password()));
     }
 
     /**
      * Requisito: Serviço que verifica se login e senha são válidos.
-     * 1. Busca o usuário pelo login.
+     * 1. Busca as credenciais do usuário pelo login (índice único, sem carregar a entidade).
      * 2. Compara a senha em texto puro do Request com a senha criptografada do banco.
+     * 3. Se o hash foi gerado com custo menor que o atual, refaz o hash com a senha recebida.
      * @param request DTO contendo o login e a senha para validação.
-     * @return boolean True se o login for bem-sucedido.
+     * @return LoginCredentials ID, login e hash vigente do usuário autenticado (o novo, se houve rehash).
      * @throws InvalidLoginCredentialsException Se o login ou a senha forem inválidos.
      */
-    public boolean validateLogin(LoginRequest request) {
-        // Buscar o usuário pelo login fornecido
-        Optional<User> userOptional = userRepository.findByLogin(request.getLogin());
-
-        // Verificar se o usuário existe
-        if (userOptional.isEmpty()) {
+    public LoginCredentials validateLogin(LoginRequest request) {
+        // Buscar ID e hash pelo login fornecido (cache ou banco, sem hidratar a entidade)
+        LoginCredentials credentials = userCache.findCredentialsByLogin(request.getLogin()).orElse(null);
+        if (credentials == null) {
+            loginUnknown.increment();
             throw new InvalidLoginCredentialsException("Login ou senha inválidos.");
         }
 
-        User user = userOptional.get();
-
-        // Verificar se a senha confere (usando o PasswordEncoder)
+        // Verificar se a senha confere (BCrypt executado no pool de hashing)
         // matches(Senha_Texto_Puro, Senha_Criptografada_BD)
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), credentials.password())) {
+            loginWrongPassword.increment();
             throw new InvalidLoginCredentialsException("Login ou senha inválidos.");
         }
+        loginSucceeded.increment();
+
+        // Rehash transparente: o custo do BCrypt foi recalibrado desde que a senha foi gravada
+        if (passwordHashingService.upgradeEncoding(credentials.password())) {
+            return rehash(credentials, request.getPassword());
+        }
 
         // login é válido
-        return true;
+        return credentials;
+    }
+
+    // Devolve as credenciais com o hash que ficou gravado (os tokens do login são vinculados a ele)
+    private LoginCredentials rehash(LoginCredentials credentials, String rawPassword) {
+        try {
+            String newHash = passwordHashingService.encode(rawPassword);
+            // Atualização condicional: não sobrescreve uma troca de senha feita nesse meio tempo
+            if (userRepository.updatePasswordHash(credentials.id(), credentials.password(), newHash) == 1) {
+                userCache.evict(credentials.id(), credentials.login());
+                rehashCounter.increment();
+                return new LoginCredentials(credentials.id(), credentials.login(), newHash);
+            }
+        } catch (HashingCapacityExceededException e) {
+            // O login já foi validado; o rehash fica para o próximo login
+            log.debug("Rehash da senha do usuário {} adiado: pool de hashing saturado.", credentials.id());
+        }
+        return credentials;
+    }
+
+    private LoginResponse toLoginResponse(TokenService.IssuedTokens tokens) {
+        LoginResponse response = new LoginResponse();
+        response.setStatus("success");
+        response.setMessage("Login bem-sucedido.");
+        response.setAccessToken(tokens.accessToken());
+        response.setRefreshToken(tokens.refreshToken());
+        response.setTokenType("Bearer");
+        response.setExpiresIn(tokens.expiresIn());
+        return response;
     }
 
 }
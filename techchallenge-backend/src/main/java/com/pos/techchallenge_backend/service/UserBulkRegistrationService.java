@@ -0,0 +1,214 @@
+package com.pos.techchallenge_backend.service;
+
+import com.pos.techchallenge_backend.exception.custom.BulkSizeExceededException;
+import com.pos.techchallenge_backend.exception.custom.EmailAlreadyExistsException;
+import com.pos.techchallenge_backend.exception.custom.LoginAlreadyExistsException;
+import com.pos.techchallenge_backend.mapper.UserMapper;
+import com.pos.techchallenge_backend.model.dto.user.BulkRegistrationItemResult;
+import com.pos.techchallenge_backend.model.dto.user.BulkRegistrationResponse;
+import com.pos.techchallenge_backend.model.dto.user.UserRegistrationRequest;
+import com.pos.techchallenge_backend.model.entity.User;
+import com.pos.techchallenge_backend.model.enums.BulkItemStatus;
+import com.pos.techchallenge_backend.repository.UserConstraints;
+import com.pos.techchallenge_backend.repository.UserRepository;
+import com.pos.techchallenge_backend.search.UserNameSearchIndex;
+import com.pos.techchallenge_backend.security.PasswordHashingService;
+import com.pos.techchallenge_backend.uniqueness.UserUniquenessFilter;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * @Service
+ * Cadastro de usuários em lote (onboarding da equipe de uma rede de restaurantes).
+ * 1. Valida cada item e descarta e-mails e logins repetidos dentro do próprio lote.
+ * 2. Verifica a unicidade dos e-mails e logins do lote inteiro em uma consulta (IN) por campo, apenas com
+ *    os valores que o filtro de Bloom indica que talvez existam (nenhum: a consulta é dispensada).
+ * 3. Calcula os hashes BCrypt em paralelo no pool de hashing, fora da transação.
+ * 4. Grava tudo em uma transação curta; com o gerador de IDs em tabela (pooled) o Hibernate
+ *    agrupa os INSERTs em batches JDBC (hibernate.jdbc.batch_size).
+ * Cadastros concorrentes com o mesmo e-mail/login são barrados pelas constraints uk_users_email/uk_users_login (409).
+ * Falhas de um item não impedem o cadastro dos demais: cada item recebe seu próprio resultado.
+ * @author Erick Calazães
+ */
+@Service
+@Timed("service.invocations")
+public class UserBulkRegistrationService {
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final PasswordHashingService passwordHashingService;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final UserNameSearchIndex userNameSearchIndex;
+    private final UserUniquenessFilter userUniquenessFilter;
+    private final int maxSize;
+
+    public UserBulkRegistrationService(UserRepository userRepository, UserMapper userMapper,
+                                       PasswordHashingService passwordHashingService, Validator validator,
+                                       PlatformTransactionManager transactionManager,
+                                       UserNameSearchIndex userNameSearchIndex,
+                                       UserUniquenessFilter userUniquenessFilter,
+                                       @Value("${users.bulk.max-size:1000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.passwordHashingService = passwordHashingService;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userNameSearchIndex = userNameSearchIndex;
+        this.userUniquenessFilter = userUniquenessFilter;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Cadastra uma lista de usuários, devolvendo o resultado de cada item na ordem recebida.
+     * @param requests DTOs com os dados dos usuários.
+     * @return BulkRegistrationResponse Totais e resultado por item (CREATED, INVALID, DUPLICATE_IN_REQUEST,
+     * EMAIL_ALREADY_EXISTS ou LOGIN_ALREADY_EXISTS).
+     * @throws BulkSizeExceededException Se o lote tiver mais itens que users.bulk.max-size.
+     * @throws EmailAlreadyExistsException Se um e-mail do lote for cadastrado por outra requisição durante o processamento.
+     * @throws LoginAlreadyExistsException Se um login do lote for cadastrado por outra requisição durante o processamento.
+     */
+    public BulkRegistrationResponse registerUsers(List<UserRegistrationRequest> requests) {
+        if (requests.size() > maxSize) {
+            throw new BulkSizeExceededException("O lote deve ter no máximo " + maxSize + " usuários.");
+        }
+        BulkRegistrationItemResult[] results = new BulkRegistrationItemResult[requests.size()];
+
+        // 1. Validação de cada item e e-mails/logins repetidos no próprio lote (valor -> posição do primeiro)
+        Map<Integer, UserRegistrationRequest> accepted = new LinkedHashMap<>();
+        Map<String, Integer> emails = new HashMap<>();
+        Map<String, Integer> logins = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            UserRegistrationRequest request = requests.get(i);
+            String violations = validate(request);
+            if (violations != null) {
+                results[i] = result(i, BulkItemStatus.INVALID, request == null ? null : request.getEmail(), violations);
+            } else if (emails.containsKey(request.getEmail())) {
+                results[i] = result(i, BulkItemStatus.DUPLICATE_IN_REQUEST, request.getEmail(),
+                        "E-mail repetido no lote: " + request.getEmail());
+            } else if (logins.containsKey(request.getLogin())) {
+                results[i] = result(i, BulkItemStatus.DUPLICATE_IN_REQUEST, request.getEmail(),
+                        "Login repetido no lote: " + request.getLogin());
+            } else {
+                emails.put(request.getEmail(), i);
+                logins.put(request.getLogin(), i);
+                accepted.put(i, request);
+            }
+        }
+
+        // 2. Unicidade do lote inteiro (uma consulta por campo), antes de gastar CPU com o hash
+        List<String> emailCandidates = emails.keySet().stream().filter(userUniquenessFilter::shouldLookUpEmail).toList();
+        if (!emailCandidates.isEmpty()) {
+            for (String email : userRepository.findExistingEmails(emailCandidates)) {
+                reject(emails.get(email), BulkItemStatus.EMAIL_ALREADY_EXISTS, "E-mail já cadastrado: " + email,
+                        accepted, results);
+            }
+        }
+        List<String> loginCandidates = accepted.values().stream().map(UserRegistrationRequest::getLogin)
+                .filter(userUniquenessFilter::shouldLookUpLogin).toList();
+        if (!loginCandidates.isEmpty()) {
+            for (String login : userRepository.findExistingLogins(loginCandidates)) {
+                reject(logins.get(login), BulkItemStatus.LOGIN_ALREADY_EXISTS, "Login já cadastrado: " + login,
+                        accepted, results);
+            }
+        }
+
+        // 3. Hashes em paralelo, fora da transação
+        List<String> hashes = passwordHashingService.encodeAll(
+                accepted.values().stream().map(UserRegistrationRequest::getPassword).toList());
+
+        Map<Integer, User> users = new LinkedHashMap<>();
+        int position = 0;
+        for (Map.Entry<Integer, UserRegistrationRequest> entry : accepted.entrySet()) {
+            users.put(entry.getKey(), userMapper.mapRegistrationRequestToUser(entry.getValue(), hashes.get(position++)));
+        }
+
+        // 4. Transação curta: apenas os INSERTs, em batch
+        if (!users.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    userRepository.saveAllAndFlush(users.values());
+                    users.values().forEach(user -> userNameSearchIndex.indexAfterCommit(user.getId(), user.getName()));
+                });
+            } catch (DataIntegrityViolationException e) {
+                throw translateViolation(e);
+            }
+            users.values().forEach(user -> {
+                userUniquenessFilter.addEmail(user.getEmail());
+                userUniquenessFilter.addLogin(user.getLogin());
+            });
+        }
+
+        users.forEach((index, user) -> {
+            BulkRegistrationItemResult created = result(index, BulkItemStatus.CREATED, user.getEmail(), null);
+            created.setId(user.getId());
+            results[index] = created;
+        });
+
+        BulkRegistrationResponse response = new BulkRegistrationResponse();
+        response.setResults(Arrays.asList(results));
+        response.setCreated(users.size());
+        response.setFailed(results.length - users.size());
+        return response;
+    }
+
+    private String validate(UserRegistrationRequest request) {
+        if (request == null) {
+            return "Item vazio.";
+        }
+        Set<ConstraintViolation<UserRegistrationRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return "Campos obrigatórios inválidos: " + violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(violation -> violation.getPropertyPath() + " - " + violation.getMessage())
+                .collect(Collectors.joining("; "));
+    }
+
+    private static void reject(Integer index, BulkItemStatus status, String message,
+                               Map<Integer, UserRegistrationRequest> accepted, BulkRegistrationItemResult[] results) {
+        // O banco pode devolver o valor com outra caixa (collation case-insensitive); nesse caso a constraint decide
+        UserRegistrationRequest request = index == null ? null : accepted.remove(index);
+        if (request != null) {
+            results[index] = result(index, status, request.getEmail(), message);
+        }
+    }
+
+    // Cadastros concorrentes com os mesmos valores: o lote inteiro é revertido e deve ser reenviado
+    private static RuntimeException translateViolation(DataIntegrityViolationException e) {
+        String retry = " foi cadastrado por outra requisição durante o processamento. "
+                + "Reenvie o lote para obter o resultado de cada item.";
+        if (UserConstraints.isViolated(e, UserConstraints.UNIQUE_EMAIL)) {
+            return new EmailAlreadyExistsException("Um e-mail do lote" + retry);
+        }
+        if (UserConstraints.isViolated(e, UserConstraints.UNIQUE_LOGIN)) {
+            return new LoginAlreadyExistsException("Um login do lote" + retry);
+        }
+        return e;
+    }
+
+    private static BulkRegistrationItemResult result(int index, BulkItemStatus status, String email, String message) {
+        BulkRegistrationItemResult result = new BulkRegistrationItemResult();
+        result.setIndex(index);
+        result.setStatus(status);
+        result.setEmail(email);
+        result.setMessage(message);
+        return result;
+    }
+}
@@ -0,0 +1,83 @@
+package com.pos.techchallenge_backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pos.techchallenge_backend.mapper.UserMapper;
+import com.pos.techchallenge_backend.model.dto.user.UserResponse;
+import com.pos.techchallenge_backend.repository.UserRepository;
+import com.pos.techchallenge_backend.repository.projection.UserView;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * @Service
+ * Exportação completa da base de usuários em NDJSON (um JSON por linha), com memória constante.
+ * Os usuários são lidos como Stream (cursor JDBC com fetch size) direto na projeção UserView:
+ * nada entra no contexto de persistência, então o heap não cresce com o tamanho da tabela.
+ * @author Erick Calazães
+ */
+@Service
+@Timed("service.invocations")
+public class UserExportService {
+
+    // A cada N linhas o buffer é enviado ao cliente
+    private static final int FLUSH_EVERY = 1_000;
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public UserExportService(UserRepository userRepository, UserMapper userMapper, ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.objectMapper = objectMapper;
+        // Sem FLUSH_AFTER_WRITE_VALUE (ligado por padrão no Jackson): o flush seria feito a cada linha,
+        // uma escrita no socket por usuário; o envio fica a cargo do FLUSH_EVERY
+        this.rowWriter = objectMapper.writerFor(UserResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Escreve todos os usuários (sem a senha) no OutputStream, um UserResponse em JSON por linha.
+     * O stream do banco precisa de uma transação aberta durante toda a escrita.
+     * @param outputStream Destino (corpo da resposta HTTP). Não é fechado por este método.
+     * @return long Quantidade de usuários exportados.
+     */
+    public long exportUsers(OutputStream outputStream) {
+        Long exported = readOnlyTransactionTemplate.execute(status -> {
+            try (Stream<UserView> users = userRepository.streamAllOrderedById();
+                 JsonGenerator generator = objectMapper.createGenerator(outputStream)
+                         .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                long count = 0;
+                Iterator<UserView> iterator = users.iterator();
+                while (iterator.hasNext()) {
+                    rowWriter.writeValue(generator, userMapper.mapUserViewToUserResponse(iterator.next()));
+                    generator.writeRaw('\n');
+
+                    if (++count % FLUSH_EVERY == 0) {
+                        generator.flush();
+                    }
+                }
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return exported == null ? 0 : exported;
+    }
+}
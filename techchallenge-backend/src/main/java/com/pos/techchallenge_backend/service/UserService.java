@@ -1,42 +1,119 @@
 package com.pos.techchallenge_backend.service;
 
+import com.pos.techchallenge_backend.cache.UserCache;
+import com.pos.techchallenge_backend.datasource.ReadYourWritesWindow;
+import com.pos.techchallenge_backend.exception.custom.BulkSizeExceededException;
 import com.pos.techchallenge_backend.exception.custom.EmailAlreadyExistsException;
+import com.pos.techchallenge_backend.exception.custom.InvalidCursorException;
 import com.pos.techchallenge_backend.exception.custom.InvalidPasswordException;
+import com.pos.techchallenge_backend.exception.custom.InvalidSearchTermException;
+import com.pos.techchallenge_backend.exception.custom.LoginAlreadyExistsException;
 import com.pos.techchallenge_backend.exception.custom.ResourceNotFoundException;
+import com.pos.techchallenge_backend.exception.custom.VersionConflictException;
 import com.pos.techchallenge_backend.mapper.UserMapper;
+import com.pos.techchallenge_backend.model.dto.PageResponse;
+import com.pos.techchallenge_backend.model.dto.user.BulkDeleteResponse;
 import com.pos.techchallenge_backend.model.dto.user.PasswordUpdateRequest;
+import com.pos.techchallenge_backend.model.dto.user.UserBatchResponse;
 import com.pos.techchallenge_backend.model.dto.user.UserRegistrationRequest;
 import com.pos.techchallenge_backend.model.dto.user.UserResponse;
 import com.pos.techchallenge_backend.model.dto.user.UserUpdateRequest;
+import com.pos.techchallenge_backend.model.entity.Address;
 import com.pos.techchallenge_backend.model.entity.User;
+import com.pos.techchallenge_backend.repository.UserConstraints;
+import com.pos.techchallenge_backend.repository.UserFilter;
+import com.pos.techchallenge_backend.repository.UserFilterCursor;
 import com.pos.techchallenge_backend.repository.UserRepository;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.pos.techchallenge_backend.repository.projection.LoginCredentials;
+import com.pos.techchallenge_backend.repository.projection.UserView;
+import com.pos.techchallenge_backend.search.NameSearchIndex;
+import com.pos.techchallenge_backend.search.SearchCursor;
+import com.pos.techchallenge_backend.search.UserNameSearchIndex;
+import com.pos.techchallenge_backend.security.PasswordHashingService;
+import com.pos.techchallenge_backend.uniqueness.UserUniquenessFilter;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * @Service
  * Camada de Serviço responsável pela regra de negócio e gestão completa da entidade User.
- * * Implementa os requisitos obrigatórios de CRUD, unicidade de e-mail e registro
+ * * Implementa os requisitos obrigatórios de CRUD, unicidade de e-mail e login e registro
  * da data da última alteração. Segue o padrão SOLID de Responsabilidade Única.
+ * * Os fluxos com BCrypt (cadastro e troca de senha) calculam o hash ANTES de abrir a
+ * transação (TransactionTemplate), para que a conexão do pool só fique presa durante a
+ * leitura/escrita curta, e não durante os ~100 ms do hash.
+ * * A unicidade do e-mail e do login é garantida pelas constraints uk_users_email e uk_users_login:
+ * o serviço grava direto e traduz a violação para EmailAlreadyExistsException/LoginAlreadyExistsException.
+ * No cadastro, a consulta prévia só acontece quando o filtro de Bloom indica que o valor talvez
+ * exista (recusa o cadastro antes do BCrypt).
+ * * As atualizações são UPDATEs condicionais de um único comando, que incrementam a coluna @Version;
+ * com a versão esperada (If-Match) uma escrita concorrente resulta em VersionConflictException (409).
+ * * Com réplicas de leitura, as consultas readOnly vão para as réplicas; cada escrita abre a janela de
+ * read-your-writes do usuário, e as leituras por ID desse usuário ficam no primário durante a janela.
  *  @author Erick Calazães
  */
 @Service
-@Transactional
+@Timed("service.invocations")
 public class UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final TransactionTemplate transactionTemplate;
+    private final UserNameSearchIndex userNameSearchIndex;
+    private final UserUniquenessFilter userUniquenessFilter;
+    private final UserCache userCache;
+    private final ReadYourWritesWindow readYourWritesWindow;
+    private final DistributionSummary registrationQueriesSaved;
+    private final int maxPageSize;
+    private final int maxBatchSize;
+    private final int maxBulkDeleteSize;
+    private final int bulkDeleteChunkSize;
 
-    public UserService(UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, UserMapper userMapper,
+                       PasswordHashingService passwordHashingService, PlatformTransactionManager transactionManager,
+                       UserNameSearchIndex userNameSearchIndex, UserUniquenessFilter userUniquenessFilter,
+                       UserCache userCache, ReadYourWritesWindow readYourWritesWindow, MeterRegistry meterRegistry,
+                       @Value("${search.users.max-page-size:100}") int maxPageSize,
+                       @Value("${users.batch.max-size:500}") int maxBatchSize,
+                       @Value("${users.bulk-delete.max-size:100000}") int maxBulkDeleteSize,
+                       @Value("${users.bulk-delete.chunk-size:1000}") int bulkDeleteChunkSize) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userNameSearchIndex = userNameSearchIndex;
+        this.userUniquenessFilter = userUniquenessFilter;
+        this.userCache = userCache;
+        this.readYourWritesWindow = readYourWritesWindow;
+        this.registrationQueriesSaved = DistributionSummary.builder("users.registration.queries.saved")
+                .description("Consultas ao banco dispensadas pelo filtro de Bloom em cada cadastro")
+                .register(meterRegistry);
+        this.maxPageSize = maxPageSize;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBulkDeleteSize = maxBulkDeleteSize;
+        this.bulkDeleteChunkSize = bulkDeleteChunkSize;
     }
 
     // ----------------------------------------------------------------------
@@ -44,26 +121,53 @@ public class UserService {
     // ----------------------------------------------------------------------
     /**
      * Requisito: Cadastro de Usuário (Dono de restaurante ou Cliente)
-     * 1. Garante que o e-mail seja único.
+     * 1. Garante que o e-mail e o login sejam únicos.
      * 2. Criptografa a senha antes de persistir.
      * 3. Registra a data da última alteração.
      * @param request DTO com os dados do usuário a ser registrado.
      * @return UserResponse DTO do usuário criado.
      * @throws EmailAlreadyExistsException Se o e-mail já estiver em uso.
+     * @throws LoginAlreadyExistsException Se o login já estiver em uso.
      */
     public UserResponse registerUser(UserRegistrationRequest request) {
-        // Garantia de que o e-mail cadastrado seja único
-        if (userRepository.findByEmail(request.getEmail()).isPresent()) {
-            throw new EmailAlreadyExistsException("E-mail já cadastrado: " + request.getEmail());
+        // Garantia de que e-mail e login sejam únicos: consulta apenas se o filtro indicar que
+        // o valor talvez exista, recusando o cadastro antes de gastar CPU com o BCrypt
+        int queriesSaved = 0;
+        if (userUniquenessFilter.shouldLookUpEmail(request.getEmail())) {
+            if (userRepository.existsByEmail(request.getEmail())) {
+                throw new EmailAlreadyExistsException("E-mail já cadastrado: " + request.getEmail());
+            }
+        } else {
+            queriesSaved++;
+        }
+        if (userUniquenessFilter.shouldLookUpLogin(request.getLogin())) {
+            if (userRepository.existsByLogin(request.getLogin())) {
+                throw new LoginAlreadyExistsException("Login já cadastrado: " + request.getLogin());
+            }
+        } else {
+            queriesSaved++;
         }
+        registrationQueriesSaved.record(queriesSaved);
 
         // Mapeia DTO para Entidade (resolvendo o Single Table Inheritance e criptografando a senha)
+        // O BCrypt roda aqui, antes da transação, sem segurar conexão do pool
         User newUser = userMapper.mapRegistrationRequestToUser(request);
 
         // Registro da data da última alteração
         newUser.setLastUpdateDate(LocalDateTime.now());
 
-        User savedUser = userRepository.save(newUser);
+        // Transação curta: apenas o INSERT (a constraint de unicidade cobre cadastros concorrentes)
+        User savedUser;
+        try {
+            savedUser = transactionTemplate.execute(status -> userRepository.saveAndFlush(newUser));
+        } catch (DataIntegrityViolationException e) {
+            throw translateViolation(e, "E-mail já cadastrado: " + request.getEmail(),
+                    "Login já cadastrado: " + request.getLogin());
+        }
+        userUniquenessFilter.addEmail(savedUser.getEmail());
+        userUniquenessFilter.addLogin(savedUser.getLogin());
+        userNameSearchIndex.indexAfterCommit(savedUser.getId(), savedUser.getName());
+        readYourWritesWindow.recordWrite(savedUser.getId());
         return userMapper.mapUserToUserResponse(savedUser);
     }
 
@@ -72,87 +176,331 @@ public class UserService {
     // ----------------------------------------------------------------------
     /**
      * Requisito: Busca de usuários pelo nome.
-     * Retorna uma lista de usuários cujo nome contenha o termo de busca (case-insensitive).
+     * Retorna uma página de usuários cujo nome contenha o termo de busca (case-insensitive),
+     * ordenada por relevância (nome exato, prefixo do nome, prefixo de palavra, trecho) e ID.
+     * Usa o índice de trigramas em memória; enquanto ele carrega, consulta o banco (LIKE, por ID),
+     * e as páginas seguintes de uma busca iniciada no banco continuam no banco.
+     * A paginação é por chave (cursor), então páginas profundas custam o mesmo que a primeira.
+     * Os usuários são lidos direto na projeção UserView (sem entidades nem dirty checking).
      * @param name Termo de busca (parte do nome).
-     * @return List<UserResponse> Lista de usuários encontrados.
+     * @param cursor Cursor opaco devolvido na página anterior (null na primeira página).
+     * @param size Tamanho da página (limitado a search.users.max-page-size).
+     * @return PageResponse<UserResponse> Página de usuários encontrados e o cursor da próxima.
+     * @throws InvalidCursorException Se o cursor não tiver sido emitido pela API, ou se for do índice e ele ainda estiver carregando.
+     * @throws InvalidSearchTermException Se o termo tiver menos de 3 caracteres (sem acentos e espaços nas pontas).
      */
     @Transactional(readOnly = true)
-    public List<UserResponse> findUsersByName(String name) {
-        // Busca de usuários pelo nome
-        List<User> users = userRepository.findByNameContainingIgnoreCase(name);
+    public PageResponse<UserResponse> findUsersByName(String name, String cursor, int size) {
+        // Termos curtos não têm trigramas: no índice e no LIKE do banco, percorreriam todos os nomes
+        if (NameSearchIndex.normalize(name).length() < NameSearchIndex.MIN_TERM_LENGTH) {
+            throw new InvalidSearchTermException(
+                    "O termo de busca deve ter ao menos " + NameSearchIndex.MIN_TERM_LENGTH + " caracteres.");
+        }
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        SearchCursor after = SearchCursor.decode(cursor);
+
+        // Uma busca iniciada no banco termina no banco: o cursor dela não tem relevância do índice
+        boolean databaseOrder = after != null && after.isDatabaseOrder();
+        boolean indexReady = userNameSearchIndex.isReady();
+        if (after != null && !databaseOrder && !indexReady) {
+            throw new InvalidCursorException("Cursor de paginação inválido: o índice de busca ainda está carregando. Recomece a busca.");
+        }
+        if (databaseOrder || !indexReady) {
+            // Busca de usuários pelo nome direto no banco (um item a mais indica que há próxima página)
+            List<UserView> users = userRepository.findViewsByNameContaining(
+                    name, after == null ? 0L : after.id(), PageRequest.ofSize(pageSize + 1));
+            boolean hasMore = users.size() > pageSize;
+            List<UserView> page = hasMore ? users.subList(0, pageSize) : users;
+
+            String nextCursor = hasMore
+                    ? SearchCursor.inDatabaseOrder(page.get(page.size() - 1).id()).encode()
+                    : null;
+            return toPage(page.stream().map(userMapper::mapUserViewToUserResponse).collect(Collectors.toList()), nextCursor);
+        }
+
+        // O índice devolve os IDs por relevância; o banco é consultado apenas pela chave primária
+        List<NameSearchIndex.Match> matches = userNameSearchIndex.search(name, after, pageSize + 1);
+        boolean hasMore = matches.size() > pageSize;
+        List<NameSearchIndex.Match> page = hasMore ? matches.subList(0, pageSize) : matches;
+
+        List<Long> ids = page.stream().map(NameSearchIndex.Match::id).toList();
+        Map<Long, UserView> usersById = (ids.isEmpty() ? List.<UserView>of() : userRepository.findViewsByIdIn(ids))
+                .stream()
+                .collect(Collectors.toMap(UserView::id, Function.identity()));
 
-        return users.stream()
-                .map(userMapper::mapUserToUserResponse)
+        // Mantém a ordem de relevância (IDs excluídos em outra instância são descartados)
+        List<UserResponse> items = ids.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .map(userMapper::mapUserViewToUserResponse)
                 .collect(Collectors.toList());
+
+        NameSearchIndex.Match last = page.isEmpty() ? null : page.get(page.size() - 1);
+        String nextCursor = hasMore ? new SearchCursor(last.rank(), last.id()).encode() : null;
+        return toPage(items, nextCursor);
+    }
+
+    /**
+     * Busca um usuário pelo ID (GET /{id}), direto na projeção UserView
+     * (no primário durante a janela de read-your-writes do usuário).
+     * @param id ID do usuário.
+     * @return UserResponse DTO do usuário.
+     * @throws ResourceNotFoundException Se o usuário não for encontrado.
+     */
+    @Transactional(readOnly = true)
+    public UserResponse findUserById(Long id) {
+        return readYourWritesWindow.read(List.of(id), () -> userRepository.findViewById(id))
+                .map(userMapper::mapUserViewToUserResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado."));
+    }
+
+    /**
+     * Versão atual do usuário (validação do ETag no GET condicional), do cache ou lida pela chave primária.
+     * @param id ID do usuário.
+     * @return Optional<Long> Versão, vazio se o usuário não existe.
+     */
+    public Optional<Long> findUserVersion(Long id) {
+        return userCache.findVersion(id);
+    }
+
+    /**
+     * Versões atuais dos usuários (validação do ETag da busca em lote), do cache ou em uma única consulta (IN).
+     * @param ids IDs dos usuários (repetidos e nulos são ignorados).
+     * @return Map<Long, Long> Versão por ID (IDs inexistentes ficam de fora).
+     * @throws BulkSizeExceededException Se a requisição tiver mais IDs que users.batch.max-size.
+     */
+    public Map<Long, Long> findUserVersions(List<Long> ids) {
+        return userCache.findVersions(distinctBatchIds(ids));
+    }
+
+    /**
+     * Busca vários usuários pelos IDs (GET /batch?ids=...) em uma única consulta (IN)
+     * (no primário se algum deles estiver na janela de read-your-writes).
+     * @param ids IDs dos usuários (repetidos e nulos são ignorados).
+     * @return UserBatchResponse Usuários encontrados na ordem da requisição e IDs inexistentes.
+     * @throws BulkSizeExceededException Se a requisição tiver mais IDs que users.batch.max-size.
+     */
+    @Transactional(readOnly = true)
+    public UserBatchResponse findUsersByIds(List<Long> ids) {
+        List<Long> distinct = distinctBatchIds(ids);
+
+        Map<Long, UserView> usersById = (distinct.isEmpty() ? List.<UserView>of()
+                : readYourWritesWindow.read(distinct, () -> userRepository.findViewsByIdIn(distinct)))
+                .stream()
+                .collect(Collectors.toMap(UserView::id, Function.identity()));
+
+        List<UserResponse> items = new ArrayList<>(usersById.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : distinct) {
+            UserView user = usersById.get(id);
+            if (user != null) {
+                items.add(userMapper.mapUserViewToUserResponse(user));
+            } else {
+                missing.add(id);
+            }
+        }
+
+        UserBatchResponse response = new UserBatchResponse();
+        response.setItems(items);
+        response.setMissing(missing);
+        return response;
+    }
+
+    /**
+     * Busca filtrada por tipo, cidade e prefixo do CEP (GET /filter), paginada por chave: em ordem de ID,
+     * ou de CEP e ID quando só o prefixo do CEP é informado (UserFilter.ordersByZipCode).
+     * As chaves da página vêm só dos índices compostos (UserFilterRepository); os usuários são lidos
+     * em seguida pela chave primária, na projeção UserView.
+     * @param filter Filtros (os nulos não restringem a busca).
+     * @param cursor Cursor opaco devolvido na página anterior (null na primeira página).
+     * @param size Tamanho da página (limitado a search.users.max-page-size).
+     * @return PageResponse<UserResponse> Página de usuários encontrados e o cursor da próxima.
+     * @throws InvalidCursorException Se o cursor não tiver sido emitido pela API.
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<UserResponse> findUsersByFilter(UserFilter filter, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        UserFilterCursor after = UserFilterCursor.decode(cursor);
+
+        List<UserFilterCursor> keys = userRepository.findKeysByFilter(filter, after, pageSize + 1);
+        boolean hasMore = keys.size() > pageSize;
+        List<Long> page = keys.stream().limit(pageSize).map(UserFilterCursor::id).toList();
+
+        Map<Long, UserView> usersById = (page.isEmpty() ? List.<UserView>of() : userRepository.findViewsByIdIn(page))
+                .stream()
+                .collect(Collectors.toMap(UserView::id, Function.identity()));
+        List<UserResponse> items = page.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .map(userMapper::mapUserViewToUserResponse)
+                .collect(Collectors.toList());
+
+        // Sem relevância nesta busca: o cursor é a chave (CEP, ID) do último usuário da página
+        String nextCursor = hasMore ? keys.get(pageSize - 1).encode() : null;
+        return toPage(items, nextCursor);
+    }
+
+    private List<Long> distinctBatchIds(List<Long> ids) {
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinct.size() > maxBatchSize) {
+            throw new BulkSizeExceededException("A busca em lote aceita no máximo " + maxBatchSize + " IDs.");
+        }
+        return distinct;
+    }
+
+    private static PageResponse<UserResponse> toPage(List<UserResponse> items, String nextCursor) {
+        PageResponse<UserResponse> response = new PageResponse<>();
+        response.setItems(items);
+        response.setSize(items.size());
+        response.setNextCursor(nextCursor);
+        return response;
     }
 
     // ----------------------------------------------------------------------
     // 3. REQUISITO: ATUALIZAÇÃO DE DADOS (Endpoint Distinto)
     // ----------------------------------------------------------------------
+    /**
+     * Requisito: Atualização de dados em endpoint distinto (PUT /{id}/data), sem controle de versão.
+     * @see #updateUserData(Long, UserUpdateRequest, Long)
+     */
+    @Transactional
+    public UserResponse updateUserData(Long id, UserUpdateRequest request) {
+        return updateUserData(id, request, null);
+    }
+
     /**
      * Requisito: Atualização de dados em endpoint distinto (PUT /{id}/data).
-     * 1. Atualiza nome, e-mail, login e endereço.
-     * 2. Garante que o novo e-mail (se alterado) não esteja em uso por outro usuário.
-     * 3. Atualiza a data da última alteração.
+     * 1. Lê a projeção atual (login antigo, tipo e versão) uma única vez, antes do UPDATE.
+     * 2. Atualiza nome, e-mail, login e endereço em um único UPDATE condicional à versão lida.
+     * 3. Garante que o novo e-mail e o novo login (se alterados) não estejam em uso por outro usuário.
+     * 4. Atualiza a data da última alteração e incrementa a versão; a resposta é montada com os dados
+     *    da requisição e a versão seguinte à lida, sem consultar o usuário de novo.
      * @param id ID do usuário a ser atualizado.
      * @param request DTO com os novos dados.
+     * @param expectedVersion Versão lida pelo cliente (If-Match), ou null para atualizar qualquer versão.
      * @return UserResponse DTO do usuário atualizado.
      * @throws ResourceNotFoundException Se o usuário não for encontrado.
+     * @throws VersionConflictException Se o usuário foi alterado depois da versão esperada.
      * @throws EmailAlreadyExistsException Se o novo e-mail já estiver em uso.
+     * @throws LoginAlreadyExistsException Se o novo login já estiver em uso.
      */
-    public UserResponse updateUserData(Long id, UserUpdateRequest request) {
-        User existingUser = userRepository.findById(id)
+    @Transactional
+    public UserResponse updateUserData(Long id, UserUpdateRequest request, Long expectedVersion) {
+        // Estado atual em uma consulta pela chave primária: login antigo (cache), tipo e versão (resposta)
+        UserView current = userRepository.findViewById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado."));
+        if (expectedVersion != null && !expectedVersion.equals(current.version())) {
+            throw new VersionConflictException("O usuário foi alterado por outra requisição (versão esperada "
+                    + expectedVersion + ", versão atual " + current.version() + ").");
+        }
 
-        // Verificar unicidade se o e-mail foi alterado
-        if (!existingUser.getEmail().equals(request.getEmail())) {
-            if (userRepository.findByEmail(request.getEmail()).isPresent()) {
-                throw new EmailAlreadyExistsException("Novo e-mail já cadastrado por outro usuário.");
-            }
+        // Remove do cache as credenciais pelo ID e pelo login atual (agora e após o commit)
+        userCache.evict(id, current.login());
+
+        // Atualiza apenas as colunas de dados (exceto senha e userType), com a data da última alteração.
+        // A unicidade do novo e-mail e do novo login é verificada pelas constraints (sem consulta prévia).
+        // Condicional à versão lida: se outra requisição gravou no meio, a resposta abaixo não seria o estado gravado
+        Address address = userMapper.mapAddressRequestToAddress(request.getAddress());
+        // Precisão da coluna (datetime(6)): a resposta mostra a mesma data que uma leitura posterior
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        int updated;
+        try {
+            updated = userRepository.updateData(id, current.version(), request.getName(), request.getEmail(),
+                    request.getLogin(), address == null ? null : address.getStreet(),
+                    address == null ? null : address.getNumber(), address == null ? null : address.getCity(),
+                    address == null ? null : address.getZipCode(), now);
+        } catch (DataIntegrityViolationException e) {
+            throw translateViolation(e, "Novo e-mail já cadastrado por outro usuário.",
+                    "Novo login já cadastrado por outro usuário.");
+        }
+        if (updated == 0) {
+            throw updateRejected(id, expectedVersion, () -> new VersionConflictException(
+                    "O usuário foi alterado por outra requisição durante a atualização."));
         }
 
-        // Atualiza campos (exceto senha e userType)
-        existingUser.setName(request.getName());
-        existingUser.setEmail(request.getEmail());
-        existingUser.setLogin(request.getLogin());
-        existingUser.setAddress(userMapper.mapAddressRequestToAddress(request.getAddress()));
+        // Exatamente o que o UPDATE gravou (a versão lida não mudou até ele)
+        UserView updatedUser = new UserView(id, request.getName(), request.getEmail(), request.getLogin(),
+                current.userType(), now, address == null ? null : address.getStreet(),
+                address == null ? null : address.getNumber(), address == null ? null : address.getCity(),
+                address == null ? null : address.getZipCode(), current.version() + 1);
+        userUniquenessFilter.addEmail(updatedUser.email());
+        userUniquenessFilter.addLogin(updatedUser.login());
+        userNameSearchIndex.indexAfterCommit(updatedUser.id(), updatedUser.name());
+        readYourWritesWindow.recordWrite(id);
+        return userMapper.mapUserViewToUserResponse(updatedUser);
+    }
 
-        // Registro da data da última alteração
-        existingUser.setLastUpdateDate(LocalDateTime.now());
+    // Traduz a violação das constraints de e-mail/login únicos; outras violações seguem para o handler genérico
+    private static RuntimeException translateViolation(DataIntegrityViolationException e,
+                                                       String emailMessage, String loginMessage) {
+        if (UserConstraints.isViolated(e, UserConstraints.UNIQUE_EMAIL)) {
+            return new EmailAlreadyExistsException(emailMessage);
+        }
+        if (UserConstraints.isViolated(e, UserConstraints.UNIQUE_LOGIN)) {
+            return new LoginAlreadyExistsException(loginMessage);
+        }
+        return e;
+    }
 
-        User updatedUser = userRepository.save(existingUser);
-        return userMapper.mapUserToUserResponse(updatedUser);
+    // Um UPDATE condicional não alterou nenhuma linha: identifica o motivo (só neste caminho, raro)
+    private RuntimeException updateRejected(Long id, Long expectedVersion, Supplier<RuntimeException> otherwise) {
+        Optional<Long> version = userRepository.findVersionById(id);
+        if (version.isEmpty()) {
+            return new ResourceNotFoundException("Usuário não encontrado.");
+        }
+        if (expectedVersion != null && !expectedVersion.equals(version.get())) {
+            return new VersionConflictException("O usuário foi alterado por outra requisição (versão esperada "
+                    + expectedVersion + ", versão atual " + version.get() + ").");
+        }
+        return otherwise.get();
     }
 
     // ----------------------------------------------------------------------
     // 4. REQUISITO: TROCA DE SENHA (Endpoint Exclusivo)
     // ----------------------------------------------------------------------
+    /**
+     * Requisito: Troca de senha do usuário em endpoint separado (PUT /{id}/password), sem controle de versão.
+     * @see #updatePassword(Long, PasswordUpdateRequest, Long)
+     */
+    public void updatePassword(Long id, PasswordUpdateRequest request) {
+        updatePassword(id, request, null);
+    }
+
     /**
      * Requisito: Troca de senha do usuário em endpoint separado (PUT /{id}/password).
      * 1. Valida a senha atual fornecida pelo usuário antes de aplicar a nova.
      * 2. Criptografa a nova senha.
-     * 3. Registra a data da última alteração.
+     * 3. Grava em um único UPDATE condicional, com a data da última alteração e a nova versão.
      * @param id ID do usuário.
      * @param request DTO contendo a senha atual e a nova senha.
+     * @param expectedVersion Versão lida pelo cliente (If-Match), ou null para atualizar qualquer versão.
      * @throws ResourceNotFoundException Se o usuário não for encontrado.
      * @throws InvalidPasswordException Se a senha atual estiver incorreta.
+     * @throws VersionConflictException Se o usuário foi alterado depois da versão esperada.
      */
-    public void updatePassword(Long id, PasswordUpdateRequest request) {
-        User existingUser = userRepository.findById(id)
+    public void updatePassword(Long id, PasswordUpdateRequest request, Long expectedVersion) {
+        // Leitura do hash atual (cache por ID ou consulta curta pela chave primária)
+        LoginCredentials current = userCache.findCredentialsById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado."));
 
-        // Verificar se a senha atual confere (uso do PasswordEncoder)
-        if (!passwordEncoder.matches(request.getCurrentPassword(), existingUser.getPassword())) {
+        // Verificar se a senha atual confere e gerar o novo hash, ambos fora da transação
+        if (!passwordHashingService.matches(request.getCurrentPassword(), current.password())) {
             throw new InvalidPasswordException("Senha atual incorreta.");
         }
+        String newHash = passwordHashingService.encode(request.getNewPassword());
 
-        // Atualiza senha e data de alteração
-        existingUser.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        // Um único UPDATE: só grava se o hash conferido acima ainda for o atual (senha trocada por
+        // outra requisição enquanto o hash era calculado) e, com If-Match, se a versão não mudou
+        int updated = userRepository.changePassword(id, expectedVersion, current.password(), newHash,
+                LocalDateTime.now());
 
-        // Registro da data da última alteração
-        existingUser.setLastUpdateDate(LocalDateTime.now());
+        // Remove do cache as credenciais com o hash antigo (o UPDATE já foi confirmado)
+        userCache.evict(id, current.login());
 
-        userRepository.save(existingUser);
+        if (updated == 0) {
+            throw updateRejected(id, expectedVersion, () -> new InvalidPasswordException("Senha atual incorreta."));
+        }
+        readYourWritesWindow.recordWrite(id);
     }
 
     // ----------------------------------------------------------------------
@@ -160,13 +508,57 @@ public class UserService {
     // ----------------------------------------------------------------------
     /**
      * Requisito: Exclusão de usuário (Delete /users/{id}).
+     * Um único DELETE; a quantidade de linhas excluídas decide o 404.
      * @param id ID do usuário a ser excluído.
      * @throws ResourceNotFoundException Se o usuário não for encontrado.
      */
+    @Transactional
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
+        if (userRepository.deleteUserById(id) == 0) {
             throw new ResourceNotFoundException("Usuário não encontrado.");
         }
-        userRepository.deleteById(id);
+        userCache.evictAll(List.of(id));
+        userNameSearchIndex.removeAfterCommit(id);
+        readYourWritesWindow.recordWrite(id);
+    }
+
+    /**
+     * Exclusão de usuários em lote (expurgo LGPD). Cada bloco de users.bulk-delete.chunk-size IDs é
+     * uma transação curta com uma consulta dos IDs existentes e um único DELETE ... IN, então uma
+     * falha no meio do lote mantém os blocos já confirmados: reenviar o lote é seguro (os IDs
+     * já excluídos voltam como não encontrados).
+     * @param ids IDs dos usuários (repetidos e nulos são ignorados).
+     * @return BulkDeleteResponse Quantidade excluída e IDs não encontrados.
+     * @throws BulkSizeExceededException Se o lote tiver mais IDs que users.bulk-delete.max-size.
+     */
+    public BulkDeleteResponse deleteUsers(List<Long> ids) {
+        if (ids.size() > maxBulkDeleteSize) {
+            throw new BulkSizeExceededException("O lote deve ter no máximo " + maxBulkDeleteSize + " IDs.");
+        }
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+
+        int deleted = 0;
+        List<Long> notFound = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += bulkDeleteChunkSize) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + bulkDeleteChunkSize, distinct.size()));
+            Integer chunkDeleted = transactionTemplate.execute(status -> {
+                Set<Long> existing = new HashSet<>(userRepository.findExistingIds(chunk));
+                chunk.stream().filter(id -> !existing.contains(id)).forEach(notFound::add);
+                if (existing.isEmpty()) {
+                    return 0;
+                }
+                int rows = userRepository.deleteUsersByIdIn(existing);
+                userCache.evictAll(existing);
+                existing.forEach(userNameSearchIndex::removeAfterCommit);
+                readYourWritesWindow.recordWrites(existing);
+                return rows;
+            });
+            deleted += chunkDeleted == null ? 0 : chunkDeleted;
+        }
+
+        BulkDeleteResponse response = new BulkDeleteResponse();
+        response.setDeleted(deleted);
+        response.setNotFound(notFound);
+        return response;
     }
 }
@@ -0,0 +1,179 @@
+package com.pos.techchallenge_backend.uniqueness;
+
+import com.pos.techchallenge_backend.datasource.PrimaryReads;
+import com.pos.techchallenge_backend.repository.UserRepository;
+import com.pos.techchallenge_backend.repository.projection.UserUniqueKeysView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * @Component
+ * Filtros de Bloom com os e-mails e logins já cadastrados, usados antes das consultas de unicidade.
+ * Quando o filtro responde "certamente ausente", a consulta ao banco é dispensada e o cadastro
+ * segue direto para o INSERT; a garantia de unicidade é das constraints uk_users_email e uk_users_login.
+ * Por isso o filtro pode ficar defasado (escritas de outras instâncias até a próxima sincronização)
+ * sem comprometer a regra: no pior caso o INSERT viola a constraint e o erro vira 409.
+ * Enquanto a carga inicial não termina, todo valor é tratado como "talvez presente".
+ * @author Erick Calazães
+ */
+@Component
+public class UserUniquenessFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(UserUniquenessFilter.class);
+
+    // Margem para escritas concorrentes com a sincronização (relógios e transações em andamento)
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(10);
+
+    private final UserRepository userRepository;
+    private final BloomFilter emails;
+    private final BloomFilter logins;
+    private final boolean enabled;
+    private final int loadBatchSize;
+
+    private final Counter emailLookupsExecuted;
+    private final Counter emailLookupsSkipped;
+    private final Counter loginLookupsExecuted;
+    private final Counter loginLookupsSkipped;
+
+    private volatile boolean ready;
+    private volatile LocalDateTime lastSync;
+
+    public UserUniquenessFilter(UserRepository userRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${uniqueness.bloom-filter.enabled:true}") boolean enabled,
+                                @Value("${uniqueness.bloom-filter.expected-insertions:1000000}") long expectedInsertions,
+                                @Value("${uniqueness.bloom-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                                @Value("${uniqueness.bloom-filter.load-batch-size:10000}") int loadBatchSize) {
+        this.userRepository = userRepository;
+        this.emails = new BloomFilter(expectedInsertions, falsePositiveRate);
+        this.logins = new BloomFilter(expectedInsertions, falsePositiveRate);
+        this.enabled = enabled;
+        this.loadBatchSize = loadBatchSize;
+
+        this.emailLookupsExecuted = lookupCounter(meterRegistry, "email", "executed");
+        this.emailLookupsSkipped = lookupCounter(meterRegistry, "email", "skipped");
+        this.loginLookupsExecuted = lookupCounter(meterRegistry, "login", "executed");
+        this.loginLookupsSkipped = lookupCounter(meterRegistry, "login", "skipped");
+        falsePositiveRateGauge(meterRegistry, "email", emails);
+        falsePositiveRateGauge(meterRegistry, "login", logins);
+    }
+
+    /**
+     * Indica se a consulta de unicidade do e-mail precisa ir ao banco (e contabiliza a decisão).
+     * @param email E-mail a cadastrar.
+     * @return boolean False se o e-mail certamente não está cadastrado.
+     */
+    public boolean shouldLookUpEmail(String email) {
+        boolean lookUp = !ready || emails.mightContain(normalize(email));
+        (lookUp ? emailLookupsExecuted : emailLookupsSkipped).increment();
+        return lookUp;
+    }
+
+    /**
+     * Indica se a consulta de unicidade do login precisa ir ao banco (e contabiliza a decisão).
+     * @param login Login a cadastrar.
+     * @return boolean False se o login certamente não está cadastrado.
+     */
+    public boolean shouldLookUpLogin(String login) {
+        boolean lookUp = !ready || logins.mightContain(normalize(login));
+        (lookUp ? loginLookupsExecuted : loginLookupsSkipped).increment();
+        return lookUp;
+    }
+
+    /**
+     * Inclui o e-mail no filtro (após um cadastro ou troca de e-mail).
+     * Incluir um e-mail cuja transação acabou revertida só gera um falso positivo.
+     */
+    public void addEmail(String email) {
+        emails.put(normalize(email));
+    }
+
+    /**
+     * Inclui o login no filtro (após um cadastro ou troca de login).
+     */
+    public void addLogin(String login) {
+        logins.put(normalize(login));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+
+        Long afterId = 0L;
+        List<UserUniqueKeysView> slice;
+        do {
+            Long from = afterId;
+            slice = PrimaryReads.call(() -> userRepository.findUniqueKeysAfter(from, PageRequest.ofSize(loadBatchSize)));
+            for (UserUniqueKeysView user : slice) {
+                add(user);
+            }
+            if (!slice.isEmpty()) {
+                afterId = slice.get(slice.size() - 1).id();
+            }
+        } while (slice.size() == loadBatchSize);
+
+        lastSync = startedAt;
+        ready = true;
+        log.info("Filtro de unicidade carregado: {} usuários em {} ms ({} bits e {} hashes por campo)",
+                emails.insertions(), Duration.ofNanos(System.nanoTime() - start).toMillis(),
+                emails.bitCount(), emails.hashFunctions());
+    }
+
+    @Scheduled(initialDelayString = "${uniqueness.bloom-filter.refresh-interval-ms:30000}",
+            fixedDelayString = "${uniqueness.bloom-filter.refresh-interval-ms:30000}")
+    public void refresh() {
+        if (!ready) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        // No primário: uma réplica atrasada além de SYNC_OVERLAP deixaria e-mails e logins novos fora do filtro
+        LocalDateTime since = lastSync.minus(SYNC_OVERLAP);
+        for (UserUniqueKeysView user : PrimaryReads.call(() -> userRepository.findUniqueKeysUpdatedSince(since))) {
+            add(user);
+        }
+        lastSync = startedAt;
+    }
+
+    private void add(UserUniqueKeysView user) {
+        addEmail(user.email());
+        addLogin(user.login());
+    }
+
+    // A collation padrão do MySQL ignora maiúsculas; o filtro segue a mesma regra
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String field, String result) {
+        return Counter.builder("users.uniqueness.lookups")
+                .description("Consultas de unicidade executadas ou dispensadas pelo filtro de Bloom")
+                .tag("field", field)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static void falsePositiveRateGauge(MeterRegistry meterRegistry, String field, BloomFilter filter) {
+        Gauge.builder("users.uniqueness.filter.false-positive-rate", filter, BloomFilter::expectedFalsePositiveRate)
+                .description("Taxa de falsos positivos esperada do filtro com a ocupação atual")
+                .tag("field", field)
+                .register(meterRegistry);
+    }
+}
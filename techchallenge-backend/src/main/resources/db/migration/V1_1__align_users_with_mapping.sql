@@ -0,0 +1,24 @@
+-- Leva o esquema da V1 (ddl-auto=update) ao mapeamento atual da entidade User.
+
+-- Controle de concorrência otimista (@Version): linhas existentes começam na versão 0
+alter table users add column version bigint default 0 not null;
+
+-- Gerador de IDs em tabela (@TableGenerator "users_id"), no lugar do AUTO_INCREMENT.
+-- Com usuários já gravados, a linha começa um bloco inteiro (allocationSize 50) acima do maior ID:
+-- o otimizador "pooled" entrega IDs abaixo do valor lido. Sem usuários, o Hibernate cria a linha no primeiro uso.
+create table id_generator (
+    sequence_name varchar(255) not null,
+    next_val bigint,
+    primary key (sequence_name)
+);
+
+insert into id_generator (sequence_name, next_val)
+select 'users', max(id) + 51 from users having count(*) > 0;
+
+alter table users modify id bigint not null;
+
+-- Constraints com os nomes que o serviço reconhece (UserConstraints) para responder 409.
+-- Logins repetidos gravados antes desta versão precisam ser corrigidos antes da migração
+alter table users drop constraint UK_6dotkott2kjsp8vw4d0m25fb7;
+alter table users add constraint uk_users_email unique (email);
+alter table users add constraint uk_users_login unique (login);
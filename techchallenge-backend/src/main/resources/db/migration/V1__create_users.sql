@@ -0,0 +1,22 @@
+-- Esquema anterior às migrações, exatamente como o Hibernate 6.3 o criava com ddl-auto=update
+-- (ID AUTO_INCREMENT, unique do e-mail com o nome gerado pelo Hibernate, sem versão e sem id_generator).
+-- Bancos já existentes são registrados nesta versão (spring.flyway.baseline-on-migrate) e recebem só as seguintes,
+-- que levam o esquema ao formato atual (V1_1).
+
+-- Usuários (herança SINGLE_TABLE: user_type é a coluna discriminadora CLIENT/RESTAURANT_OWNER)
+create table users (
+    id bigint not null auto_increment,
+    user_type varchar(31) not null,
+    city varchar(255),
+    number varchar(255),
+    street varchar(255),
+    zip_code varchar(255),
+    email varchar(255) not null,
+    last_update_date datetime(6),
+    login varchar(255) not null,
+    name varchar(255) not null,
+    password varchar(255) not null,
+    primary key (id)
+);
+
+alter table users add constraint UK_6dotkott2kjsp8vw4d0m25fb7 unique (email);
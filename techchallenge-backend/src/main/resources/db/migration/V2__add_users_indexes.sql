@@ -0,0 +1,8 @@
+-- login e email já são indexados pelas constraints uk_users_login e uk_users_email.
+
+-- Sincronização incremental do índice de busca por nome e do filtro de unicidade (last_update_date > ?)
+create index idx_users_last_update_date on users (last_update_date);
+
+-- Filtros por tipo de usuário e por cidade
+create index idx_users_user_type on users (user_type);
+create index idx_users_city on users (city);
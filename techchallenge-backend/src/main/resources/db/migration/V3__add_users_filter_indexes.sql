@@ -0,0 +1,13 @@
+-- Busca filtrada por tipo, cidade e prefixo do CEP (GET /api/v1/users/filter), paginada por ID (id > ? order by id).
+-- Em cada índice: igualdades primeiro, depois o id (a página sai na ordem do índice, sem ordenação) e o CEP
+-- por último, para o prefixo ser conferido no próprio índice. A consulta lê só o ID: basta o índice.
+create index idx_users_type_city_id_zip on users (user_type, city, id, zip_code);
+create index idx_users_type_id_zip on users (user_type, id, zip_code);
+create index idx_users_city_id_zip on users (city, id, zip_code);
+
+-- Só o prefixo do CEP: intervalo no índice, ordenando apenas os IDs encontrados
+create index idx_users_zip_code on users (zip_code);
+
+-- Substituídos pelos índices acima, que começam pelas mesmas colunas
+drop index idx_users_user_type on users;
+drop index idx_users_city on users;
@@ -0,0 +1,13 @@
+-- Chaves de idempotência do cadastro (Idempotency-Key), usadas com idempotency.store=jdbc.
+-- response_body fica nulo enquanto a requisição original está em andamento; expires_at vale para a
+-- reserva (idempotency.in-flight-timeout) e, depois da resposta, para a própria resposta (idempotency.ttl)
+create table idempotency_keys (
+    idempotency_key varchar(255) not null,
+    fingerprint varchar(64) not null,
+    response_body text,
+    expires_at datetime(6) not null,
+    primary key (idempotency_key)
+);
+
+-- Limpeza periódica das chaves expiradas
+create index idx_idempotency_keys_expires_at on idempotency_keys (expires_at);
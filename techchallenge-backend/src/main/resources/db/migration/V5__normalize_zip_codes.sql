@@ -0,0 +1,8 @@
+-- CEPs passam a ser gravados só com os dígitos (UserMapper), o formato do prefixo da busca filtrada.
+-- Remove o hífen dos CEPs gravados antes, que de outro modo não seriam encontrados pelo prefixo
+update users set zip_code = replace(zip_code, '-', '') where zip_code like '%-%';
+
+-- Busca só pelo prefixo do CEP: a página segue a ordem do índice (zip_code, id), com o cursor nessas
+-- duas colunas, e lê apenas as linhas da página em vez de ordenar todos os IDs do intervalo
+drop index idx_users_zip_code on users;
+create index idx_users_zip_code_id on users (zip_code, id);
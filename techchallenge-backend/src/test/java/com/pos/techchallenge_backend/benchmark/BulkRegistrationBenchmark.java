@@ -0,0 +1,92 @@
+package com.pos.techchallenge_backend.benchmark;
+
+import com.pos.techchallenge_backend.model.dto.AddressRequest;
+import com.pos.techchallenge_backend.model.dto.user.BulkRegistrationResponse;
+import com.pos.techchallenge_backend.model.dto.user.UserRegistrationRequest;
+import com.pos.techchallenge_backend.model.enums.UserType;
+import com.pos.techchallenge_backend.service.UserBulkRegistrationService;
+import com.pos.techchallenge_backend.service.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara a vazão (usuários/s) do cadastro em lote com o cadastro individual (um INSERT e uma
+ * transação por usuário). O custo do BCrypt é fixado em 4 para que o teste meça o acesso ao banco.
+ * Executar com: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "security.password.strength=4")
+class BulkRegistrationBenchmark {
+
+    private static final int USERS = 5_000;
+    private static final int BATCH_SIZE = 1_000;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserBulkRegistrationService userBulkRegistrationService;
+
+    @Test
+    void bulkThroughputVersusSingleInsert() {
+        // Aquecimento dos dois caminhos
+        registerOneByOne(requests("aquecimento.individual", 500));
+        registerInBatches(requests("aquecimento.lote", 500));
+
+        long start = System.nanoTime();
+        registerOneByOne(requests("individual", USERS));
+        double singleOps = USERS / ((System.nanoTime() - start) / 1e9);
+
+        start = System.nanoTime();
+        int created = registerInBatches(requests("lote", USERS));
+        double bulkOps = USERS / ((System.nanoTime() - start) / 1e9);
+
+        System.out.printf("Cadastro individual: %.0f usuários/s | cadastro em lote: %.0f usuários/s (%.1fx)%n",
+                singleOps, bulkOps, bulkOps / singleOps);
+
+        assertThat(created).isEqualTo(USERS);
+        assertThat(bulkOps).isGreaterThan(singleOps);
+    }
+
+    private void registerOneByOne(List<UserRegistrationRequest> requests) {
+        requests.forEach(userService::registerUser);
+    }
+
+    private int registerInBatches(List<UserRegistrationRequest> requests) {
+        int created = 0;
+        for (int from = 0; from < requests.size(); from += BATCH_SIZE) {
+            BulkRegistrationResponse response = userBulkRegistrationService.registerUsers(
+                    requests.subList(from, Math.min(from + BATCH_SIZE, requests.size())));
+            created += response.getCreated();
+        }
+        return created;
+    }
+
+    private static List<UserRegistrationRequest> requests(String prefix, int count) {
+        List<UserRegistrationRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            AddressRequest address = new AddressRequest();
+            address.setStreet("Rua das Flores");
+            address.setNumber(String.valueOf(i));
+            address.setCity("São Paulo");
+            address.setZipCode("01234567");
+
+            UserRegistrationRequest request = new UserRegistrationRequest();
+            request.setName("Funcionário " + i);
+            request.setEmail(prefix + "." + i + "@rede.com");
+            request.setLogin(prefix + "." + i);
+            request.setPassword("SenhaSegura123");
+            request.setUserType(UserType.CLIENT);
+            request.setAddress(address);
+            requests.add(request);
+        }
+        return requests;
+    }
+}
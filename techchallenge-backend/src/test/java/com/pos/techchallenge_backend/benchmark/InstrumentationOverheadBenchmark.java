@@ -0,0 +1,167 @@
+package com.pos.techchallenge_backend.benchmark;
+
+import com.pos.techchallenge_backend.TechchallengeBackendApplication;
+import com.pos.techchallenge_backend.support.UserDataSeeder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mede o custo da instrumentação (histogramas HTTP, @Timed dos serviços, métricas dos repositórios,
+ * estatísticas do Hibernate e contagem de SQL por requisição) no GET /api/v1/users/{id}.
+ * Sobe na mesma JVM pares de instâncias da aplicação, uma instrumentada e outra com métricas e
+ * estatísticas desligadas, e intercala requisições HTTP reais entre as duas de cada par, pedindo o mesmo
+ * ID em ordem sorteada (a intercalação fina faz o ruído de JIT, GC e CPU atingir os dois lados por igual).
+ * Cada instância tem os próprios proxies e, portanto, a própria compilação JIT, o que dá a ela um desvio
+ * fixo de alguns décimos de ponto percentual (duas instâncias idênticas chegaram a diferir 0,7%); por isso
+ * há vários pares, iniciados em ordem alternada, e o custo de cada rodada é a média entre os pares.
+ * O teste informa a média, o desvio padrão entre rodadas e o intervalo de confiança de 95% (t de Student)
+ * e falha se o limite superior do intervalo passar de 1% (custo acima de 1% ou medição ruidosa demais).
+ * Executar com: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class InstrumentationOverheadBenchmark {
+
+    private static final int USERS = 10_000;
+    private static final int PAIRS = 4;
+    private static final int WARMUP = 20_000;
+    private static final int ROUNDS = 15;
+    private static final int REQUESTS_PER_ROUND = 8_000;
+    // t de Student bicaudal (95%) com ROUNDS - 1 = 14 graus de liberdade
+    private static final double T_95 = 2.145;
+
+    private static final String[] INSTRUMENTED = {
+            "spring.jpa.properties.hibernate.generate_statistics=true",
+            "spring.jpa.properties.hibernate.session.events.log=false",
+            "management.metrics.distribution.percentiles-histogram.http.server.requests=true",
+            "management.metrics.distribution.percentiles-histogram.service.invocations=true"};
+    private static final String[] BASELINE = {
+            "spring.jpa.properties.hibernate.generate_statistics=false",
+            "management.metrics.enable.all=false"};
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void instrumentationCostsLessThanOnePercentOfRequestLatency() throws Exception {
+        List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+        try {
+            String[] instrumentedUrls = new String[PAIRS];
+            String[] baselineUrls = new String[PAIRS];
+            for (int pair = 0; pair < PAIRS; pair++) {
+                // Ordem alternada: nenhum dos lados fica sempre com a instância iniciada primeiro
+                boolean instrumentedFirst = pair % 2 == 0;
+                ConfigurableApplicationContext first = start((instrumentedFirst ? "instrumented-" : "baseline-") + pair,
+                        instrumentedFirst ? INSTRUMENTED : BASELINE);
+                contexts.add(first);
+                ConfigurableApplicationContext second = start((instrumentedFirst ? "baseline-" : "instrumented-") + pair,
+                        instrumentedFirst ? BASELINE : INSTRUMENTED);
+                contexts.add(second);
+                instrumentedUrls[pair] = baseUrl(instrumentedFirst ? first : second);
+                baselineUrls[pair] = baseUrl(instrumentedFirst ? second : first);
+            }
+
+            SplittableRandom random = new SplittableRandom(42);
+            measure(instrumentedUrls, baselineUrls, WARMUP, random);
+
+            double[] instrumentedMedians = new double[ROUNDS];
+            double[] baselineMedians = new double[ROUNDS];
+            double[] overheads = new double[ROUNDS];
+            for (int round = 0; round < ROUNDS; round++) {
+                long[][] medians = measure(instrumentedUrls, baselineUrls, REQUESTS_PER_ROUND, random);
+                for (int pair = 0; pair < PAIRS; pair++) {
+                    instrumentedMedians[round] += (double) medians[0][pair] / PAIRS;
+                    baselineMedians[round] += (double) medians[1][pair] / PAIRS;
+                    overheads[round] += (double) (medians[0][pair] - medians[1][pair]) / medians[1][pair] / PAIRS;
+                }
+            }
+
+            double mean = Arrays.stream(overheads).average().orElseThrow();
+            double stdDev = Math.sqrt(Arrays.stream(overheads).map(o -> (o - mean) * (o - mean)).sum() / (ROUNDS - 1));
+            double halfWidth = T_95 * stdDev / Math.sqrt(ROUNDS);
+            Arrays.sort(instrumentedMedians);
+            Arrays.sort(baselineMedians);
+
+            System.out.printf("GET /api/v1/users/{id}: p50 sem métricas %.1f µs | com métricas %.1f µs (mediana das rodadas, %d pares)%n",
+                    baselineMedians[ROUNDS / 2] / 1e3, instrumentedMedians[ROUNDS / 2] / 1e3, PAIRS);
+            System.out.printf("Custo por rodada: média %.2f%% | desvio padrão %.2f%% | IC 95%% [%.2f%%, %.2f%%] (%d rodadas)%n",
+                    mean * 100, stdDev * 100, (mean - halfWidth) * 100, (mean + halfWidth) * 100, ROUNDS);
+            assertThat(mean + halfWidth).isLessThan(0.01);
+        } finally {
+            contexts.forEach(ConfigurableApplicationContext::close);
+        }
+    }
+
+    // Argumentos de linha de comando: têm precedência sobre o application.properties de teste
+    // (com .properties(), as duas instâncias usariam o mesmo banco do application.properties)
+    private static ConfigurableApplicationContext start(String name, String... properties) {
+        Stream<String> common = Stream.of("server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "security.password.strength=4",
+                "search.name-index.enabled=false",
+                "management.observations.enable.spring.security=false",
+                "uniqueness.bloom-filter.enabled=false",
+                "logging.level.root=WARN");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TechchallengeBackendApplication.class)
+                .run(Stream.concat(common, Stream.of(properties)).map(property -> "--" + property).toArray(String[]::new));
+        UserDataSeeder.seed(context.getBean(JdbcTemplate.class), 1, USERS);
+        return context;
+    }
+
+    private static String baseUrl(ConfigurableApplicationContext context) {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        return "http://localhost:" + port + "/api/v1/users/";
+    }
+
+    // Medianas da latência de "requests" GETs por IDs aleatórios, por par ([0] instrumentada, [1] base);
+    // cada requisição vai a um par, e às duas instâncias dele em ordem sorteada
+    private long[][] measure(String[] instrumentedUrls, String[] baselineUrls, int requests, SplittableRandom random)
+            throws Exception {
+        int perPair = requests / PAIRS;
+        long[][][] latencies = new long[2][PAIRS][perPair];
+        for (int i = 0; i < perPair * PAIRS; i++) {
+            int pair = i % PAIRS;
+            long id = random.nextLong(1, USERS + 1);
+            if (random.nextBoolean()) {
+                latencies[0][pair][i / PAIRS] = time(instrumentedUrls[pair] + id);
+                latencies[1][pair][i / PAIRS] = time(baselineUrls[pair] + id);
+            } else {
+                latencies[1][pair][i / PAIRS] = time(baselineUrls[pair] + id);
+                latencies[0][pair][i / PAIRS] = time(instrumentedUrls[pair] + id);
+            }
+        }
+        long[][] medians = new long[2][PAIRS];
+        for (int side = 0; side < 2; side++) {
+            for (int pair = 0; pair < PAIRS; pair++) {
+                Arrays.sort(latencies[side][pair]);
+                medians[side][pair] = latencies[side][pair][perPair / 2];
+            }
+        }
+        return medians;
+    }
+
+    private long time(String url) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).GET().build();
+        long start = System.nanoTime();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        long elapsed = System.nanoTime() - start;
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Status inesperado: " + response.statusCode());
+        }
+        return elapsed;
+    }
+}
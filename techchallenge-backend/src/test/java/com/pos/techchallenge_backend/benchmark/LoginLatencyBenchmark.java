@@ -0,0 +1,96 @@
+package com.pos.techchallenge_backend.benchmark;
+
+import com.pos.techchallenge_backend.model.dto.user.LoginRequest;
+import com.pos.techchallenge_backend.repository.UserRepository;
+import com.pos.techchallenge_backend.service.LoginService;
+import com.pos.techchallenge_backend.support.UserDataSeeder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.LongConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mede a latência do login com 1 milhão de usuários: a busca pelo índice único de login
+ * (apenas ID, login e hash) e o login completo (busca + BCrypt de custo 4), comparando com a
+ * mesma busca sem índice (varredura da tabela, como antes da constraint uk_users_login).
+ * Executar com: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/benchmark/login;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "security.password.strength=4",
+        "search.name-index.enabled=false",
+        "uniqueness.bloom-filter.enabled=false"
+})
+class LoginLatencyBenchmark {
+
+    private static final int USERS = 1_000_000;
+    private static final int SAMPLES = 10_000;
+    private static final int SCAN_SAMPLES = 20;
+
+    @Autowired
+    private LoginService loginService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void loginLatencyWithOneMillionUsers() {
+        UserDataSeeder.seed(jdbcTemplate, 1, USERS);
+        SplittableRandom random = new SplittableRandom(42);
+
+        long[] lookup = measure(SAMPLES, id -> userRepository.findCredentialsByLogin("usuario." + id).orElseThrow(), random);
+        long[] login = measure(SAMPLES, id -> loginService.validateLogin(loginRequest(id)), random);
+        // concat() impede o uso do índice: equivale à busca antes da constraint
+        long[] scan = measure(SCAN_SAMPLES, id -> jdbcTemplate.queryForObject(
+                "select password from users where concat(login, '') = ?", String.class, "usuario." + id), random);
+
+        print("Busca por login (índice)", lookup);
+        print("Login completo (índice + BCrypt 4)", login);
+        print("Busca por login (varredura)", scan);
+
+        assertThat(percentile(lookup, 0.99)).isLessThan(percentile(scan, 0.50) / 10);
+    }
+
+    private static long[] measure(int samples, LongConsumer action, SplittableRandom random) {
+        // Aquecimento
+        for (int i = 0; i < Math.min(samples, 1_000); i++) {
+            action.accept(random.nextLong(1, USERS + 1));
+        }
+        long[] latencies = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long id = random.nextLong(1, USERS + 1);
+            long start = System.nanoTime();
+            action.accept(id);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(percentile * (sorted.length - 1)))];
+    }
+
+    private static void print(String label, long[] sorted) {
+        System.out.printf("%s: p50 %.3f ms | p99 %.3f ms | máx %.3f ms%n", label,
+                percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.99) / 1e6, sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static LoginRequest loginRequest(long id) {
+        LoginRequest request = new LoginRequest();
+        request.setLogin("usuario." + id);
+        request.setPassword(UserDataSeeder.PASSWORD);
+        return request;
+    }
+}
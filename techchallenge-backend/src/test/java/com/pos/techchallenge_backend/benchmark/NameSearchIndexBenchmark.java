@@ -0,0 +1,66 @@
+package com.pos.techchallenge_backend.benchmark;
+
+import com.pos.techchallenge_backend.search.NameSearchIndex;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Busca por nome sobre 1 milhão de usuários sintéticos: índice de trigramas versus varredura
+ * completa com "contains" (equivalente ao LIKE '%termo%'). Executar com: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class NameSearchIndexBenchmark {
+
+    private static final int USERS = 1_000_000;
+    private static final int ITERATIONS = 50;
+    private static final String[] FIRST_NAMES = {"Ana", "Maria", "João", "José", "Pedro", "Paulo", "Lucas", "Juliana",
+            "Fernanda", "Carlos", "Rafael", "Beatriz", "Camila", "Gabriel", "Mariana", "Ricardo"};
+    private static final String[] LAST_NAMES = {"Silva", "Souza", "Oliveira", "Santos", "Pereira", "Lima", "Costa",
+            "Ferreira", "Rodrigues", "Almeida", "Nascimento", "Carvalho", "Gomes", "Martins", "Araújo", "Ribeiro"};
+
+    @Test
+    void searchOverOneMillionUsers() {
+        Random random = new Random(42);
+        NameSearchIndex index = new NameSearchIndex();
+        List<String> normalizedNames = new ArrayList<>(USERS);
+
+        long buildStart = System.nanoTime();
+        for (int id = 1; id <= USERS; id++) {
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " "
+                    + Integer.toString(random.nextInt(1_000_000), 36);
+            index.put(id, name);
+            normalizedNames.add(NameSearchIndex.normalize(name));
+        }
+        System.out.printf("Carga do índice: %d usuários em %d ms%n", USERS, (System.nanoTime() - buildStart) / 1_000_000);
+
+        for (String term : new String[]{"mariana", "ilva", "car", "4x2", "xyzw"}) {
+            double indexMillis = measure(() -> index.search(term, 50));
+            String normalizedTerm = NameSearchIndex.normalize(term);
+            double scanMillis = measure(() -> normalizedNames.stream().filter(n -> n.contains(normalizedTerm)).limit(50).count());
+            double fullScanMillis = measure(() -> normalizedNames.stream().filter(n -> n.contains(normalizedTerm)).count());
+
+            System.out.printf("termo=%-8s índice (ranqueado, top 50): %8.2f ms | varredura até 50: %8.2f ms | varredura completa: %8.2f ms%n",
+                    term, indexMillis, scanMillis, fullScanMillis);
+        }
+
+        assertThat(index.search("xyzw", 50)).isEmpty();
+    }
+
+    private static double measure(Runnable search) {
+        for (int i = 0; i < 5; i++) {
+            search.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            search.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+    }
+}
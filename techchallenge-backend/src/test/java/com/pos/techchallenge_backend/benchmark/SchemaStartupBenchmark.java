@@ -0,0 +1,89 @@
+package com.pos.techchallenge_backend.benchmark;
+
+import com.pos.techchallenge_backend.TechchallengeBackendApplication;
+import com.pos.techchallenge_backend.support.UserDataSeeder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara o tempo de inicialização da aplicação sobre um banco já existente (10 mil usuários):
+ * o antigo ddl-auto=update (o Hibernate lê os metadados das tabelas e calcula a diferença a cada boot)
+ * com as migrações do Flyway e o Hibernate em 'validate' (testes) ou 'none' (produção).
+ * As configurações se alternam a cada rodada; compara a mediana.
+ * Executar com: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class SchemaStartupBenchmark {
+
+    private static final String URL = "jdbc:h2:file:./target/benchmark/startup;MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+    private static final int ROUNDS = 9;
+
+    @Test
+    void migrationsStartFasterThanSchemaUpdate() {
+        // Banco migrado do zero e populado (limpeza só nesta primeira inicialização)
+        try (ConfigurableApplicationContext context = start("test.flyway.clean=true", "spring.jpa.hibernate.ddl-auto=none")) {
+            UserDataSeeder.seed(context.getBean(JdbcTemplate.class), 1, 10_000);
+        }
+
+        // Aquecimento (JIT e classes carregadas), fora da medida
+        measure("spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=update");
+        measure("test.flyway.clean=false", "spring.jpa.hibernate.ddl-auto=none");
+
+        long[] update = new long[ROUNDS];
+        long[] validate = new long[ROUNDS];
+        long[] none = new long[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            update[round] = measure("spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=update");
+            validate[round] = measure("test.flyway.clean=false", "spring.jpa.hibernate.ddl-auto=validate");
+            none[round] = measure("test.flyway.clean=false", "spring.jpa.hibernate.ddl-auto=none");
+        }
+
+        print("ddl-auto=update (antes)", update);
+        print("Flyway + validate (testes)", validate);
+        print("Flyway + none (produção)", none);
+
+        // No H2 embutido a diferença é pequena perto do ruído; a meta é nunca ficar mais lento que o update
+        assertThat(median(none)).isLessThan(median(update) * 105 / 100);
+    }
+
+    private static long measure(String... properties) {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext ignored = start(properties)) {
+            return System.nanoTime() - start;
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String... properties) {
+        // Argumentos de linha de comando: têm precedência sobre o application.properties de teste
+        // (as propriedades padrão do builder perderiam para ele, e o banco seria o H2 em memória)
+        Stream<String> common = Stream.of("server.port=0",
+                "spring.datasource.url=" + URL,
+                "security.password.strength=4",
+                "search.name-index.enabled=false",
+                "uniqueness.bloom-filter.enabled=false",
+                "logging.level.root=WARN");
+        return new SpringApplicationBuilder(TechchallengeBackendApplication.class)
+                .run(Stream.concat(common, Stream.of(properties)).map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    private static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static void print(String label, long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-28s mediana %6.0f ms | mín %6.0f ms | máx %6.0f ms%n", label,
+                median(samples) / 1e6, sorted[0] / 1e6, sorted[sorted.length - 1] / 1e6);
+    }
+}
@@ -0,0 +1,197 @@
+package com.pos.techchallenge_backend.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compara a inicialização da imagem atual (java -jar app.jar) com a do Dockerfile.fast (contexto processado
+ * pelo Spring AOT, layout explodido e arquivo CDS da execução de treino): tempo até a primeira resposta do
+ * POST /api/v1/login (401 para um login inexistente: a rota, o banco e a segurança já respondem) e RSS do processo.
+ * Usa o jar empacotado com o profile fast-startup (H2 incluso) e monta o mesmo layout do Dockerfile.fast.
+ * Executar com: mvn -Pfast-startup package -DskipTests && mvn test -Pbenchmark -Dtest=StartupTimeBenchmark
+ */
+@Tag("benchmark")
+class StartupTimeBenchmark {
+
+    private static final String MAIN_CLASS = "com.pos.techchallenge_backend.TechchallengeBackendApplication";
+    private static final Path WORK_DIR = Paths.get("target", "benchmark", "startup-fast");
+    private static final int ROUNDS = 5;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+    private final String java = ProcessHandle.current().info().command().orElse("java");
+
+    @Test
+    void aotAndCdsReduceTimeToFirstLogin() throws Exception {
+        Path jar = packagedJar();
+        assumeTrue(jar != null, "Empacote antes com: mvn -Pfast-startup package -DskipTests");
+        prepareFastLayout(jar);
+
+        long[] currentTimes = new long[ROUNDS];
+        long[] currentRss = new long[ROUNDS];
+        long[] fastTimes = new long[ROUNDS];
+        long[] fastRss = new long[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            measure(List.of("-jar", jar.toAbsolutePath().toString()), Paths.get("."), round, currentTimes, currentRss);
+            measure(List.of("-XX:SharedArchiveFile=app.jsa", "-Dspring.aot.enabled=true",
+                    "-cp", "application.jar:lib/*", MAIN_CLASS), WORK_DIR, round, fastTimes, fastRss);
+        }
+
+        print("Imagem atual (java -jar)", currentTimes, currentRss);
+        print("Dockerfile.fast (AOT + CDS)", fastTimes, fastRss);
+
+        assertThat(median(fastTimes)).isLessThan(median(currentTimes));
+    }
+
+    // Mesmos passos do Dockerfile.fast: classes da aplicação em um jar próprio (o CDS não arquiva classes
+    // lidas de diretórios), dependências em lib/ e a execução de treino que grava o app.jsa
+    private void prepareFastLayout(Path jar) throws Exception {
+        if (Files.exists(WORK_DIR)) {
+            try (Stream<Path> files = Files.walk(WORK_DIR)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+        Files.createDirectories(WORK_DIR.resolve("lib"));
+        try (JarFile bootJar = new JarFile(jar.toFile());
+             JarOutputStream application = new JarOutputStream(Files.newOutputStream(WORK_DIR.resolve("application.jar")))) {
+            Enumeration<JarEntry> entries = bootJar.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                if (entry.getName().startsWith("BOOT-INF/lib/") && !entry.isDirectory()) {
+                    try (InputStream in = bootJar.getInputStream(entry)) {
+                        Files.copy(in, WORK_DIR.resolve("lib").resolve(entry.getName().substring("BOOT-INF/lib/".length())));
+                    }
+                } else if (entry.getName().startsWith("BOOT-INF/classes/") && !entry.getName().equals("BOOT-INF/classes/")) {
+                    // Entradas de diretório incluídas: o Flyway localiza db/migration pelo diretório
+                    application.putNextEntry(new JarEntry(entry.getName().substring("BOOT-INF/classes/".length())));
+                    try (InputStream in = bootJar.getInputStream(entry)) {
+                        in.transferTo(application);
+                    }
+                    application.closeEntry();
+                }
+            }
+        }
+
+        List<String> training = new ArrayList<>(List.of(java, "-XX:ArchiveClassesAtExit=app.jsa",
+                "-Dspring.aot.enabled=true", "-Dspring.context.exit=onRefresh",
+                "-cp", "application.jar:lib/*", MAIN_CLASS));
+        training.addAll(applicationArguments("training", 0));
+        Process process = new ProcessBuilder(training).directory(WORK_DIR.toFile())
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).redirectErrorStream(true).start();
+        assertThat(process.waitFor()).isZero();
+        assertThat(WORK_DIR.resolve("app.jsa")).exists();
+    }
+
+    private void measure(List<String> launch, Path directory, int round, long[] times, long[] rss) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(launch);
+        command.addAll(applicationArguments("startup" + round + "_" + port, port));
+
+        HttpRequest login = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"login\": \"inexistente\", \"password\": \"SenhaSegura123\"}"))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).directory(directory.toFile())
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).redirectErrorStream(true).start();
+        try {
+            while (true) {
+                assertThat(process.isAlive()).as("a aplicação encerrou durante a inicialização").isTrue();
+                try {
+                    HttpResponse<Void> response = httpClient.send(login, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() < 500) {
+                        break;
+                    }
+                } catch (ConnectException | HttpConnectTimeoutException e) {
+                    // Servidor ainda não está ouvindo
+                }
+                Thread.sleep(10);
+            }
+            times[round] = System.nanoTime() - start;
+            rss[round] = residentSetKb(process.pid());
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static List<String> applicationArguments(String database, int port) {
+        return List.of("--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--security.password.strength=4",
+                "--logging.level.root=WARN");
+    }
+
+    private static Path packagedJar() throws IOException {
+        try (Stream<Path> files = Files.list(Paths.get("target"))) {
+            Path jar = files.filter(path -> path.getFileName().toString().endsWith(".jar")).findFirst().orElse(null);
+            if (jar == null) {
+                return null;
+            }
+            // O jar precisa ter o contexto processado pelo AOT e o H2 (profile fast-startup)
+            try (JarFile bootJar = new JarFile(jar.toFile())) {
+                boolean aot = bootJar.getEntry("BOOT-INF/classes/com/pos/techchallenge_backend/"
+                        + "TechchallengeBackendApplication__ApplicationContextInitializer.class") != null;
+                boolean h2 = bootJar.stream().anyMatch(entry -> entry.getName().startsWith("BOOT-INF/lib/h2-"));
+                return aot && h2 ? jar : null;
+            }
+        }
+    }
+
+    private static long residentSetKb(long pid) throws IOException {
+        for (String line : Files.readAllLines(Paths.get("/proc", String.valueOf(pid), "status"))) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        return -1;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static void print(String label, long[] times, long[] rss) {
+        System.out.printf("%-30s primeira resposta do login: mediana %5.0f ms | RSS mediano %4d MB%n",
+                label, median(times) / 1e6, median(rss) / 1024);
+    }
+}
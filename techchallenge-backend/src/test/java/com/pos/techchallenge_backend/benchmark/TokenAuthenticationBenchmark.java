@@ -0,0 +1,134 @@
+package com.pos.techchallenge_backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pos.techchallenge_backend.model.dto.AddressRequest;
+import com.pos.techchallenge_backend.model.dto.user.UserRegistrationRequest;
+import com.pos.techchallenge_backend.model.enums.UserType;
+import com.pos.techchallenge_backend.service.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara a vazão (requisições/s) de chamadas HTTP autenticadas por token com a autenticação por
+ * credenciais, em que cada chamada refaz o login (POST /api/v1/login, um BCrypt por requisição).
+ * As requisições passam pelo servidor embarcado e pela cadeia do Spring Security, como as de um cliente real.
+ * Executar com: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TokenAuthenticationBenchmark {
+
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+    private static final long DURATION_MILLIS = 5_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void tokenAuthenticationThroughputVersusCredentials() throws Exception {
+        Long id = registerUser();
+        String credentials = "{\"login\": \"benchmark.token\", \"password\": \"SenhaSegura123\"}";
+        HttpRequest login = HttpRequest.newBuilder(uri("/api/v1/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(credentials))
+                .build();
+        String accessToken = objectMapper.readTree(httpClient.send(login, HttpResponse.BodyHandlers.ofString()).body())
+                .get("accessToken").asText();
+        HttpRequest authenticated = HttpRequest.newBuilder(uri("/api/v1/users/" + id))
+                .header("Authorization", "Bearer " + accessToken)
+                .GET()
+                .build();
+
+        Result credentialOps = throughput(login);
+        Result tokenOps = throughput(authenticated);
+
+        System.out.printf("Autenticação por credenciais: %,.0f req/s, %d falhas (%d threads)%n",
+                credentialOps.perSecond(), credentialOps.failures(), THREADS);
+        System.out.printf("Autenticação por token:       %,.0f req/s, %d falhas (%d threads)%n",
+                tokenOps.perSecond(), tokenOps.failures(), THREADS);
+        System.out.printf("Ganho: %,.0fx%n", tokenOps.perSecond() / credentialOps.perSecond());
+
+        assertThat(tokenOps.failures()).isZero();
+        assertThat(tokenOps.perSecond()).isGreaterThan(credentialOps.perSecond());
+    }
+
+    private Long registerUser() {
+        AddressRequest address = new AddressRequest();
+        address.setStreet("Rua das Flores");
+        address.setNumber("100A");
+        address.setCity("São Paulo");
+        address.setZipCode("01234567");
+
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setName("Benchmark Token");
+        request.setEmail("benchmark.token@teste.com");
+        request.setLogin("benchmark.token");
+        request.setPassword("SenhaSegura123");
+        request.setUserType(UserType.CLIENT);
+        request.setAddress(address);
+        return userService.registerUser(request).getId();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    // Só respostas 200 contam na vazão; as demais (ex.: 503 com o pool de hashing saturado) são falhas
+    private Result throughput(HttpRequest request) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DURATION_MILLIS);
+            AtomicLong failures = new AtomicLong();
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    long count = 0;
+                    while (System.nanoTime() < deadline) {
+                        if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                            count++;
+                        } else {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    return count;
+                }));
+            }
+
+            long total = 0;
+            for (Future<Long> result : results) {
+                total += result.get();
+            }
+            return new Result(total * 1000.0 / DURATION_MILLIS, failures.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private record Result(double perSecond, long failures) {
+    }
+}
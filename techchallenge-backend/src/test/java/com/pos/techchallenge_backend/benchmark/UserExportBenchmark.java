@@ -0,0 +1,103 @@
+package com.pos.techchallenge_backend.benchmark;
+
+import com.pos.techchallenge_backend.service.UserExportService;
+import com.pos.techchallenge_backend.support.UserDataSeeder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Exporta 1 milhão de usuários em NDJSON com o heap limitado e verifica que o heap retido não cresce com a tabela.
+ * Roda em uma JVM própria com -Xmx${benchmark.export.heap} (128 MB, execução export-capped-heap do profile
+ * benchmark): se a exportação acumular as linhas em memória, falha com OutOfMemoryError. Fora dessa JVM
+ * (ex.: pela IDE) o teste é ignorado. Usa um H2 em arquivo (os dados ficam fora do heap) e mede o heap
+ * após GC no meio da exportação.
+ * Executar com: mvn test -Pbenchmark (ou -Pbenchmark -Dbenchmark.export.heap=64m)
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/benchmark/export;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "search.name-index.enabled=false",
+        // A sincronização periódica do filtro leria de uma vez o milhão de linhas da carga (fora do que é medido)
+        "uniqueness.bloom-filter.enabled=false"
+})
+class UserExportBenchmark {
+
+    private static final int USERS = 1_000_000;
+    private static final long MAX_RETAINED_BYTES = 64L * 1024 * 1024;
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void exportsOneMillionUsersWithFlatHeap() {
+        String heapLimit = System.getProperty("benchmark.export.heap");
+        assumeTrue(heapLimit != null, "Executar pelo profile benchmark, na JVM com heap limitado");
+        System.out.printf("Heap máximo: %d MB (-Xmx%s)%n", Runtime.getRuntime().maxMemory() / (1024 * 1024), heapLimit);
+
+        long seedStart = System.nanoTime();
+        UserDataSeeder.seed(jdbcTemplate, 1, USERS);
+        System.out.printf("Carga: %d usuários em %d ms%n", USERS, (System.nanoTime() - seedStart) / 1_000_000);
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+
+        CountingOutputStream output = new CountingOutputStream(memory);
+        long start = System.nanoTime();
+        long exported = userExportService.exportUsers(output);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        long retained = output.heapAtMiddle - baseline;
+        System.out.printf("Exportados: %d usuários, %d MB em %d ms (%.0f linhas/s); heap retido no meio: %d MB%n",
+                exported, output.bytes / (1024 * 1024), millis, exported * 1000.0 / millis, retained / (1024 * 1024));
+
+        assertThat(exported).isEqualTo(USERS);
+        assertThat(retained).isLessThan(MAX_RETAINED_BYTES);
+    }
+
+    // Descarta o conteúdo, conta bytes/linhas e mede o heap (após GC) na metade da exportação
+    private static final class CountingOutputStream extends OutputStream {
+
+        private final MemoryMXBean memory;
+        private long bytes;
+        private long lines;
+        private long heapAtMiddle;
+
+        private CountingOutputStream(MemoryMXBean memory) {
+            this.memory = memory;
+        }
+
+        @Override
+        public void write(int b) {
+            count(b);
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                count(buffer[i]);
+            }
+        }
+
+        private void count(int b) {
+            bytes++;
+            if (b == '\n' && ++lines == USERS / 2) {
+                System.gc();
+                heapAtMiddle = memory.getHeapMemoryUsage().getUsed();
+            }
+        }
+    }
+}
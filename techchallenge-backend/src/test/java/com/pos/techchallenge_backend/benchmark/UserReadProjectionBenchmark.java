@@ -0,0 +1,115 @@
+package com.pos.techchallenge_backend.benchmark;
+
+import com.pos.techchallenge_backend.mapper.UserMapper;
+import com.pos.techchallenge_backend.model.dto.user.UserResponse;
+import com.pos.techchallenge_backend.repository.UserRepository;
+import com.pos.techchallenge_backend.support.UserDataSeeder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara a leitura de páginas de 100 usuários pelos IDs (o que a busca por nome faz a cada página):
+ * entidades (findAllById + mapUserToUserResponse) × projeção (findViewsByIdIn + mapUserViewToUserResponse),
+ * ambas em transação somente leitura. Mede latência por página e bytes alocados por página na thread.
+ * Executar com: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/benchmark/read-projection;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "search.name-index.enabled=false",
+        "uniqueness.bloom-filter.enabled=false"
+})
+class UserReadProjectionBenchmark {
+
+    private static final int USERS = 100_000;
+    private static final int PAGE_SIZE = 100;
+    private static final int WARMUP = 2_000;
+    private static final int SAMPLES = 5_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void projectionReadsAllocateLessThanEntities() {
+        UserDataSeeder.seed(jdbcTemplate, 1, USERS);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Function<List<Long>, List<UserResponse>> entities = ids -> readOnly.execute(status ->
+                userRepository.findAllById(ids).stream().map(userMapper::mapUserToUserResponse).toList());
+        Function<List<Long>, List<UserResponse>> projections = ids -> readOnly.execute(status ->
+                userRepository.findViewsByIdIn(ids).stream().map(userMapper::mapUserViewToUserResponse).toList());
+
+        Result entity = measure(entities);
+        Result projection = measure(projections);
+
+        print("Entidades", entity);
+        print("Projeção", projection);
+
+        assertThat(projection.bytesPerPage()).isLessThan(entity.bytesPerPage());
+    }
+
+    private Result measure(Function<List<Long>, List<UserResponse>> read) {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < WARMUP; i++) {
+            assertThat(read.apply(randomIds(random))).hasSize(PAGE_SIZE);
+        }
+        List<List<Long>> pages = new ArrayList<>(SAMPLES);
+        for (int i = 0; i < SAMPLES; i++) {
+            pages.add(randomIds(random));
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long[] latencies = new long[SAMPLES];
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            read.apply(pages.get(i));
+            latencies[i] = System.nanoTime() - start;
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        Arrays.sort(latencies);
+        return new Result(latencies, allocated / SAMPLES);
+    }
+
+    // IDs distintos, para que toda página tenha exatamente PAGE_SIZE usuários
+    private static List<Long> randomIds(SplittableRandom random) {
+        return random.longs(1, USERS + 1).distinct().limit(PAGE_SIZE).boxed().toList();
+    }
+
+    private static void print(String label, Result result) {
+        System.out.printf("%s: p50 %.3f ms | p99 %.3f ms | %,d bytes alocados por página de %d%n", label,
+                result.percentile(0.50) / 1e6, result.percentile(0.99) / 1e6, result.bytesPerPage(), PAGE_SIZE);
+    }
+
+    private record Result(long[] sortedLatencies, long bytesPerPage) {
+
+        long percentile(double percentile) {
+            return sortedLatencies[(int) Math.round(percentile * (sortedLatencies.length - 1))];
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.pos.techchallenge_backend.cache;
+
+import com.pos.techchallenge_backend.exception.custom.InvalidLoginCredentialsException;
+import com.pos.techchallenge_backend.exception.custom.InvalidTokenException;
+import com.pos.techchallenge_backend.model.dto.AddressRequest;
+import com.pos.techchallenge_backend.model.dto.user.LoginRequest;
+import com.pos.techchallenge_backend.model.dto.user.PasswordUpdateRequest;
+import com.pos.techchallenge_backend.model.dto.user.UserRegistrationRequest;
+import com.pos.techchallenge_backend.model.dto.user.UserUpdateRequest;
+import com.pos.techchallenge_backend.model.enums.UserType;
+import com.pos.techchallenge_backend.repository.UserRepository;
+import com.pos.techchallenge_backend.service.LoginService;
+import com.pos.techchallenge_backend.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifica que o cache de credenciais atende logins repetidos sem ir ao banco e nunca
+ * devolve um registro antigo depois de uma troca de senha, troca de login ou exclusão.
+ */
+@SpringBootTest(properties = "security.password.strength=4")
+class UserCacheTest {
+
+    private static final int READERS = 4;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private LoginService loginService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void repeatedLoginsAreServedFromCache() {
+        userService.registerUser(registration("cache.hit"));
+        loginService.validateLogin(login("cache.hit", "SenhaSegura123"));
+
+        double hitsBefore = hits("users.by-login");
+        loginService.validateLogin(login("cache.hit", "SenhaSegura123"));
+
+        assertThat(hits("users.by-login")).isEqualTo(hitsBefore + 1);
+    }
+
+    @Test
+    void neverServesOldCredentialsAfterWrites() {
+        Long id = userService.registerUser(registration("cache.escrita")).getId();
+        loginService.validateLogin(login("cache.escrita", "SenhaSegura123"));
+
+        // Troca de senha: a senha antiga deixa de valer na hora
+        userService.updatePassword(id, passwordUpdate("SenhaSegura123", "NovaSenhaForte456"));
+        assertThatThrownBy(() -> loginService.validateLogin(login("cache.escrita", "SenhaSegura123")))
+                .isInstanceOf(InvalidLoginCredentialsException.class);
+        assertThat(loginService.validateLogin(login("cache.escrita", "NovaSenhaForte456")).id()).isEqualTo(id);
+
+        // Troca de login: o login antigo deixa de valer na hora
+        UserUpdateRequest update = new UserUpdateRequest();
+        update.setName("Usuário Cache");
+        update.setEmail("cache.escrita@teste.com");
+        update.setLogin("cache.escrita.novo");
+        userService.updateUserData(id, update);
+        assertThatThrownBy(() -> loginService.validateLogin(login("cache.escrita", "NovaSenhaForte456")))
+                .isInstanceOf(InvalidLoginCredentialsException.class);
+        String refreshToken = loginService.login(login("cache.escrita.novo", "NovaSenhaForte456")).getRefreshToken();
+
+        // Exclusão: nem login nem renovação de token
+        userService.deleteUser(id);
+        assertThatThrownBy(() -> loginService.validateLogin(login("cache.escrita.novo", "NovaSenhaForte456")))
+                .isInstanceOf(InvalidLoginCredentialsException.class);
+        assertThatThrownBy(() -> loginService.refresh(refreshToken))
+                .isInstanceOf(InvalidTokenException.class);
+    }
+
+    @Test
+    void concurrentReadersNeverKeepOldHashAfterUpdate() throws Exception {
+        Long id = userService.registerUser(registration("cache.concorrente")).getId();
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService readers = Executors.newFixedThreadPool(READERS);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < READERS; i++) {
+                futures.add(readers.submit(() -> {
+                    while (running.get()) {
+                        userCache.findCredentialsByLogin("cache.concorrente");
+                        userCache.findCredentialsById(id);
+                    }
+                }));
+            }
+
+            String password = "SenhaSegura123";
+            for (int i = 0; i < 20; i++) {
+                String newPassword = "NovaSenhaForte" + i;
+                userService.updatePassword(id, passwordUpdate(password, newPassword));
+                password = newPassword;
+
+                String stored = userRepository.findCredentialsById(id).orElseThrow().password();
+                assertThat(userCache.findCredentialsByLogin("cache.concorrente").orElseThrow().password()).isEqualTo(stored);
+                assertThat(userCache.findCredentialsById(id).orElseThrow().password()).isEqualTo(stored);
+            }
+        } finally {
+            running.set(false);
+            readers.shutdown();
+            readers.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private double hits(String cache) {
+        return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", "hit").functionCounter().count();
+    }
+
+    private static LoginRequest login(String login, String password) {
+        LoginRequest request = new LoginRequest();
+        request.setLogin(login);
+        request.setPassword(password);
+        return request;
+    }
+
+    private static PasswordUpdateRequest passwordUpdate(String currentPassword, String newPassword) {
+        PasswordUpdateRequest request = new PasswordUpdateRequest();
+        request.setCurrentPassword(currentPassword);
+        request.setNewPassword(newPassword);
+        return request;
+    }
+
+    private static UserRegistrationRequest registration(String login) {
+        AddressRequest address = new AddressRequest();
+        address.setStreet("Rua das Flores");
+        address.setNumber("100A");
+        address.setCity("São Paulo");
+        address.setZipCode("01234567");
+
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setName("Usuário Cache");
+        request.setEmail(login + "@teste.com");
+        request.setLogin(login);
+        request.setPassword("SenhaSegura123");
+        request.setUserType(UserType.CLIENT);
+        request.setAddress(address);
+        return request;
+    }
+}
@@ -0,0 +1,205 @@
+package com.pos.techchallenge_backend.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.pos.techchallenge_backend.metrics.SqlStatementCounter;
+import com.pos.techchallenge_backend.metrics.SqlStatementCounts;
+import com.pos.techchallenge_backend.security.TokenService;
+import com.pos.techchallenge_backend.service.UserExportService;
+import com.pos.techchallenge_backend.support.UserDataSeeder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.io.OutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guarda contra regressões de consultas: cada operação do UserController e do LoginController deve
+ * executar exatamente os comandos SQL abaixo (SELECT, INSERT, UPDATE, DELETE), com o cache frio.
+ * Uma consulta a mais (ex.: existsById antes do delete, busca por e-mail antes do save) falha o teste.
+ * A contagem vem do StatementInspector do Hibernate (SqlStatementCounter), então só enxerga o SQL que o
+ * Hibernate prepara na sessão. Ficam de fora: os comandos do JdbcTemplate (ex.: JdbcIdempotencyStore com
+ * idempotency.store=jdbc) e os do gerador de IDs, que o Hibernate executa direto na conexão (SELECT e UPDATE
+ * em id_generator, uma vez a cada 50 IDs). Regressões nesses caminhos não são pegas por este teste.
+ */
+@SpringBootTest(properties = "security.password.strength=4")
+@AutoConfigureMockMvc
+class EndpointQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Test
+    void registration() throws Exception {
+        assertThat(count(post("/api/v1/users").contentType(MediaType.APPLICATION_JSON)
+                .content(registration("contagem.cadastro")), status().isCreated()))
+                .isEqualTo(counts(0, 1, 0, 0));
+    }
+
+    @Test
+    void bulkRegistration() throws Exception {
+        String body = "[" + registration("contagem.lote1") + "," + registration("contagem.lote2") + "]";
+        assertThat(count(post("/api/v1/users/bulk").contentType(MediaType.APPLICATION_JSON).content(body),
+                status().isOk()))
+                .isEqualTo(counts(0, 1, 0, 0));
+    }
+
+    @Test
+    void searchByName() throws Exception {
+        mockMvc.perform(post("/api/v1/users").contentType(MediaType.APPLICATION_JSON)
+                .content(registration("contagem.busca"))).andExpect(status().isCreated());
+
+        assertThat(count(get("/api/v1/users").param("name", "contagem.busca"), status().isOk()))
+                .isEqualTo(counts(1, 0, 0, 0));
+        // Termo curto demais: recusado antes de qualquer consulta
+        assertThat(count(get("/api/v1/users").param("name", "co"), status().isBadRequest()))
+                .isEqualTo(counts(0, 0, 0, 0));
+    }
+
+    @Test
+    void findByIdAndRevalidation() throws Exception {
+        UserDataSeeder.seed(jdbcTemplate, 850_001, 1);
+
+        assertThat(count(get("/api/v1/users/850001"), status().isOk()))
+                .isEqualTo(counts(1, 0, 0, 0));
+        assertThat(count(get("/api/v1/users/850001").header(HttpHeaders.IF_NONE_MATCH, "\"850001.0\""),
+                status().isNotModified()))
+                .isEqualTo(counts(1, 0, 0, 0));
+    }
+
+    @Test
+    void batchLookup() throws Exception {
+        UserDataSeeder.seed(jdbcTemplate, 850_011, 3);
+
+        assertThat(count(get("/api/v1/users/batch").param("ids", "850011,850012,850013,850099"), status().isOk()))
+                .isEqualTo(counts(1, 0, 0, 0));
+    }
+
+    @Test
+    void filteredSearch() throws Exception {
+        UserDataSeeder.seed(jdbcTemplate, 850_101, 20);
+
+        // IDs pelo índice composto + usuários da página pela chave primária
+        assertThat(count(get("/api/v1/users/filter").param("userType", "RESTAURANT_OWNER").param("city", "São Paulo"),
+                status().isOk()))
+                .isEqualTo(counts(2, 0, 0, 0));
+    }
+
+    @Test
+    void export() {
+        // O corpo da exportação é escrito fora da thread da requisição: a contagem é feita no serviço
+        sqlStatementCounter.begin();
+        userExportService.exportUsers(OutputStream.nullOutputStream());
+        assertThat(sqlStatementCounter.endCounts()).isEqualTo(counts(1, 0, 0, 0));
+    }
+
+    @Test
+    void dataUpdate() throws Exception {
+        UserDataSeeder.seed(jdbcTemplate, 850_021, 1);
+
+        assertThat(count(put("/api/v1/users/850021/data").contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"850021.0\"")
+                .content("""
+                        {"name": "Nome Novo", "email": "novo850021@teste.com", "login": "novo.850021",
+                         "address": {"street": "Rua Nova", "number": "1", "city": "Recife", "zipCode": "01234567"}}
+                        """), status().isOk()))
+                // Projeção atual (login antigo e versão) e o UPDATE condicional; a resposta não relê o usuário
+                .isEqualTo(counts(1, 0, 1, 0));
+    }
+
+    @Test
+    void passwordUpdate() throws Exception {
+        UserDataSeeder.seed(jdbcTemplate, 850_031, 1);
+
+        assertThat(count(put("/api/v1/users/850031/password").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"currentPassword\": \"" + UserDataSeeder.PASSWORD + "\", \"newPassword\": \"NovaSenha456\"}"),
+                status().isNoContent()))
+                .isEqualTo(counts(1, 0, 1, 0));
+    }
+
+    @Test
+    void deletion() throws Exception {
+        UserDataSeeder.seed(jdbcTemplate, 850_041, 1);
+
+        assertThat(count(delete("/api/v1/users/850041"), status().isNoContent()))
+                .isEqualTo(counts(0, 0, 0, 1));
+    }
+
+    @Test
+    void bulkDeletion() throws Exception {
+        UserDataSeeder.seed(jdbcTemplate, 850_051, 3);
+        // O token é validado só pelo HMAC: a autenticação não acrescenta consultas
+        String accessToken = tokenService.issueTokens(850_051L, "usuario.850051", UserDataSeeder.PASSWORD_HASH).accessToken();
+
+        assertThat(count(post("/api/v1/users/bulk-delete").contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .content("[850051, 850052, 850053, 850099]"), status().isOk()))
+                .isEqualTo(counts(1, 0, 0, 1));
+    }
+
+    @Test
+    void loginAndRefresh() throws Exception {
+        UserDataSeeder.seed(jdbcTemplate, 850_061, 1);
+        String login = "{\"login\": \"usuario.850061\", \"password\": \"" + UserDataSeeder.PASSWORD + "\"}";
+
+        sqlStatementCounter.begin();
+        MvcResult result = mockMvc.perform(post("/api/v1/login").contentType(MediaType.APPLICATION_JSON).content(login))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(sqlStatementCounter.endCounts()).isEqualTo(counts(1, 0, 0, 0));
+
+        String refreshToken = JsonPath.read(result.getResponse().getContentAsString(), "$.refreshToken");
+        assertThat(count(post("/api/v1/login/refresh").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\": \"" + refreshToken + "\"}"), status().isOk()))
+                .isEqualTo(counts(1, 0, 0, 0));
+    }
+
+    // Comandos SQL executados pela requisição inteira (filtros, controller, serviço e tratamento de erros)
+    private SqlStatementCounts count(RequestBuilder request, ResultMatcher expectedStatus) throws Exception {
+        sqlStatementCounter.begin();
+        try {
+            mockMvc.perform(request).andExpect(expectedStatus);
+        } catch (Exception | AssertionError e) {
+            sqlStatementCounter.endCounts();
+            throw e;
+        }
+        return sqlStatementCounter.endCounts();
+    }
+
+    private static SqlStatementCounts counts(int selects, int inserts, int updates, int deletes) {
+        return new SqlStatementCounts(selects, inserts, updates, deletes, 0);
+    }
+
+    private static String registration(String login) {
+        return """
+                {"name": "%s", "email": "%s@teste.com", "login": "%s", "password": "SenhaSegura123",
+                 "userType": "CLIENT", "address": {"street": "Rua A", "number": "1", "city": "Recife", "zipCode": "01234567"}}
+                """.formatted(login, login, login);
+    }
+}
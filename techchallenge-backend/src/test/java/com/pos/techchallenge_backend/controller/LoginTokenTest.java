@@ -0,0 +1,110 @@
+package com.pos.techchallenge_backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pos.techchallenge_backend.model.dto.AddressRequest;
+import com.pos.techchallenge_backend.model.dto.user.PasswordUpdateRequest;
+import com.pos.techchallenge_backend.model.dto.user.UserRegistrationRequest;
+import com.pos.techchallenge_backend.model.enums.UserType;
+import com.pos.techchallenge_backend.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Ciclo de vida dos tokens: o login e a renovação ignoram um token de acesso vencido no cabeçalho,
+ * e a troca de senha revoga os refresh tokens emitidos antes dela.
+ */
+@SpringBootTest(properties = "security.password.strength=4")
+@AutoConfigureMockMvc
+class LoginTokenTest {
+
+    private static final String PASSWORD = "SenhaSegura123";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void loginAndRefreshIgnoreStaleBearerHeader() throws Exception {
+        userService.registerUser(registration("token.vencido"));
+        String stale = "Bearer token.expirado";
+
+        MvcResult login = mockMvc.perform(post("/api/v1/login").header(HttpHeaders.AUTHORIZATION, stale)
+                        .contentType(MediaType.APPLICATION_JSON).content(credentials("token.vencido", PASSWORD)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        mockMvc.perform(post("/api/v1/login/refresh").header(HttpHeaders.AUTHORIZATION, stale)
+                        .contentType(MediaType.APPLICATION_JSON).content(refresh(tokens(login).get("refreshToken").asText())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").isNotEmpty());
+    }
+
+    @Test
+    void passwordChangeRevokesRefreshTokens() throws Exception {
+        Long id = userService.registerUser(registration("token.revogado")).getId();
+        String refreshToken = tokens(mockMvc.perform(post("/api/v1/login").contentType(MediaType.APPLICATION_JSON)
+                        .content(credentials("token.revogado", PASSWORD)))
+                .andReturn()).get("refreshToken").asText();
+
+        PasswordUpdateRequest update = new PasswordUpdateRequest();
+        update.setCurrentPassword(PASSWORD);
+        update.setNewPassword("SenhaNova456");
+        userService.updatePassword(id, update);
+
+        mockMvc.perform(post("/api/v1/login/refresh").contentType(MediaType.APPLICATION_JSON).content(refresh(refreshToken)))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.detail").value("Token revogado: a senha foi alterada."));
+
+        // Um novo login com a senha nova volta a emitir refresh tokens válidos
+        String renewed = tokens(mockMvc.perform(post("/api/v1/login").contentType(MediaType.APPLICATION_JSON)
+                        .content(credentials("token.revogado", "SenhaNova456")))
+                .andReturn()).get("refreshToken").asText();
+        mockMvc.perform(post("/api/v1/login/refresh").contentType(MediaType.APPLICATION_JSON).content(refresh(renewed)))
+                .andExpect(status().isOk());
+    }
+
+    private JsonNode tokens(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private static String credentials(String login, String password) {
+        return "{\"login\": \"" + login + "\", \"password\": \"" + password + "\"}";
+    }
+
+    private static String refresh(String refreshToken) {
+        return "{\"refreshToken\": \"" + refreshToken + "\"}";
+    }
+
+    private static UserRegistrationRequest registration(String login) {
+        AddressRequest address = new AddressRequest();
+        address.setStreet("Rua das Flores");
+        address.setNumber("100A");
+        address.setCity("São Paulo");
+        address.setZipCode("01234567");
+
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setName("Usuário Token");
+        request.setEmail(login + "@teste.com");
+        request.setLogin(login);
+        request.setPassword(PASSWORD);
+        request.setUserType(UserType.CLIENT);
+        request.setAddress(address);
+        return request;
+    }
+}
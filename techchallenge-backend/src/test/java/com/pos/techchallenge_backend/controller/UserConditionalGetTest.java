@@ -0,0 +1,124 @@
+package com.pos.techchallenge_backend.controller;
+
+import com.pos.techchallenge_backend.mapper.UserMapper;
+import com.pos.techchallenge_backend.model.dto.user.UserUpdateRequest;
+import com.pos.techchallenge_backend.repository.projection.UserView;
+import com.pos.techchallenge_backend.service.UserService;
+import com.pos.techchallenge_backend.support.UserDataSeeder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifica os GETs condicionais: com o ETag atual em If-None-Match a resposta é 304 sem corpo,
+ * sem mapear nem serializar o usuário e, com a versão em cache, sem consultar o banco.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class UserConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @SpyBean
+    private UserMapper userMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void matchingETagIsAnsweredWith304WithoutMappingOrDatabase() throws Exception {
+        UserDataSeeder.seed(jdbcTemplate, 840_001, 1);
+
+        String etag = mockMvc.perform(get("/api/v1/users/840001"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"840001.0\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Primeira revalidação: carrega a versão no cache
+        mockMvc.perform(get("/api/v1/users/840001").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        clearInvocations(userMapper);
+
+        mockMvc.perform(get("/api/v1/users/840001").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(content().string(""));
+
+        verify(userMapper, never()).mapUserViewToUserResponse(any(UserView.class));
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void writeChangesTheETagAndTheOldOneNoLongerMatches() throws Exception {
+        UserDataSeeder.seed(jdbcTemplate, 850_001, 1);
+        String etag = "\"850001.0\"";
+        mockMvc.perform(get("/api/v1/users/850001").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        UserUpdateRequest update = new UserUpdateRequest();
+        update.setName("Nome Alterado");
+        update.setEmail("usuario850001@seed.com");
+        update.setLogin("usuario.850001");
+        userService.updateUserData(850_001L, update);
+
+        mockMvc.perform(get("/api/v1/users/850001").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"850001.1\""));
+    }
+
+    @Test
+    void batchETagCoversEveryRequestedId() throws Exception {
+        UserDataSeeder.seed(jdbcTemplate, 860_001, 2);
+
+        String etag = mockMvc.perform(get("/api/v1/users/batch").param("ids", "860002,860001,869999"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        clearInvocations(userMapper);
+        mockMvc.perform(get("/api/v1/users/batch").param("ids", "860002,860001,869999")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(userMapper, never()).mapUserViewToUserResponse(any(UserView.class));
+
+        // Outra ordem é outra representação
+        mockMvc.perform(get("/api/v1/users/batch").param("ids", "860001,860002,869999")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+
+        userService.deleteUser(860_001L);
+        mockMvc.perform(get("/api/v1/users/batch").param("ids", "860002,860001,869999")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+}
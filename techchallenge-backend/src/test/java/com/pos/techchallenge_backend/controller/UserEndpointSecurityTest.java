@@ -0,0 +1,102 @@
+package com.pos.techchallenge_backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pos.techchallenge_backend.model.dto.AddressRequest;
+import com.pos.techchallenge_backend.model.dto.user.UserRegistrationRequest;
+import com.pos.techchallenge_backend.model.enums.UserType;
+import com.pos.techchallenge_backend.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Rotas que expõem ou apagam dados de todos os usuários exigem o token de acesso do login:
+ * sem ele a resposta é 401 (ProblemDetail), antes de qualquer acesso ao banco.
+ */
+@SpringBootTest(properties = "security.password.strength=4")
+@AutoConfigureMockMvc
+class UserEndpointSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportRequiresAccessToken() throws Exception {
+        mockMvc.perform(get("/api/v1/users/export"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, "Bearer"))
+                .andExpect(jsonPath("$.type").value("/problem-details/authentication-required"));
+
+        MvcResult started = mockMvc.perform(get("/api/v1/users/export")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken("seguranca.exportacao")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void bulkDeleteRequiresAccessToken() throws Exception {
+        Long id = userService.registerUser(registration("seguranca.excluido")).getId();
+
+        mockMvc.perform(post("/api/v1/users/bulk-delete").contentType(MediaType.APPLICATION_JSON).content("[" + id + "]"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.type").value("/problem-details/authentication-required"));
+        mockMvc.perform(post("/api/v1/users/bulk-delete").contentType(MediaType.APPLICATION_JSON).content("[" + id + "]")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer invalido.token"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.type").value("/problem-details/invalid-token"));
+        assertThat(userService.findUserVersion(id)).isPresent();
+
+        mockMvc.perform(post("/api/v1/users/bulk-delete").contentType(MediaType.APPLICATION_JSON).content("[" + id + "]")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken("seguranca.operador")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(1));
+    }
+
+    private String accessToken(String login) throws Exception {
+        userService.registerUser(registration(login));
+        MvcResult result = mockMvc.perform(post("/api/v1/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"login\": \"" + login + "\", \"password\": \"SenhaSegura123\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+
+    private static UserRegistrationRequest registration(String login) {
+        AddressRequest address = new AddressRequest();
+        address.setStreet("Rua das Flores");
+        address.setNumber("100A");
+        address.setCity("São Paulo");
+        address.setZipCode("01234567");
+
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setName("Usuário Segurança");
+        request.setEmail(login + "@teste.com");
+        request.setLogin(login);
+        request.setPassword("SenhaSegura123");
+        request.setUserType(UserType.CLIENT);
+        request.setAddress(address);
+        return request;
+    }
+}
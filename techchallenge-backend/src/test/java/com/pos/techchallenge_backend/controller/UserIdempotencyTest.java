@@ -0,0 +1,108 @@
+package com.pos.techchallenge_backend.controller;
+
+import com.pos.techchallenge_backend.metrics.SqlStatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Cadastro com Idempotency-Key: a repetição recebe o mesmo 201 sem BCrypt nem SQL, a chave não pode
+ * ser reutilizada com outro corpo e uma falha libera a chave para a próxima tentativa.
+ */
+@SpringBootTest(properties = "security.password.strength=4")
+@AutoConfigureMockMvc
+class UserIdempotencyTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void retryReplaysTheFirstResponseWithoutRegisteringAgain() throws Exception {
+        MvcResult first = mockMvc.perform(post("/api/v1/users").contentType(MediaType.APPLICATION_JSON)
+                        .header("Idempotency-Key", "cadastro-1").content(registration("idempotente.um")))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "false"))
+                .andReturn();
+        long hashesBefore = hashCount();
+
+        sqlStatementCounter.begin();
+        MvcResult retry = mockMvc.perform(post("/api/v1/users").contentType(MediaType.APPLICATION_JSON)
+                        .header("Idempotency-Key", "cadastro-1").content(registration("idempotente.um")))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andReturn();
+        assertThat(sqlStatementCounter.end()).isZero();
+
+        assertThat(retry.getResponse().getContentAsString()).isEqualTo(first.getResponse().getContentAsString());
+        assertThat(retry.getResponse().getHeader("ETag")).isEqualTo(first.getResponse().getHeader("ETag"));
+        assertThat(hashCount()).isEqualTo(hashesBefore);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from users where login = 'idempotente.um'", Integer.class))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void keyCannotBeReusedWithAnotherBody() throws Exception {
+        mockMvc.perform(post("/api/v1/users").contentType(MediaType.APPLICATION_JSON)
+                        .header("Idempotency-Key", "cadastro-2").content(registration("idempotente.dois")))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/v1/users").contentType(MediaType.APPLICATION_JSON)
+                        .header("Idempotency-Key", "cadastro-2").content(registration("idempotente.outro")))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.type").value("/idempotency-key-reused"));
+    }
+
+    @Test
+    void failedRequestReleasesTheKey() throws Exception {
+        mockMvc.perform(post("/api/v1/users").contentType(MediaType.APPLICATION_JSON)
+                        .content(registration("idempotente.tres")))
+                .andExpect(status().isCreated());
+
+        // O e-mail já existe: 409 sem gravar resposta; a mesma chave volta a executar (e falha de novo)
+        String duplicate = registration("idempotente.tres").replace("\"login\": \"idempotente.tres\"",
+                "\"login\": \"idempotente.tres.b\"");
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/api/v1/users").contentType(MediaType.APPLICATION_JSON)
+                            .header("Idempotency-Key", "cadastro-3").content(duplicate))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.type").value("/email-already-exists"));
+        }
+
+        mockMvc.perform(post("/api/v1/users").contentType(MediaType.APPLICATION_JSON)
+                        .header("Idempotency-Key", " ").content(registration("idempotente.quatro")))
+                .andExpect(status().isBadRequest());
+    }
+
+    private long hashCount() {
+        return meterRegistry.find("password.hashing.duration").timers().stream().mapToLong(Timer::count).sum();
+    }
+
+    private static String registration(String login) {
+        return """
+                {"name": "Usuário Idempotente", "email": "%s@teste.com", "login": "%s", "password": "SenhaSegura123",
+                 "userType": "CLIENT", "address": {"street": "Rua A", "number": "1", "city": "Recife", "zipCode": "01234567"}}
+                """.formatted(login, login);
+    }
+}
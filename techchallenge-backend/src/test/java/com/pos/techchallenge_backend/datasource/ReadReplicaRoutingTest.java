@@ -0,0 +1,156 @@
+package com.pos.techchallenge_backend.datasource;
+
+import com.pos.techchallenge_backend.model.dto.AddressRequest;
+import com.pos.techchallenge_backend.model.dto.user.UserUpdateRequest;
+import com.pos.techchallenge_backend.service.UserService;
+import com.pos.techchallenge_backend.support.UserDataSeeder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Roteamento entre primário e réplica com dois bancos H2 em memória: a "réplica" não recebe as escritas,
+ * como uma réplica atrasada, então o nome lido mostra de onde veio a leitura.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadReplicaRoutingTest.PRIMARY_URL,
+        "datasource.replica.urls=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "datasource.replica.read-your-writes-window=1s",
+        "datasource.replica.health-check-interval-ms=3600000"
+})
+class ReadReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final DataSource replica = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway flyway = Flyway.configure().dataSource(replica).cleanDisabled(false).load();
+        flyway.clean();
+        flyway.migrate();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        seedOnBoth(870_001L);
+
+        assertThat(userService.findUserById(870_001L).getName()).isEqualTo("Nome na Réplica");
+        assertThat(userService.findUsersByIds(List.of(870_001L)).getItems().get(0).getName())
+                .isEqualTo("Nome na Réplica");
+    }
+
+    @Test
+    void ownWritesAreReadFromThePrimaryDuringTheWindow() throws InterruptedException {
+        seedOnBoth(870_011L);
+        seedOnBoth(870_012L);
+
+        // A escrita vai para o primário; a réplica (atrasada) segue com o nome antigo
+        userService.updateUserData(870_011L, update("usuario.870011", "Nome Atualizado"));
+
+        assertThat(userService.findUserById(870_011L).getName()).isEqualTo("Nome Atualizado");
+        assertThat(userService.findUserById(870_012L).getName()).isEqualTo("Nome na Réplica");
+
+        Thread.sleep(1_200);
+        assertThat(userService.findUserById(870_011L).getName()).isEqualTo("Nome na Réplica");
+    }
+
+    @Test
+    void failingReplicaFallsBackToThePrimaryUntilItRecovers() throws Exception {
+        FlakyDataSource flakyReplica = new FlakyDataSource(replica);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+                new DriverManagerDataSource(PRIMARY_URL, "sa", ""), Map.of("replica-0", flakyReplica), 1, meterRegistry);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            assertThat(databaseOf(routing)).isEqualTo("routing_replica");
+
+            flakyReplica.down = true;
+            assertThat(databaseOf(routing)).isEqualTo("routing_primary");
+            assertThat(meterRegistry.get("datasource.replica.healthy").gauge().value()).isZero();
+            assertThat(meterRegistry.get("datasource.replica.fallbacks").counter().count()).isEqualTo(1);
+
+            // Fora do rodízio, a réplica nem é tentada até a verificação de saúde passar
+            assertThat(databaseOf(routing)).isEqualTo("routing_primary");
+            assertThat(meterRegistry.get("datasource.replica.fallbacks").counter().count()).isEqualTo(1);
+
+            flakyReplica.down = false;
+            routing.checkReplicas();
+            assertThat(databaseOf(routing)).isEqualTo("routing_replica");
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+
+        // Fora de transação readOnly, sempre o primário
+        assertThat(databaseOf(routing)).isEqualTo("routing_primary");
+    }
+
+    private void seedOnBoth(long id) {
+        UserDataSeeder.seed(jdbcTemplate, id, 1);
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        UserDataSeeder.seed(replicaJdbc, id, 1);
+        replicaJdbc.update("update users set name = 'Nome na Réplica' where id = ?", id);
+    }
+
+    private static String databaseOf(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getCatalog();
+        }
+    }
+
+    private static UserUpdateRequest update(String login, String name) {
+        AddressRequest address = new AddressRequest();
+        address.setStreet("Rua das Flores");
+        address.setNumber("100A");
+        address.setCity("São Paulo");
+        address.setZipCode("01234567");
+
+        UserUpdateRequest request = new UserUpdateRequest();
+        request.setName(name);
+        request.setEmail(login + "@teste.com");
+        request.setLogin(login);
+        request.setAddress(address);
+        return request;
+    }
+
+    private static final class FlakyDataSource extends DelegatingDataSource {
+
+        private volatile boolean down;
+
+        private FlakyDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("réplica fora do ar");
+            }
+            return super.getConnection();
+        }
+    }
+}
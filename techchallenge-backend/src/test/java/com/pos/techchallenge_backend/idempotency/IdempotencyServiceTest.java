@@ -0,0 +1,149 @@
+package com.pos.techchallenge_backend.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pos.techchallenge_backend.exception.custom.IdempotencyKeyInProgressException;
+import com.pos.techchallenge_backend.idempotency.IdempotencyService.IdempotentResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Repetições concorrentes com a mesma chave esperam a requisição em andamento, nas duas implementações
+ * do IdempotencyStore. No banco, dois stores fazem o papel de duas instâncias da aplicação.
+ */
+@SpringBootTest
+class IdempotencyServiceTest {
+
+    private static final Map<String, String> REQUEST = Map.of("login", "concorrente");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void concurrentDuplicateWaitsInMemory() throws Exception {
+        MemoryIdempotencyStore store = new MemoryIdempotencyStore(Duration.ofHours(1), 1_000);
+        assertConcurrentDuplicateRunsOnce(service(store, Duration.ofSeconds(10)), service(store, Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void concurrentDuplicateOnAnotherInstanceWaitsOnTheDatabase() throws Exception {
+        assertConcurrentDuplicateRunsOnce(service(jdbcStore(), Duration.ofSeconds(10)),
+                service(jdbcStore(), Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void duplicateGivesUpWhenTheOriginalTakesTooLong() throws Exception {
+        MemoryIdempotencyStore store = new MemoryIdempotencyStore(Duration.ofHours(1), 1_000);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<IdempotentResult<String>> original = CompletableFuture.supplyAsync(() ->
+                service(store, Duration.ofSeconds(10)).execute("teste", "lenta", REQUEST, String.class, () -> {
+                    await(release);
+                    return "ok";
+                }));
+        waitUntilClaimed(store, "teste:lenta");
+
+        assertThatThrownBy(() -> service(store, Duration.ofMillis(100))
+                .execute("teste", "lenta", REQUEST, String.class, () -> "duplicada"))
+                .isInstanceOf(IdempotencyKeyInProgressException.class);
+
+        release.countDown();
+        assertThat(original.get(5, TimeUnit.SECONDS).body()).isEqualTo("ok");
+    }
+
+    @Test
+    void expiredInFlightClaimOnTheDatabaseCanBeTakenOver() {
+        JdbcIdempotencyStore crashed = new JdbcIdempotencyStore(jdbcTemplate, Duration.ofHours(1), Duration.ofMillis(-1),
+                Duration.ofMillis(10));
+        assertThat(crashed.tryClaim("teste:abandonada", "impressao")).isTrue();
+
+        // A reserva já venceu (instância que caiu no meio da requisição): outra instância executa
+        IdempotentResult<String> result = service(jdbcStore(), Duration.ofSeconds(1))
+                .execute("teste", "abandonada", REQUEST, String.class, () -> "executada");
+        assertThat(result.body()).isEqualTo("executada");
+        assertThat(result.replayed()).isFalse();
+    }
+
+    @Test
+    void sharedStoreRequiresTheTokenSecret() {
+        assertThatThrownBy(() -> new IdempotencyService(jdbcStore(), objectMapper, new SimpleMeterRegistry(), " ",
+                Duration.ofSeconds(10)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("idempotency.store=jdbc");
+
+        // Em memória (uma instância), um segredo aleatório basta
+        MemoryIdempotencyStore store = new MemoryIdempotencyStore(Duration.ofHours(1), 1_000);
+        assertThat(new IdempotencyService(store, objectMapper, new SimpleMeterRegistry(), "", Duration.ofSeconds(10))
+                .execute("teste", "sem-segredo", REQUEST, String.class, () -> "ok").body()).isEqualTo("ok");
+    }
+
+    private void assertConcurrentDuplicateRunsOnce(IdempotencyService first, IdempotencyService second) throws Exception {
+        String key = "chave-" + System.nanoTime();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<IdempotentResult<String>> original = CompletableFuture.supplyAsync(() ->
+                first.execute("teste", key, REQUEST, String.class, () -> {
+                    executions.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return "resposta";
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<IdempotentResult<String>> duplicate = CompletableFuture.supplyAsync(() ->
+                second.execute("teste", key, REQUEST, String.class, () -> {
+                    executions.incrementAndGet();
+                    return "executada de novo";
+                }));
+        Thread.sleep(200);
+        assertThat(duplicate).isNotDone();
+
+        release.countDown();
+        List<IdempotentResult<String>> results = List.of(original.get(5, TimeUnit.SECONDS), duplicate.get(5, TimeUnit.SECONDS));
+
+        assertThat(executions).hasValue(1);
+        assertThat(results).extracting(IdempotentResult::body).containsOnly("resposta");
+        assertThat(results).extracting(IdempotentResult::replayed).containsExactly(false, true);
+    }
+
+    private IdempotencyService service(IdempotencyStore store, Duration waitTimeout) {
+        return new IdempotencyService(store, objectMapper, new SimpleMeterRegistry(),
+                "segredo-de-teste-com-pelo-menos-32-bytes", waitTimeout);
+    }
+
+    private JdbcIdempotencyStore jdbcStore() {
+        return new JdbcIdempotencyStore(jdbcTemplate, Duration.ofHours(1), Duration.ofSeconds(60), Duration.ofMillis(10));
+    }
+
+    private static void waitUntilClaimed(IdempotencyStore store, String key) throws InterruptedException {
+        while (store.tryClaim(key, "sonda")) {
+            store.release(key);
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
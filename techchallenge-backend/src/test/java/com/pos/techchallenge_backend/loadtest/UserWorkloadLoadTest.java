@@ -0,0 +1,297 @@
+package com.pos.techchallenge_backend.loadtest;
+
+import com.pos.techchallenge_backend.repository.UserIdGeneratorAligner;
+import com.pos.techchallenge_backend.search.UserNameSearchIndex;
+import com.pos.techchallenge_backend.support.UserDataSeeder;
+import com.pos.techchallenge_backend.uniqueness.UserUniquenessFilter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Teste de carga ponta a ponta: sobe a aplicação com H2 em modo MySQL, insere loadtest.users usuários
+ * e dispara uma carga mista (cadastro, login, busca por nome, atualização e exclusão) com
+ * loadtest.threads clientes HTTP na própria JVM, em modelo fechado (cada cliente envia a próxima
+ * requisição ao receber a resposta). Falha se o p99 de alguma operação passar do limite, se a
+ * vazão ficar abaixo do mínimo ou se a taxa de erros passar do máximo configurado.
+ * As metas padrão são o piso de uma máquina de 1 núcleo (cliente, servidor e banco dividem a CPU); em
+ * máquinas maiores, suba loadtest.threads e as metas. Com mais clientes do que o pool de hashing comporta,
+ * cadastros e logins recebem 503 (fila de hashing cheia) e contam como erro.
+ * Roda offline. Executar com: mvn test -Ploadtest [-Dloadtest.users=1000000 -Dloadtest.duration=2m]
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=${loadtest.threads:4}",
+        // Mesmo custo do hash dos usuários inseridos pelo UserDataSeeder (evita o rehash no login)
+        "security.password.strength=4",
+        "logging.level.root=WARN"
+})
+class UserWorkloadLoadTest {
+
+    // Operações da carga mista e o status HTTP esperado de cada uma
+    enum Operation {
+        REGISTER(201), LOGIN(200), SEARCH(200), UPDATE(200), DELETE(204);
+
+        final int expectedStatus;
+
+        Operation(int expectedStatus) {
+            this.expectedStatus = expectedStatus;
+        }
+    }
+
+    private static final String[] SEARCH_TERMS = {"Ana", "Maria", "João", "José", "Pedro", "Paulo", "Lucas", "Juliana"};
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserIdGeneratorAligner userIdGeneratorAligner;
+
+    @Autowired
+    private UserNameSearchIndex userNameSearchIndex;
+
+    @Autowired
+    private UserUniquenessFilter userUniquenessFilter;
+
+    @Value("${loadtest.users:100000}")
+    private int users;
+
+    @Value("${loadtest.threads:4}")
+    private int threads;
+
+    @Value("${loadtest.warmup:10s}")
+    private Duration warmup;
+
+    @Value("${loadtest.duration:30s}")
+    private Duration duration;
+
+    // Pesos da carga mista (porcentagem aproximada de cada operação)
+    @Value("${loadtest.mix.register:10}")
+    private int registerWeight;
+
+    @Value("${loadtest.mix.login:30}")
+    private int loginWeight;
+
+    @Value("${loadtest.mix.search:40}")
+    private int searchWeight;
+
+    @Value("${loadtest.mix.update:15}")
+    private int updateWeight;
+
+    @Value("${loadtest.mix.delete:5}")
+    private int deleteWeight;
+
+    @Value("${loadtest.slo.p99:250ms}")
+    private Duration maxP99;
+
+    @Value("${loadtest.slo.min-throughput:50}")
+    private double minThroughput;
+
+    @Value("${loadtest.slo.max-error-rate:0.001}")
+    private double maxErrorRate;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    // Exclusões consomem IDs do fim da base; logins e atualizações sorteiam apenas na primeira metade
+    private final AtomicLong nextDeletedId = new AtomicLong();
+    private final AtomicLong registrations = new AtomicLong();
+
+    @Test
+    void mixedWorkloadMeetsLatencyAndThroughputTargets() throws Exception {
+        UserDataSeeder.seed(jdbcTemplate, 1, users);
+        // Os usuários entraram direto via JDBC: realinha o gerador de IDs e recarrega as estruturas em memória
+        userIdGeneratorAligner.align();
+        userNameSearchIndex.load();
+        userUniquenessFilter.load();
+        nextDeletedId.set(users);
+
+        run(warmup, 1);
+        Map<Operation, Samples> samples = run(duration, 2);
+
+        long total = 0;
+        long errors = 0;
+        long worstP99 = 0;
+        System.out.printf("%n%-9s %9s %8s %10s %10s %10s%n", "Operação", "Reqs", "Erros", "p50 (ms)", "p99 (ms)", "máx (ms)");
+        for (Operation operation : Operation.values()) {
+            Samples result = samples.get(operation);
+            long[] latencies = result.sorted();
+            total += latencies.length;
+            errors += result.errors;
+            if (latencies.length == 0) {
+                continue;
+            }
+            long p99 = percentile(latencies, 0.99);
+            worstP99 = Math.max(worstP99, p99);
+            System.out.printf("%-9s %9d %8d %10.2f %10.2f %10.2f%n", operation, latencies.length, result.errors,
+                    percentile(latencies, 0.50) / 1e6, p99 / 1e6, latencies[latencies.length - 1] / 1e6);
+        }
+        double throughput = total / (duration.toNanos() / 1e9);
+        double errorRate = total == 0 ? 1 : (double) errors / total;
+        System.out.printf("%d usuários, %d clientes: %.0f req/s, pior p99 %.2f ms, erros %.3f%%%n%n",
+                users, threads, throughput, worstP99 / 1e6, errorRate * 100);
+
+        assertThat(errorRate).as("taxa de erros").isLessThanOrEqualTo(maxErrorRate);
+        assertThat(throughput).as("vazão (req/s)").isGreaterThanOrEqualTo(minThroughput);
+        for (Operation operation : Operation.values()) {
+            long[] latencies = samples.get(operation).sorted();
+            if (latencies.length > 0) {
+                assertThat(Duration.ofNanos(percentile(latencies, 0.99))).as("p99 de " + operation)
+                        .isLessThanOrEqualTo(maxP99);
+            }
+        }
+    }
+
+    // Executa a carga por "length" com todos os clientes e junta as amostras de cada um
+    private Map<Operation, Samples> run(Duration length, long seed) throws Exception {
+        long deadline = System.nanoTime() + length.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Map<Operation, Samples>>> clients = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                SplittableRandom random = new SplittableRandom(seed * 1_000 + i);
+                clients.add(executor.submit(() -> client(deadline, random)));
+            }
+            Map<Operation, Samples> merged = emptySamples();
+            for (Future<Map<Operation, Samples>> client : clients) {
+                client.get().forEach((operation, samples) -> merged.get(operation).addAll(samples));
+            }
+            return merged;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Map<Operation, Samples> client(long deadline, SplittableRandom random) throws Exception {
+        Map<Operation, Samples> samples = emptySamples();
+        int totalWeight = registerWeight + loginWeight + searchWeight + updateWeight + deleteWeight;
+        while (System.nanoTime() < deadline) {
+            Operation operation = pick(random.nextInt(totalWeight));
+            HttpRequest request = request(operation, random);
+            if (request == null) {
+                continue;
+            }
+            long start = System.nanoTime();
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            long latency = System.nanoTime() - start;
+            samples.get(operation).add(latency, response.statusCode() != operation.expectedStatus);
+        }
+        return samples;
+    }
+
+    private Operation pick(int value) {
+        if ((value -= registerWeight) < 0) return Operation.REGISTER;
+        if ((value -= loginWeight) < 0) return Operation.LOGIN;
+        if ((value -= searchWeight) < 0) return Operation.SEARCH;
+        if ((value -= updateWeight) < 0) return Operation.UPDATE;
+        return Operation.DELETE;
+    }
+
+    private HttpRequest request(Operation operation, SplittableRandom random) {
+        String baseUrl = "http://localhost:" + port + "/api/v1";
+        long id = random.nextLong(1, users / 2 + 1);
+        return switch (operation) {
+            case REGISTER -> {
+                long n = registrations.incrementAndGet();
+                yield post(baseUrl + "/users", """
+                        {"name":"Carga %d","email":"carga%d@teste.com","login":"carga.%d","password":"%s",
+                         "userType":"CLIENT","address":{"street":"Rua A","number":"1","city":"Recife","zipCode":"01234567"}}
+                        """.formatted(n, n, n, UserDataSeeder.PASSWORD));
+            }
+            case LOGIN -> post(baseUrl + "/login",
+                    "{\"login\":\"usuario.%d\",\"password\":\"%s\"}".formatted(id, UserDataSeeder.PASSWORD));
+            case SEARCH -> HttpRequest.newBuilder(URI.create(baseUrl + "/users?size=20&name="
+                    + URLEncoder.encode(SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)], StandardCharsets.UTF_8)))
+                    .GET().build();
+            case UPDATE -> HttpRequest.newBuilder(URI.create(baseUrl + "/users/" + id + "/data"))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString("""
+                            {"name":"Usuário %d %d","email":"usuario%d@seed.com","login":"usuario.%d",
+                             "address":{"street":"Rua B","number":"2","city":"Curitiba","zipCode":"76543210"}}
+                            """.formatted(id, random.nextInt(1_000), id, id)))
+                    .build();
+            case DELETE -> {
+                long deleted = nextDeletedId.getAndDecrement();
+                yield deleted > users / 2 ? HttpRequest.newBuilder(URI.create(baseUrl + "/users/" + deleted))
+                        .DELETE().build() : null;
+            }
+        };
+    }
+
+    private static HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static Map<Operation, Samples> emptySamples() {
+        Map<Operation, Samples> samples = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            samples.put(operation, new Samples());
+        }
+        return samples;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    // Latências (ns) de uma operação; cada cliente tem as suas, unidas ao fim da rodada
+    private static final class Samples {
+
+        private long[] latencies = new long[1_024];
+        private int size;
+        private long errors;
+
+        void add(long latency, boolean error) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latency;
+            if (error) {
+                errors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.latencies[i], false);
+            }
+            errors += other.errors;
+        }
+
+        long[] sorted() {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.pos.techchallenge_backend.metrics;
+
+import com.pos.techchallenge_backend.support.UserDataSeeder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifica que o endpoint Prometheus expõe as métricas dos caminhos de usuário e login:
+ * latência por endpoint e por método de serviço, tempo de banco e de BCrypt, pool de conexões,
+ * estatísticas do Hibernate, comandos SQL por requisição e resultado dos logins.
+ */
+@SpringBootTest(properties = {
+        "security.password.strength=4",
+        "management.endpoints.web.exposure.include=prometheus",
+        "management.metrics.distribution.percentiles-histogram.http.server.requests=true",
+        "management.metrics.distribution.percentiles-histogram.service.invocations=true",
+        "management.observations.enable.spring.security=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class PrometheusMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void userAndLoginHotPathsAreExposed() throws Exception {
+        UserDataSeeder.seed(jdbcTemplate, 870_001, 1);
+
+        mockMvc.perform(get("/api/v1/users/870001")).andExpect(status().isOk());
+        mockMvc.perform(post("/api/v1/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"login\": \"usuario.870001\", \"password\": \"" + UserDataSeeder.PASSWORD + "\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/v1/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"login\": \"usuario.870001\", \"password\": \"SenhaErrada1\"}"));
+
+        String metrics = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(metrics)
+                .contains("http_server_requests_seconds_bucket{")
+                .containsPattern("service_invocations_seconds_bucket\\{[^}]*class=\"[^\"]*UserService\"[^}]*method=\"findUserById\"")
+                .contains("spring_data_repository_invocations_seconds")
+                .contains("password_hashing_duration_seconds")
+                .contains("hikaricp_connections_active")
+                .contains("hibernate_query_executions_total")
+                .contains("hibernate_entities_loads_total")
+                .contains("hibernate_flushes_total")
+                .containsPattern("login_attempts_total\\{[^}]*result=\"success\"[^}]*} 1\\.0")
+                .containsPattern("login_attempts_total\\{[^}]*result=\"wrong_password\"[^}]*} 1\\.0")
+                // GET /{id}: um único SELECT da projeção
+                .containsPattern("http_server_requests_sql_statements_sum\\{[^}]*method=\"GET\"[^}]*uri=\"/api/v1/users/\\{id}\"[^}]*} 1\\.0");
+    }
+}
@@ -0,0 +1,101 @@
+package com.pos.techchallenge_backend.repository;
+
+import com.pos.techchallenge_backend.TechchallengeBackendApplication;
+import com.pos.techchallenge_backend.exception.custom.EmailAlreadyExistsException;
+import com.pos.techchallenge_backend.model.dto.AddressRequest;
+import com.pos.techchallenge_backend.model.dto.user.UserRegistrationRequest;
+import com.pos.techchallenge_backend.model.dto.user.UserResponse;
+import com.pos.techchallenge_backend.model.dto.user.UserUpdateRequest;
+import com.pos.techchallenge_backend.model.enums.UserType;
+import com.pos.techchallenge_backend.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Atualização de um banco criado pelo antigo ddl-auto=update (sem histórico do Flyway): o esquema da V1
+ * com usuários gravados por AUTO_INCREMENT é registrado como baseline e recebe as migrações seguintes.
+ * A aplicação sobe com o Hibernate em 'validate', lê os usuários antigos (versão 0), gera IDs acima
+ * dos existentes e reconhece a violação do e-mail pela constraint renomeada.
+ */
+class UserBaselineMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:baseline_upgrade;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void databaseCreatedByDdlAutoUpdateIsMigratedInPlace() throws Exception {
+        JdbcTemplate legacy = new JdbcTemplate(new DriverManagerDataSource(URL, "sa", ""));
+        try (Connection connection = legacy.getDataSource().getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V1__create_users.sql"));
+        }
+        for (String login : List.of("antigo.um", "antigo.dois", "antigo.tres")) {
+            legacy.update("insert into users (user_type, name, email, login, password, city, zip_code) "
+                    + "values ('CLIENT', 'Usuário Antigo', ?, ?, '$2a$10$hash', 'Recife', '01234567')", login + "@teste.com", login);
+        }
+        Long maxLegacyId = legacy.queryForObject("select max(id) from users", Long.class);
+
+        // Argumentos de linha de comando: têm precedência sobre o application.properties de teste
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TechchallengeBackendApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + URL,
+                        "--test.flyway.clean=false",
+                        "--spring.flyway.baseline-on-migrate=true",
+                        "--spring.flyway.baseline-version=1",
+                        "--security.password.strength=4",
+                        "--logging.level.root=WARN")) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            UserService userService = context.getBean(UserService.class);
+
+            // A V1 não roda: o banco existente é registrado nela (BASELINE) e só as seguintes são aplicadas
+            assertThat(jdbcTemplate.queryForList("select \"type\" || ' ' || \"version\" from \"flyway_schema_history\" "
+                    + "where \"version\" is not null order by \"installed_rank\"", String.class))
+                    .containsExactly("BASELINE 1", "SQL 1.1", "SQL 2", "SQL 3", "SQL 4", "SQL 5");
+
+            Long legacyId = jdbcTemplate.queryForObject("select id from users where login = 'antigo.um'", Long.class);
+            assertThat(userService.findUserById(legacyId).getVersion()).isZero();
+
+            UserResponse created = userService.registerUser(registration("novo"));
+            assertThat(created.getId()).isGreaterThan(maxLegacyId);
+
+            UserUpdateRequest update = new UserUpdateRequest();
+            update.setName("Usuário Novo");
+            update.setEmail("antigo.dois@teste.com");
+            update.setLogin("novo");
+            assertThatThrownBy(() -> userService.updateUserData(created.getId(), update))
+                    .isInstanceOf(EmailAlreadyExistsException.class);
+
+            assertThat(jdbcTemplate.queryForList("select constraint_name from information_schema.table_constraints "
+                    + "where table_name = 'users' and constraint_type = 'UNIQUE' order by constraint_name", String.class))
+                    .containsExactly("uk_users_email", "uk_users_login");
+            assertThat(jdbcTemplate.queryForObject("select is_identity from information_schema.columns "
+                    + "where table_name = 'users' and column_name = 'id'", String.class)).isEqualTo("NO");
+        }
+    }
+
+    private static UserRegistrationRequest registration(String login) {
+        AddressRequest address = new AddressRequest();
+        address.setStreet("Rua das Flores");
+        address.setNumber("100A");
+        address.setCity("São Paulo");
+        address.setZipCode("01234567");
+
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setName("Usuário Novo");
+        request.setEmail(login + "@teste.com");
+        request.setLogin(login);
+        request.setPassword("SenhaSegura123");
+        request.setUserType(UserType.CLIENT);
+        request.setAddress(address);
+        return request;
+    }
+}
@@ -0,0 +1,192 @@
+package com.pos.techchallenge_backend.repository;
+
+import com.pos.techchallenge_backend.exception.custom.InvalidFilterException;
+import com.pos.techchallenge_backend.metrics.SqlStatementCounter;
+import com.pos.techchallenge_backend.model.dto.AddressRequest;
+import com.pos.techchallenge_backend.model.dto.PageResponse;
+import com.pos.techchallenge_backend.model.dto.user.UserRegistrationRequest;
+import com.pos.techchallenge_backend.model.dto.user.UserResponse;
+import com.pos.techchallenge_backend.model.enums.UserType;
+import com.pos.techchallenge_backend.service.UserService;
+import com.pos.techchallenge_backend.support.UserDataSeeder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifica que cada combinação de filtros da busca filtrada usa o seu índice composto (migrações V3 e V5),
+ * sem varrer a tabela, e que a paginação por chave devolve exatamente os usuários filtrados.
+ * Os planos são do SQL que o Hibernate gera para a consulta da Criteria API, capturado pelo StatementInspector.
+ */
+@SpringBootTest
+class UserFilterQueryPlanTest {
+
+    private static final long FIRST_ID = 880_001;
+    private static final int COUNT = 2_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CapturingSqlStatementCounter sqlCapture;
+
+    @BeforeEach
+    void seed() {
+        if (!userRepository.existsById(FIRST_ID)) {
+            UserDataSeeder.seed(jdbcTemplate, FIRST_ID, COUNT);
+            jdbcTemplate.execute("analyze");
+        }
+    }
+
+    @Test
+    void typeAndCityUseTheTypeCityIndex() {
+        UserFilter filter = UserFilter.of(UserType.RESTAURANT_OWNER, "São Paulo", "01");
+        assertThat(plan(filter, null, "RESTAURANT_OWNER", "São Paulo", "01%", 0L, 21))
+                .contains("idx_users_type_city_id_zip").doesNotContain("tablescan");
+    }
+
+    @Test
+    void singleFiltersUseTheirOwnIndexes() {
+        assertThat(plan(UserFilter.of(UserType.RESTAURANT_OWNER, null, null), null, "RESTAURANT_OWNER", 0L, 21))
+                .contains("idx_users_type_id_zip").doesNotContain("tablescan");
+        assertThat(plan(UserFilter.of(null, "Recife", "5"), null, "Recife", "5%", 0L, 21))
+                .contains("idx_users_city_id_zip").doesNotContain("tablescan");
+    }
+
+    @Test
+    void zipPrefixOnlyWalksTheZipCodeIdIndexInOrder() {
+        UserFilterCursor after = new UserFilterCursor("01200000", 5);
+        String plan = plan(UserFilter.of(null, null, "0"), after, "0%", "01200000", "01200000", 5L, 21);
+
+        // A ordem (zip_code, id) é a do índice: a página não depende de ordenar todo o intervalo do prefixo
+        assertThat(plan).contains("idx_users_zip_code_id").contains("index sorted").doesNotContain("tablescan");
+    }
+
+    @Test
+    void pagesReturnExactlyTheFilteredUsersInIdOrder() {
+        UserFilter filter = UserFilter.of(UserType.RESTAURANT_OWNER, "São Paulo", null);
+        List<Long> expected = jdbcTemplate.queryForList(
+                "select id from users where user_type = 'RESTAURANT_OWNER' and city = 'São Paulo' and id >= ? order by id",
+                Long.class, FIRST_ID);
+        assertThat(expected).isNotEmpty();
+
+        List<Long> found = new ArrayList<>();
+        String cursor = null;
+        do {
+            PageResponse<UserResponse> page = userService.findUsersByFilter(filter, cursor, 7);
+            page.getItems().forEach(user -> {
+                assertThat(user.getUserType()).isEqualTo(UserType.RESTAURANT_OWNER);
+                assertThat(user.getAddress().getCity()).isEqualTo("São Paulo");
+                found.add(user.getId());
+            });
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(found.stream().filter(id -> id >= FIRST_ID).toList()).isEqualTo(expected);
+    }
+
+    @Test
+    void zipPrefixPagesFollowZipCodeThenId() {
+        UserFilter filter = UserFilter.of(null, null, "6");
+        List<Long> expected = jdbcTemplate.queryForList(
+                "select id from users where zip_code like '6%' order by zip_code, id", Long.class);
+        assertThat(expected).hasSizeGreaterThan(20);
+
+        List<Long> found = new ArrayList<>();
+        String cursor = null;
+        do {
+            PageResponse<UserResponse> page = userService.findUsersByFilter(filter, cursor, 7);
+            page.getItems().forEach(user -> found.add(user.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(found).isEqualTo(expected);
+    }
+
+    @Test
+    void zipPrefixMatchesTheStartOfTheZipCode() {
+        String zipCode = jdbcTemplate.queryForObject("select zip_code from users where id = ?", String.class, FIRST_ID);
+
+        List<Long> ids = userRepository.findKeysByFilter(
+                        UserFilter.of(null, null, zipCode.substring(0, 5) + "-" + zipCode.substring(5)), null, 100)
+                .stream().map(UserFilterCursor::id).toList();
+        assertThat(ids).contains(FIRST_ID);
+
+        // CEP informado com hífen no cadastro é gravado só com os dígitos e encontrado pelo prefixo
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setName("Usuário CEP");
+        request.setEmail("usuario.cep@teste.com");
+        request.setLogin("usuario.cep");
+        request.setPassword("SenhaSegura123");
+        request.setUserType(UserType.CLIENT);
+        AddressRequest address = new AddressRequest();
+        address.setStreet("Av. Paulista");
+        address.setNumber("900");
+        address.setCity("São Paulo");
+        address.setZipCode("01310-100");
+        request.setAddress(address);
+        Long id = userService.registerUser(request).getId();
+
+        assertThat(userService.findUserById(id).getAddress().getZipCode()).isEqualTo("01310100");
+        assertThat(userRepository.findKeysByFilter(UserFilter.of(null, null, "01310-1"), null, 100))
+                .extracting(UserFilterCursor::id).contains(id);
+        assertThatThrownBy(() -> UserFilter.of(null, null, "01%")).isInstanceOf(InvalidFilterException.class);
+    }
+
+    // SQL gerado pela Criteria API (capturado pelo StatementInspector), explicado com os valores na ordem dos "?"
+    private String plan(UserFilter filter, UserFilterCursor after, Object... parameters) {
+        sqlCapture.statements.set(new ArrayList<>());
+        try {
+            userRepository.findKeysByFilter(filter, after, 21);
+            List<String> statements = sqlCapture.statements.get();
+            assertThat(statements).hasSize(1);
+            return jdbcTemplate.queryForObject("explain " + statements.get(0), String.class, parameters)
+                    .toLowerCase(Locale.ROOT);
+        } finally {
+            sqlCapture.statements.remove();
+        }
+    }
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+
+        // Substitui o StatementInspector registrado no Hibernate (MetricsConfig) mantendo a contagem
+        @Bean
+        @Primary
+        CapturingSqlStatementCounter capturingSqlStatementCounter() {
+            return new CapturingSqlStatementCounter();
+        }
+    }
+
+    static class CapturingSqlStatementCounter extends SqlStatementCounter {
+
+        private final ThreadLocal<List<String>> statements = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            List<String> captured = statements.get();
+            if (captured != null) {
+                captured.add(sql);
+            }
+            return super.inspect(sql);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.pos.techchallenge_backend.repository;
+
+import com.pos.techchallenge_backend.repository.projection.LoginCredentials;
+import com.pos.techchallenge_backend.support.UserDataSeeder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que a busca por login usa o índice único uk_users_login (sem varrer a tabela)
+ * e que a validação do login lê apenas ID, login e hash.
+ */
+@SpringBootTest
+class UserLoginQueryPlanTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void loginLookupUsesUniqueIndex() {
+        String plan = jdbcTemplate.queryForObject(
+                "explain select u1_0.id, u1_0.login, u1_0.password from users u1_0 where u1_0.login = 'usuario.1'",
+                String.class).toLowerCase(Locale.ROOT);
+
+        assertThat(plan).contains(UserConstraints.UNIQUE_LOGIN).doesNotContain("tablescan");
+    }
+
+    @Test
+    void findsCredentialsByLogin() {
+        UserDataSeeder.seed(jdbcTemplate, 800_001, 2);
+
+        LoginCredentials credentials = userRepository.findCredentialsByLogin("usuario.800002").orElseThrow();
+
+        assertThat(credentials.id()).isEqualTo(800_002L);
+        assertThat(credentials.password()).isEqualTo(UserDataSeeder.PASSWORD_HASH);
+        assertThat(userRepository.findCredentialsByLogin("usuario.inexistente")).isEmpty();
+    }
+}
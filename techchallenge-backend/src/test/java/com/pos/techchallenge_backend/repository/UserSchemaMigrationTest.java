@@ -0,0 +1,39 @@
+package com.pos.techchallenge_backend.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que o esquema vem das migrações do Flyway (o Hibernate apenas o valida) e que a
+ * sincronização incremental por last_update_date usa o índice, sem varrer a tabela.
+ */
+@SpringBootTest
+class UserSchemaMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void schemaIsOwnedByMigrations() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "select \"version\" from \"flyway_schema_history\" where \"type\" = 'SQL' and \"success\" order by \"installed_rank\"", String.class);
+
+        assertThat(versions).containsExactly("1", "1.1", "2", "3", "4", "5");
+    }
+
+    @Test
+    void incrementalSyncUsesLastUpdateDateIndex() {
+        String plan = jdbcTemplate.queryForObject(
+                "explain select u1_0.id, u1_0.name from users u1_0 where u1_0.last_update_date > timestamp '2025-01-01 00:00:00'",
+                String.class).toLowerCase(Locale.ROOT);
+
+        assertThat(plan).contains("idx_users_last_update_date").doesNotContain("tablescan");
+    }
+}
@@ -0,0 +1,104 @@
+package com.pos.techchallenge_backend.search;
+
+import com.pos.techchallenge_backend.exception.custom.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NameSearchIndexTest {
+
+    private final NameSearchIndex index = new NameSearchIndex();
+
+    @Test
+    void findsInfixPrefixAndWordMatchesRankedByRelevance() {
+        index.put(1, "Ana Maria Silva");
+        index.put(2, "Mariana Souza");
+        index.put(3, "Maria");
+        index.put(4, "Rosemaria Lima");
+        index.put(5, "João Pereira");
+
+        assertThat(index.search("maria", 10))
+                .extracting(NameSearchIndex.Match::id)
+                .containsExactly(3L, 2L, 1L, 4L);
+        assertThat(index.search("maria", 10))
+                .extracting(NameSearchIndex.Match::rank)
+                .containsExactly(NameSearchIndex.RANK_EXACT, NameSearchIndex.RANK_PREFIX,
+                        NameSearchIndex.RANK_WORD_PREFIX, NameSearchIndex.RANK_INFIX);
+    }
+
+    @Test
+    void ignoresCaseAndAccents() {
+        index.put(1, "João Conceição");
+
+        assertThat(index.search("JOAO", 10)).extracting(NameSearchIndex.Match::id).containsExactly(1L);
+        assertThat(index.search("conceicao", 10)).extracting(NameSearchIndex.Match::id).containsExactly(1L);
+        assertThat(index.search("ção", 10)).extracting(NameSearchIndex.Match::id).containsExactly(1L);
+    }
+
+    @Test
+    void rejectsCandidatesWhoseTrigramsAreNotContiguous() {
+        // Contém os trigramas "abc" e "bcd", mas não o trecho "abcd"
+        index.put(1, "abc xbcd");
+
+        assertThat(index.search("abcd", 10)).isEmpty();
+    }
+
+    @Test
+    void shortTermsAreNotScannedAndLimitIsApplied() {
+        index.put(1, "Ana");
+        index.put(2, "Bruna");
+        index.put(3, "Carlos");
+
+        // Sem trigramas: nada de varrer todos os nomes
+        assertThat(index.search("a", 10)).isEmpty();
+        assertThat(index.search(" na ", 10)).isEmpty();
+        assertThat(index.search("ana", 1)).extracting(NameSearchIndex.Match::id).containsExactly(1L);
+        assertThat(index.search("UNA", 10)).extracting(NameSearchIndex.Match::id).containsExactly(2L);
+    }
+
+    @Test
+    void updatesAndRemovalsAreReflected() {
+        index.put(1, "Pedro Alves");
+        index.put(1, "Paulo Alves");
+        index.put(2, "Pedro Costa");
+        index.remove(2);
+
+        assertThat(index.search("pedro", 10)).isEmpty();
+        assertThat(index.search("paulo", 10)).extracting(NameSearchIndex.Match::id).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void keysetPagesWalkTheWholeResultWithoutRepeats() {
+        for (int id = 1; id <= 25; id++) {
+            index.put(id, id % 5 == 0 ? "Silva" : "Ana Silva " + id);
+        }
+
+        List<Long> seen = new ArrayList<>();
+        NameSearchIndex.Match after = null;
+        List<NameSearchIndex.Match> page;
+        do {
+            page = index.search("silva", after, 7);
+            page.forEach(match -> seen.add(match.id()));
+            after = page.isEmpty() ? null : page.get(page.size() - 1);
+        } while (page.size() == 7);
+
+        assertThat(seen).hasSize(25).doesNotHaveDuplicates();
+        // Os nomes exatos ("Silva") vêm antes dos demais
+        assertThat(seen.subList(0, 5)).containsExactly(5L, 10L, 15L, 20L, 25L);
+    }
+
+    @Test
+    void cursorRoundTripsAndRejectsGarbage() {
+        SearchCursor cursor = new SearchCursor(NameSearchIndex.RANK_PREFIX, 101L);
+
+        assertThat(SearchCursor.decode(cursor.encode())).isEqualTo(cursor);
+        assertThat(SearchCursor.decode(null)).isNull();
+        assertThatThrownBy(() -> SearchCursor.decode("não-é-cursor"))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+}
@@ -0,0 +1,146 @@
+package com.pos.techchallenge_backend.security;
+
+import com.pos.techchallenge_backend.model.dto.AddressRequest;
+import com.pos.techchallenge_backend.model.dto.user.UserRegistrationRequest;
+import com.pos.techchallenge_backend.model.enums.UserType;
+import com.pos.techchallenge_backend.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que uma rajada de logins não degrada os endpoints baratos: com o pool de hashing no tamanho
+ * padrão saturado (fila cheia, logins recusados com 503 e repetidos após o Retry-After, como faria um
+ * cliente), a mediana da busca por nome (GET /api/v1/users?name=) fica a um múltiplo pequeno da mediana
+ * com o servidor ocioso. Com mais de um núcleo o pool deixa CPU livre e o limite é 1,5x; com um único
+ * núcleo a thread do BCrypt divide a CPU com a busca, e o limite é 2,5x.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "security.password.strength=12",
+        "security.hashing.queue-capacity=2"
+})
+class HashingSaturationLatencyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(HashingSaturationLatencyTest.class);
+
+    private static final String PASSWORD = "SenhaSegura123";
+    private static final int LOGIN_CLIENTS = 8;
+    private static final int SEARCHES = 30;
+    private static final double MAX_SLOWDOWN = Runtime.getRuntime().availableProcessors() > 1 ? 1.5 : 2.5;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void nameSearchKeepsItsLatencyWhileTheHashingPoolIsSaturated() throws Exception {
+        userService.registerUser(registration("saturacao.login"));
+        HttpRequest search = HttpRequest.newBuilder(uri("/api/v1/users?name=Saturação")).GET().build();
+        HttpRequest login = HttpRequest.newBuilder(uri("/api/v1/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"login\": \"saturacao.login\", \"password\": \"" + PASSWORD + "\"}"))
+                .build();
+
+        medianMillis(search); // aquecimento
+        double idle = medianMillis(search);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(LOGIN_CLIENTS);
+        double saturated;
+        try {
+            for (int i = 0; i < LOGIN_CLIENTS; i++) {
+                clients.submit(() -> {
+                    while (running.get()) {
+                        HttpResponse<Void> response = httpClient.send(login, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() == 503) {
+                            rejected.incrementAndGet();
+                            long retryAfter = response.headers().firstValueAsLong(HttpHeaders.RETRY_AFTER).orElse(1);
+                            Thread.sleep(TimeUnit.SECONDS.toMillis(retryAfter));
+                        }
+                    }
+                    return null;
+                });
+            }
+            waitForRejection(rejected);
+            saturated = medianMillis(search);
+        } finally {
+            running.set(false);
+            clients.shutdown();
+            assertThat(clients.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+
+        double hashMillis = meterRegistry.get("password.hashing.duration").tag("operation", "matches").timer()
+                .mean(TimeUnit.MILLISECONDS);
+        log.info("Busca por nome (p50): ociosa {} ms | pool de hashing saturado {} ms | BCrypt {} ms | logins recusados {}",
+                String.format("%.1f", idle), String.format("%.1f", saturated), String.format("%.1f", hashMillis), rejected.get());
+
+        assertThat(rejected.get()).isPositive();
+        assertThat(saturated).isLessThan(idle * MAX_SLOWDOWN);
+    }
+
+    private void waitForRejection(AtomicInteger rejected) throws InterruptedException {
+        for (int i = 0; i < 300 && rejected.get() == 0; i++) {
+            Thread.sleep(100);
+        }
+    }
+
+    private double medianMillis(HttpRequest request) throws Exception {
+        long[] latencies = new long[SEARCHES];
+        for (int i = 0; i < SEARCHES; i++) {
+            long start = System.nanoTime();
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            latencies[i] = System.nanoTime() - start;
+            assertThat(response.statusCode()).isEqualTo(200);
+        }
+        Arrays.sort(latencies);
+        return latencies[SEARCHES / 2] / 1e6;
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static UserRegistrationRequest registration(String login) {
+        AddressRequest address = new AddressRequest();
+        address.setStreet("Rua das Flores");
+        address.setNumber("100A");
+        address.setCity("São Paulo");
+        address.setZipCode("01234567");
+
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setName("Usuário Saturação");
+        request.setEmail(login + "@teste.com");
+        request.setLogin(login);
+        request.setPassword(PASSWORD);
+        request.setUserType(UserType.CLIENT);
+        request.setAddress(address);
+        return request;
+    }
+}
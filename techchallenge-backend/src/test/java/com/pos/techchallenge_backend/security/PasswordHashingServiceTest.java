@@ -0,0 +1,80 @@
+package com.pos.techchallenge_backend.security;
+
+import com.pos.techchallenge_backend.exception.custom.HashingCapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingServiceTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Encoder que fica bloqueado até o teste liberar, simulando um BCrypt lento
+    private final PasswordEncoder blockingEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    };
+
+    private final PasswordHashingService service = new PasswordHashingService(
+            blockingEncoder, meterRegistry, 1, 1, Duration.ofSeconds(5), Duration.ofSeconds(2));
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void rejectsImmediatelyWhenQueueIsFull() throws Exception {
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> service.encode("primeira"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> service.encode("segunda"));
+        waitForQueueSize(1);
+
+        assertThatThrownBy(() -> service.encode("terceira"))
+                .isInstanceOf(HashingCapacityExceededException.class)
+                .extracting(ex -> ((HashingCapacityExceededException) ex).getRetryAfterSeconds())
+                .isEqualTo(2L);
+        assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1.0);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash:primeira");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash:segunda");
+        assertThat(meterRegistry.get("password.hashing.duration").tag("operation", "encode").timer().count())
+                .isEqualTo(2);
+    }
+
+    private void waitForQueueSize(int expected) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            if (meterRegistry.get("password.hashing.queue.size").gauge().value() == expected) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Fila de hashing não atingiu o tamanho esperado.");
+    }
+}
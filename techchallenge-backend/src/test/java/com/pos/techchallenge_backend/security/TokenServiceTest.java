@@ -0,0 +1,124 @@
+package com.pos.techchallenge_backend.security;
+
+import com.pos.techchallenge_backend.exception.custom.InvalidTokenException;
+import com.pos.techchallenge_backend.security.TokenClaims.TokenType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenServiceTest {
+
+    private static final String SECRET = "segredo-de-teste-com-pelo-menos-32-bytes";
+    private static final Instant NOW = Instant.parse("2025-11-03T21:00:00Z");
+    private static final String HASH = "$2a$10$hashDaSenhaAtual";
+
+    private TokenService tokenService(Clock clock) {
+        return new TokenService(SECRET, Duration.ofMinutes(15), Duration.ofDays(7), 100, clock);
+    }
+
+    @Test
+    void issuedAccessTokenIsVerifiedWithItsClaims() {
+        TokenService tokenService = tokenService(Clock.fixed(NOW, ZoneOffset.UTC));
+
+        TokenService.IssuedTokens tokens = tokenService.issueTokens(101L, "joao|cliente", HASH);
+        TokenClaims claims = tokenService.verify(tokens.accessToken(), TokenType.ACCESS);
+
+        assertThat(claims.userId()).isEqualTo(101L);
+        assertThat(claims.login()).isEqualTo("joao|cliente");
+        assertThat(claims.expiresAt()).isEqualTo(NOW.plus(Duration.ofMinutes(15)));
+        assertThat(tokens.expiresIn()).isEqualTo(900);
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        TokenService tokenService = tokenService(Clock.fixed(NOW, ZoneOffset.UTC));
+        String token = tokenService.issueTokens(101L, "joao.cliente", HASH).accessToken();
+
+        String forgedPayload = java.util.Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("ACCESS|1|9999999999|admin".getBytes());
+        String forged = forgedPayload + token.substring(token.indexOf('.'));
+
+        assertThatThrownBy(() -> tokenService.verify(forged, TokenType.ACCESS))
+                .isInstanceOf(InvalidTokenException.class);
+        assertThatThrownBy(() -> tokenService.verify("sem-assinatura", TokenType.ACCESS))
+                .isInstanceOf(InvalidTokenException.class);
+    }
+
+    @Test
+    void tokenSignedWithAnotherSecretIsRejected() {
+        Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+        TokenService other = new TokenService("outro-segredo-com-pelo-menos-32-bytes!!",
+                Duration.ofMinutes(15), Duration.ofDays(7), 100, clock);
+        String token = other.issueTokens(101L, "joao.cliente", HASH).accessToken();
+
+        assertThatThrownBy(() -> tokenService(clock).verify(token, TokenType.ACCESS))
+                .isInstanceOf(InvalidTokenException.class);
+    }
+
+    @Test
+    void refreshTokenIsNotAcceptedAsAccessToken() {
+        TokenService tokenService = tokenService(Clock.fixed(NOW, ZoneOffset.UTC));
+        TokenService.IssuedTokens tokens = tokenService.issueTokens(101L, "joao.cliente", HASH);
+
+        assertThatThrownBy(() -> tokenService.verify(tokens.refreshToken(), TokenType.ACCESS))
+                .isInstanceOf(InvalidTokenException.class);
+        assertThat(tokenService.verify(tokens.refreshToken(), TokenType.REFRESH).userId()).isEqualTo(101L);
+    }
+
+    @Test
+    void tokenIsBoundToThePasswordHashItWasIssuedFor() {
+        TokenService tokenService = tokenService(Clock.fixed(NOW, ZoneOffset.UTC));
+        TokenService.IssuedTokens tokens = tokenService.issueTokens(101L, "joao.cliente", HASH);
+        TokenClaims claims = tokenService.verify(tokens.refreshToken(), TokenType.REFRESH);
+
+        assertThat(tokenService.isIssuedFor(claims, HASH)).isTrue();
+        assertThat(tokenService.isIssuedFor(claims, "$2a$10$hashDaSenhaNova")).isFalse();
+        // O token carrega só um resumo com HMAC do hash, nunca o próprio hash
+        assertThat(new String(java.util.Base64.getUrlDecoder().decode(
+                tokens.refreshToken().substring(0, tokens.refreshToken().indexOf('.'))))).doesNotContain(HASH);
+    }
+
+    @Test
+    void expiredTokenIsRejectedEvenWhenCached() {
+        MutableClock clock = new MutableClock(NOW);
+        TokenService tokenService = tokenService(clock);
+        String token = tokenService.issueTokens(101L, "joao.cliente", HASH).accessToken();
+        tokenService.verify(token, TokenType.ACCESS);
+
+        clock.now = NOW.plus(Duration.ofMinutes(16));
+
+        assertThatThrownBy(() -> tokenService.verify(token, TokenType.ACCESS))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Token expirado.");
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
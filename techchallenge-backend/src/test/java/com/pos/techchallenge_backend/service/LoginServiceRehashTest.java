@@ -0,0 +1,53 @@
+package com.pos.techchallenge_backend.service;
+
+import com.pos.techchallenge_backend.model.dto.user.LoginRequest;
+import com.pos.techchallenge_backend.model.entity.Client;
+import com.pos.techchallenge_backend.model.entity.User;
+import com.pos.techchallenge_backend.repository.UserRepository;
+import com.pos.techchallenge_backend.security.BCryptCalibration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class LoginServiceRehashTest {
+
+    @Autowired
+    private LoginService loginService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BCryptCalibration calibration;
+
+    @Test
+    void loginUpgradesHashGeneratedWithLowerCost() {
+        User user = Client.builder()
+                .name("Usuário Rehash")
+                .email("rehash@teste.com")
+                .login("usuario.rehash")
+                .password(new BCryptPasswordEncoder(4).encode("SenhaSegura123"))
+                .lastUpdateDate(LocalDateTime.now())
+                .build();
+        Long id = userRepository.save(user).getId();
+
+        LoginRequest request = new LoginRequest();
+        request.setLogin("usuario.rehash");
+        request.setPassword("SenhaSegura123");
+        // Os tokens desse login são vinculados ao hash novo: a renovação não os trata como revogados
+        String refreshToken = loginService.login(request).getRefreshToken();
+
+        String storedHash = userRepository.findById(id).orElseThrow().getPassword();
+        assertThat(storedHash).startsWith(String.format("$2a$%02d$", calibration.strength()));
+
+        // O novo hash continua válido para a mesma senha
+        assertThat(loginService.validateLogin(request).id()).isEqualTo(id);
+        assertThat(loginService.refresh(refreshToken).getAccessToken()).isNotBlank();
+    }
+}
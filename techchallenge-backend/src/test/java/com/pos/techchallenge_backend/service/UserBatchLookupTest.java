@@ -0,0 +1,61 @@
+package com.pos.techchallenge_backend.service;
+
+import com.pos.techchallenge_backend.exception.custom.BulkSizeExceededException;
+import com.pos.techchallenge_backend.exception.custom.ResourceNotFoundException;
+import com.pos.techchallenge_backend.model.dto.user.UserBatchResponse;
+import com.pos.techchallenge_backend.model.dto.user.UserResponse;
+import com.pos.techchallenge_backend.model.enums.UserType;
+import com.pos.techchallenge_backend.support.UserDataSeeder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "users.batch.max-size=10"
+})
+class UserBatchLookupTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void batchReturnsUsersInRequestOrderWithOneQuery() {
+        UserDataSeeder.seed(jdbcTemplate, 820_001, 10);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        UserBatchResponse response = userService.findUsersByIds(List.of(820_010L, 829_999L, 820_003L, 820_010L, 820_001L));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(response.getItems()).extracting(UserResponse::getId).containsExactly(820_010L, 820_003L, 820_001L);
+        assertThat(response.getItems().get(0).getUserType()).isEqualTo(UserType.RESTAURANT_OWNER);
+        assertThat(response.getMissing()).containsExactly(829_999L);
+    }
+
+    @Test
+    void singleLookupAndLimits() {
+        UserDataSeeder.seed(jdbcTemplate, 830_001, 1);
+
+        assertThat(userService.findUserById(830_001L).getLogin()).isEqualTo("usuario.830001");
+        assertThatThrownBy(() -> userService.findUserById(839_999L)).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> userService.findUsersByIds(LongStream.rangeClosed(1, 11).boxed().toList()))
+                .isInstanceOf(BulkSizeExceededException.class);
+    }
+}
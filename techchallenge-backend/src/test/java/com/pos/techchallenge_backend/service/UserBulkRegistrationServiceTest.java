@@ -0,0 +1,89 @@
+package com.pos.techchallenge_backend.service;
+
+import com.pos.techchallenge_backend.exception.custom.BulkSizeExceededException;
+import com.pos.techchallenge_backend.model.dto.AddressRequest;
+import com.pos.techchallenge_backend.model.dto.user.BulkRegistrationItemResult;
+import com.pos.techchallenge_backend.model.dto.user.BulkRegistrationResponse;
+import com.pos.techchallenge_backend.model.dto.user.UserRegistrationRequest;
+import com.pos.techchallenge_backend.model.enums.BulkItemStatus;
+import com.pos.techchallenge_backend.model.enums.UserType;
+import com.pos.techchallenge_backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class UserBulkRegistrationServiceTest {
+
+    @Autowired
+    private UserBulkRegistrationService userBulkRegistrationService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void reportsResultPerItem() {
+        userService.registerUser(request("lote.existente@teste.com"));
+
+        UserRegistrationRequest invalid = request("lote.invalido@teste.com");
+        invalid.setPassword("123");
+
+        BulkRegistrationResponse response = userBulkRegistrationService.registerUsers(List.of(
+                request("lote.a@teste.com"),
+                request("lote.existente@teste.com"),
+                invalid,
+                request("lote.a@teste.com"),
+                request("lote.b@teste.com")));
+
+        assertThat(response.getResults()).extracting(BulkRegistrationItemResult::getStatus).containsExactly(
+                BulkItemStatus.CREATED,
+                BulkItemStatus.EMAIL_ALREADY_EXISTS,
+                BulkItemStatus.INVALID,
+                BulkItemStatus.DUPLICATE_IN_REQUEST,
+                BulkItemStatus.CREATED);
+        assertThat(response.getCreated()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(3);
+        assertThat(response.getResults().get(2).getMessage()).contains("password");
+
+        Long firstId = response.getResults().get(0).getId();
+        Long secondId = response.getResults().get(4).getId();
+        assertThat(userRepository.findById(firstId)).get()
+                .extracting(user -> user.getEmail()).isEqualTo("lote.a@teste.com");
+        assertThat(userRepository.findById(secondId)).isPresent();
+    }
+
+    @Test
+    void rejectsBatchAboveLimit() {
+        List<UserRegistrationRequest> requests = new ArrayList<>(Collections.nCopies(1001, request("lote.limite@teste.com")));
+
+        assertThatThrownBy(() -> userBulkRegistrationService.registerUsers(requests))
+                .isInstanceOf(BulkSizeExceededException.class);
+    }
+
+    private static UserRegistrationRequest request(String email) {
+        AddressRequest address = new AddressRequest();
+        address.setStreet("Rua das Flores");
+        address.setNumber("100A");
+        address.setCity("São Paulo");
+        address.setZipCode("01234567");
+
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setName("Funcionário Lote");
+        request.setEmail(email);
+        request.setLogin(email.substring(0, email.indexOf('@')));
+        request.setPassword("SenhaSegura123");
+        request.setUserType(UserType.CLIENT);
+        request.setAddress(address);
+        return request;
+    }
+}
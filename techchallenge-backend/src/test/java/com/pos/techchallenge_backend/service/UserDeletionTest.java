@@ -0,0 +1,71 @@
+package com.pos.techchallenge_backend.service;
+
+import com.pos.techchallenge_backend.cache.UserCache;
+import com.pos.techchallenge_backend.exception.custom.ResourceNotFoundException;
+import com.pos.techchallenge_backend.model.dto.user.BulkDeleteResponse;
+import com.pos.techchallenge_backend.support.UserDataSeeder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "users.bulk-delete.chunk-size=100"
+})
+class UserDeletionTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void singleDeleteIsOneStatementAndEvictsTheCache() {
+        UserDataSeeder.seed(jdbcTemplate, 800_001, 1);
+        assertThat(userCache.findCredentialsByLogin("usuario.800001")).isPresent();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        userService.deleteUser(800_001L);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(userCache.findCredentialsByLogin("usuario.800001")).isEmpty();
+        assertThatThrownBy(() -> userService.deleteUser(800_001L)).isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void bulkDeleteReportsIdsNotFound() {
+        UserDataSeeder.seed(jdbcTemplate, 810_001, 250);
+        List<Long> ids = new ArrayList<>(LongStream.rangeClosed(810_001, 810_250).boxed().toList());
+        ids.addAll(Arrays.asList(810_001L, null, 899_998L, 899_999L));
+
+        BulkDeleteResponse response = userService.deleteUsers(ids);
+
+        assertThat(response.getDeleted()).isEqualTo(250);
+        assertThat(response.getNotFound()).containsExactly(899_998L, 899_999L);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from users where id between 810001 and 810250",
+                Long.class)).isZero();
+
+        // Reenviar o lote é seguro: tudo volta como não encontrado
+        assertThat(userService.deleteUsers(ids).getNotFound()).hasSize(252);
+    }
+}
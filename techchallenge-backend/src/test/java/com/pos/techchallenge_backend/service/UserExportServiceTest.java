@@ -0,0 +1,80 @@
+package com.pos.techchallenge_backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pos.techchallenge_backend.support.UserDataSeeder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class UserExportServiceTest {
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportsOneJsonDocumentPerLineWithoutPasswords() throws Exception {
+        UserDataSeeder.seed(jdbcTemplate, 700_001, 3);
+        long total = jdbcTemplate.queryForObject("select count(*) from users", Long.class);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long exported = userExportService.exportUsers(output);
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(exported).isEqualTo(total);
+        assertThat(lines).hasSize((int) total);
+        assertThat(output.toString(StandardCharsets.UTF_8)).endsWith("\n").doesNotContain("password");
+
+        JsonNode last = objectMapper.readTree(lines.get(lines.size() - 1));
+        assertThat(last.get("id").asLong()).isEqualTo(700_003);
+        assertThat(last.get("login").asText()).isEqualTo("usuario.700003");
+        assertThat(last.get("userType").asText()).isEqualTo("CLIENT");
+        assertThat(last.get("address").get("city").asText()).isNotBlank();
+    }
+
+    @Test
+    void flushesEveryThousandRowsInsteadOfEveryRow() {
+        UserDataSeeder.seed(jdbcTemplate, 710_001, 2_500);
+        long total = jdbcTemplate.queryForObject("select count(*) from users", Long.class);
+
+        FlushCountingOutputStream output = new FlushCountingOutputStream();
+        long exported = userExportService.exportUsers(output);
+
+        // Um flush a cada 1.000 linhas e o do fechamento do gerador
+        assertThat(exported).isEqualTo(total);
+        assertThat(output.flushes).isLessThanOrEqualTo(total / 1_000 + 1);
+    }
+
+    private static final class FlushCountingOutputStream extends OutputStream {
+
+        private long flushes;
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+}
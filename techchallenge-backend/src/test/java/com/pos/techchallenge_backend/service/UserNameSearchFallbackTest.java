@@ -0,0 +1,66 @@
+package com.pos.techchallenge_backend.service;
+
+import com.pos.techchallenge_backend.exception.custom.InvalidCursorException;
+import com.pos.techchallenge_backend.model.dto.PageResponse;
+import com.pos.techchallenge_backend.model.dto.user.UserResponse;
+import com.pos.techchallenge_backend.search.NameSearchIndex;
+import com.pos.techchallenge_backend.search.SearchCursor;
+import com.pos.techchallenge_backend.search.UserNameSearchIndex;
+import com.pos.techchallenge_backend.support.UserDataSeeder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doReturn;
+
+/**
+ * Paginação da busca por nome na troca entre o banco e o índice: uma busca iniciada no banco
+ * (índice carregando) continua no banco mesmo que o índice fique pronto entre as páginas,
+ * e um cursor do índice não é aceito enquanto ele carrega.
+ */
+@SpringBootTest
+class UserNameSearchFallbackTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private UserNameSearchIndex userNameSearchIndex;
+
+    @Test
+    void searchStartedInTheDatabaseKeepsDatabaseOrderAfterTheIndexIsReady() {
+        // Nomes terminam com o ID (861001 a 861005); inseridos direto no banco, fora do índice
+        UserDataSeeder.seed(jdbcTemplate, 861_001, 5);
+
+        doReturn(false).when(userNameSearchIndex).isReady();
+        PageResponse<UserResponse> first = userService.findUsersByName("86100", null, 2);
+        assertThat(first.getItems()).extracting(UserResponse::getId).containsExactly(861_001L, 861_002L);
+
+        // O índice fica pronto: as páginas seguintes não podem pular nem repetir usuários
+        doCallRealMethod().when(userNameSearchIndex).isReady();
+        PageResponse<UserResponse> second = userService.findUsersByName("86100", first.getNextCursor(), 2);
+        PageResponse<UserResponse> third = userService.findUsersByName("86100", second.getNextCursor(), 2);
+
+        assertThat(second.getItems()).extracting(UserResponse::getId).containsExactly(861_003L, 861_004L);
+        assertThat(third.getItems()).extracting(UserResponse::getId).containsExactly(861_005L);
+        assertThat(third.getNextCursor()).isNull();
+    }
+
+    @Test
+    void indexCursorIsRejectedWhileTheIndexIsLoading() {
+        String indexCursor = new SearchCursor(NameSearchIndex.RANK_INFIX, 1).encode();
+
+        doReturn(false).when(userNameSearchIndex).isReady();
+
+        assertThatThrownBy(() -> userService.findUsersByName("maria", indexCursor, 2))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+}
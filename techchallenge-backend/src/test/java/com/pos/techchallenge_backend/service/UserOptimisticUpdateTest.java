@@ -0,0 +1,128 @@
+package com.pos.techchallenge_backend.service;
+
+import com.pos.techchallenge_backend.controller.UserETag;
+import com.pos.techchallenge_backend.exception.custom.ResourceNotFoundException;
+import com.pos.techchallenge_backend.exception.custom.VersionConflictException;
+import com.pos.techchallenge_backend.model.dto.AddressRequest;
+import com.pos.techchallenge_backend.model.dto.user.PasswordUpdateRequest;
+import com.pos.techchallenge_backend.model.dto.user.UserRegistrationRequest;
+import com.pos.techchallenge_backend.model.dto.user.UserResponse;
+import com.pos.techchallenge_backend.model.dto.user.UserUpdateRequest;
+import com.pos.techchallenge_backend.model.enums.UserType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifica as atualizações condicionais: um UPDATE por escrita, versão incrementada a cada
+ * alteração e conflito (409) quando a versão esperada (If-Match) já não é a gravada.
+ */
+@SpringBootTest(properties = {
+        "security.password.strength=4",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class UserOptimisticUpdateTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void updatesIncrementVersionAndRejectStaleVersions() {
+        UserResponse created = userService.registerUser(registration("versao.dados"));
+        Long id = created.getId();
+        assertThat(created.getVersion()).isZero();
+
+        UserResponse updated = userService.updateUserData(id, update("versao.dados", "Nome Novo"), 0L);
+        assertThat(updated.getVersion()).isEqualTo(1L);
+        assertThat(updated.getName()).isEqualTo("Nome Novo");
+        assertThat(updated.getUserType()).isEqualTo(UserType.CLIENT);
+        assertThat(updated.getAddress().getCity()).isEqualTo("São Paulo");
+        // A resposta é montada sem reler o usuário: precisa ser igual ao que ficou gravado
+        assertThat(userService.findUserById(id)).usingRecursiveComparison().isEqualTo(updated);
+
+        // Outro cliente ainda com a versão 0: perde a corrida em vez de sobrescrever
+        assertThatThrownBy(() -> userService.updateUserData(id, update("versao.dados", "Nome Antigo"), 0L))
+                .isInstanceOf(VersionConflictException.class);
+        assertThatThrownBy(() -> userService.updatePassword(id, passwordUpdate(), 0L))
+                .isInstanceOf(VersionConflictException.class);
+
+        userService.updatePassword(id, passwordUpdate(), 1L);
+        UserResponse afterPassword = userService.updateUserData(id, update("versao.dados", "Nome Final"), null);
+        assertThat(afterPassword.getVersion()).isEqualTo(3L);
+    }
+
+    @Test
+    void dataUpdateIsOneConditionalStatementWithoutLoadingTheEntity() {
+        Long id = userService.registerUser(registration("versao.comandos")).getId();
+        userService.updateUserData(id, update("versao.comandos", "Aquecimento"), null);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        userService.updateUserData(id, update("versao.comandos", "Nome Novo"), null);
+
+        // Leitura da projeção atual (login e versão) + UPDATE condicional à versão lida
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void missingUserIsReportedAsNotFound() {
+        assertThatThrownBy(() -> userService.updateUserData(999_999L, update("versao.ausente", "Nome"), 0L))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void ifMatchHeaderIsParsedFromTheUserETag() {
+        assertThat(UserETag.of(7L, 3L)).isEqualTo("\"7.3\"");
+        assertThat(UserETag.expectedVersion(7L, "\"7.3\"")).isEqualTo(3L);
+        assertThat(UserETag.expectedVersion(7L, null)).isNull();
+        assertThat(UserETag.expectedVersion(7L, "*")).isNull();
+        assertThatThrownBy(() -> UserETag.expectedVersion(7L, "\"8.3\"")).isInstanceOf(VersionConflictException.class);
+        assertThatThrownBy(() -> UserETag.expectedVersion(7L, "3")).isInstanceOf(VersionConflictException.class);
+    }
+
+    private static UserUpdateRequest update(String login, String name) {
+        UserUpdateRequest request = new UserUpdateRequest();
+        request.setName(name);
+        request.setEmail(login + "@teste.com");
+        request.setLogin(login);
+        request.setAddress(address());
+        return request;
+    }
+
+    private static PasswordUpdateRequest passwordUpdate() {
+        PasswordUpdateRequest request = new PasswordUpdateRequest();
+        request.setCurrentPassword("SenhaSegura123");
+        request.setNewPassword("NovaSenhaForte456");
+        return request;
+    }
+
+    private static UserRegistrationRequest registration(String login) {
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setName("Usuário Versão");
+        request.setEmail(login + "@teste.com");
+        request.setLogin(login);
+        request.setPassword("SenhaSegura123");
+        request.setUserType(UserType.CLIENT);
+        request.setAddress(address());
+        return request;
+    }
+
+    private static AddressRequest address() {
+        AddressRequest address = new AddressRequest();
+        address.setStreet("Rua das Flores");
+        address.setNumber("100A");
+        address.setCity("São Paulo");
+        address.setZipCode("01234567");
+        return address;
+    }
+}
@@ -0,0 +1,88 @@
+package com.pos.techchallenge_backend.service;
+
+import com.pos.techchallenge_backend.model.dto.AddressRequest;
+import com.pos.techchallenge_backend.model.dto.PageResponse;
+import com.pos.techchallenge_backend.model.dto.user.UserRegistrationRequest;
+import com.pos.techchallenge_backend.model.dto.user.UserResponse;
+import com.pos.techchallenge_backend.model.enums.UserType;
+import com.pos.techchallenge_backend.repository.UserRepository;
+import com.pos.techchallenge_backend.repository.projection.UserView;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que as consultas de leitura devolvem o tipo (coluna discriminadora) e o endereço
+ * sem carregar entidades no contexto de persistência.
+ */
+@SpringBootTest(properties = {
+        "security.password.strength=4",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class UserReadProjectionTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void nameSearchReadsProjectionsWithoutLoadingEntities() {
+        UserResponse owner = userService.registerUser(registration("Projeção Dono", "projecao.dono", UserType.RESTAURANT_OWNER));
+        UserResponse client = userService.registerUser(registration("Projeção Cliente", "projecao.cliente", UserType.CLIENT));
+        assertThat(owner.getUserType()).isEqualTo(UserType.RESTAURANT_OWNER);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        PageResponse<UserResponse> page = userService.findUsersByName("projeção", null, 10);
+
+        assertThat(page.getItems()).extracting(UserResponse::getId).containsExactlyInAnyOrder(owner.getId(), client.getId());
+        UserResponse found = page.getItems().stream().filter(user -> user.getId().equals(owner.getId())).findFirst().orElseThrow();
+        assertThat(found.getUserType()).isEqualTo(UserType.RESTAURANT_OWNER);
+        assertThat(found.getLogin()).isEqualTo("projecao.dono");
+        assertThat(found.getAddress().getCity()).isEqualTo("São Paulo");
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void databaseNameSearchTreatsLikeWildcardsAsText() {
+        userService.registerUser(registration("Curinga 100% Sabor", "curinga.sabor", UserType.CLIENT));
+        userService.registerUser(registration("Curinga 1000 Sabores", "curinga.sabores", UserType.CLIENT));
+
+        List<UserView> percent = userRepository.findViewsByNameContaining("100%", 0L, PageRequest.ofSize(10));
+        List<UserView> underscore = userRepository.findViewsByNameContaining("curinga_", 0L, PageRequest.ofSize(10));
+
+        assertThat(percent).extracting(UserView::login).containsExactly("curinga.sabor");
+        assertThat(underscore).isEmpty();
+    }
+
+    private static UserRegistrationRequest registration(String name, String login, UserType userType) {
+        AddressRequest address = new AddressRequest();
+        address.setStreet("Rua das Flores");
+        address.setNumber("100A");
+        address.setCity("São Paulo");
+        address.setZipCode("01234567");
+
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setName(name);
+        request.setEmail(login + "@teste.com");
+        request.setLogin(login);
+        request.setPassword("SenhaSegura123");
+        request.setUserType(userType);
+        request.setAddress(address);
+        return request;
+    }
+}
@@ -0,0 +1,138 @@
+package com.pos.techchallenge_backend.service;
+
+import com.pos.techchallenge_backend.model.dto.AddressRequest;
+import com.pos.techchallenge_backend.model.dto.user.PasswordUpdateRequest;
+import com.pos.techchallenge_backend.model.dto.user.UserRegistrationRequest;
+import com.pos.techchallenge_backend.model.enums.UserType;
+import com.pos.techchallenge_backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que o BCrypt do cadastro e da troca de senha roda fora da transação: com um pool de apenas
+ * 2 conexões e várias trocas de senha concorrentes, o tempo em que cada conexão fica presa e a espera
+ * por conexão caem em relação à mesma carga com o hash dentro de uma transação já aberta.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "security.hashing.queue-capacity=64"
+})
+class UserServiceConnectionPoolTest {
+
+    private static final Logger log = LoggerFactory.getLogger(UserServiceConnectionPoolTest.class);
+
+    private static final int CONCURRENT_USERS = 8;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void passwordHashingDoesNotHoldPooledConnections() throws Exception {
+        List<Long> insideIds = register("dentro");
+        List<Long> outsideIds = register("fora");
+
+        // Referência: a transação já está aberta (e a conexão presa) quando o serviço calcula o hash
+        PoolUsage hashInsideTransaction = measure(insideIds, id -> transactionTemplate.executeWithoutResult(status -> {
+            userRepository.findVersionById(id);
+            userService.updatePassword(id, passwordUpdate());
+        }));
+        PoolUsage hashBeforeTransaction = measure(outsideIds, id -> userService.updatePassword(id, passwordUpdate()));
+
+        log.info("Conexão presa (média): {} ms com o hash na transação, {} ms com o hash antes dela",
+                format(hashInsideTransaction.meanHoldMillis()), format(hashBeforeTransaction.meanHoldMillis()));
+        log.info("Espera por conexão (média): {} ms com o hash na transação, {} ms com o hash antes dela",
+                format(hashInsideTransaction.meanAcquireMillis()), format(hashBeforeTransaction.meanAcquireMillis()));
+
+        assertThat(hashBeforeTransaction.meanHoldMillis()).isLessThan(hashInsideTransaction.meanHoldMillis() / 2);
+        assertThat(hashBeforeTransaction.meanAcquireMillis()).isLessThan(hashInsideTransaction.meanAcquireMillis() / 2);
+    }
+
+    private List<Long> register(String prefix) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_USERS; i++) {
+            ids.add(userService.registerUser(registration(prefix, i)).getId());
+        }
+        return ids;
+    }
+
+    // Média do tempo de uso e da espera por conexão do Hikari durante as trocas de senha concorrentes
+    private PoolUsage measure(List<Long> ids, Consumer<Long> passwordChange) throws Exception {
+        Timer usage = meterRegistry.get("hikaricp.connections.usage").timer();
+        Timer acquire = meterRegistry.get("hikaricp.connections.acquire").timer();
+        double usageBefore = usage.totalTime(TimeUnit.MILLISECONDS);
+        long usageCountBefore = usage.count();
+        double acquireBefore = acquire.totalTime(TimeUnit.MILLISECONDS);
+        long acquireCountBefore = acquire.count();
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_USERS);
+        try {
+            List<CompletableFuture<Void>> updates = ids.stream()
+                    .map(id -> CompletableFuture.runAsync(() -> passwordChange.accept(id), executor))
+                    .toList();
+            CompletableFuture.allOf(updates.toArray(CompletableFuture[]::new)).get(2, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return new PoolUsage(
+                (usage.totalTime(TimeUnit.MILLISECONDS) - usageBefore) / (usage.count() - usageCountBefore),
+                (acquire.totalTime(TimeUnit.MILLISECONDS) - acquireBefore) / (acquire.count() - acquireCountBefore));
+    }
+
+    private static String format(double millis) {
+        return String.format(Locale.ROOT, "%.1f", millis);
+    }
+
+    private record PoolUsage(double meanHoldMillis, double meanAcquireMillis) {
+    }
+
+    private static UserRegistrationRequest registration(String prefix, int index) {
+        AddressRequest address = new AddressRequest();
+        address.setStreet("Rua das Flores");
+        address.setNumber(String.valueOf(index));
+        address.setCity("São Paulo");
+        address.setZipCode("01234567");
+
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setName("Usuário Pool " + index);
+        request.setEmail("pool." + prefix + index + "@teste.com");
+        request.setLogin("pool." + prefix + "." + index);
+        request.setPassword("SenhaSegura123");
+        request.setUserType(UserType.CLIENT);
+        request.setAddress(address);
+        return request;
+    }
+
+    private static PasswordUpdateRequest passwordUpdate() {
+        PasswordUpdateRequest request = new PasswordUpdateRequest();
+        request.setCurrentPassword("SenhaSegura123");
+        request.setNewPassword("NovaSenhaForte456");
+        return request;
+    }
+}
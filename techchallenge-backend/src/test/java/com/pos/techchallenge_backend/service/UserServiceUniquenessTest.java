@@ -0,0 +1,127 @@
+package com.pos.techchallenge_backend.service;
+
+import com.pos.techchallenge_backend.exception.custom.EmailAlreadyExistsException;
+import com.pos.techchallenge_backend.exception.custom.LoginAlreadyExistsException;
+import com.pos.techchallenge_backend.model.dto.AddressRequest;
+import com.pos.techchallenge_backend.model.dto.user.UserRegistrationRequest;
+import com.pos.techchallenge_backend.model.dto.user.UserUpdateRequest;
+import com.pos.techchallenge_backend.model.enums.UserType;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifica que a unicidade do e-mail e do login vem das constraints do banco (inclusive em cadastros
+ * concorrentes que passam juntos pelo filtro de Bloom) e que as consultas poupadas são medidas.
+ */
+@SpringBootTest
+class UserServiceUniquenessTest {
+
+    private static final int CONCURRENT_REQUESTS = 4;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void concurrentRegistrationsWithSameEmailCreateOnlyOneUser() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                UserRegistrationRequest request = registration("concorrente@teste.com");
+                request.setLogin("concorrente." + i);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return userService.registerUser(request);
+                }));
+            }
+            start.countDown();
+
+            int created = 0;
+            int conflicts = 0;
+            for (Future<?> future : futures) {
+                try {
+                    future.get(1, TimeUnit.MINUTES);
+                    created++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(EmailAlreadyExistsException.class);
+                    conflicts++;
+                }
+            }
+            assertThat(created).isEqualTo(1);
+            assertThat(conflicts).isEqualTo(CONCURRENT_REQUESTS - 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void newEmailAndLoginSkipLookupsAndDuplicatesAreRejected() {
+        double savedBefore = meterRegistry.get("users.registration.queries.saved").summary().totalAmount();
+
+        userService.registerUser(registration("filtro.novo@teste.com"));
+        assertThat(meterRegistry.get("users.registration.queries.saved").summary().totalAmount())
+                .isEqualTo(savedBefore + 2);
+
+        assertThatThrownBy(() -> userService.registerUser(registration("filtro.novo@teste.com")))
+                .isInstanceOf(EmailAlreadyExistsException.class);
+
+        UserRegistrationRequest sameLogin = registration("filtro.outro@teste.com");
+        sameLogin.setLogin("filtro.novo");
+        assertThatThrownBy(() -> userService.registerUser(sameLogin))
+                .isInstanceOf(LoginAlreadyExistsException.class);
+    }
+
+    @Test
+    void updateToEmailOrLoginInUseIsRejectedByConstraint() {
+        userService.registerUser(registration("ocupado@teste.com"));
+        Long id = userService.registerUser(registration("livre@teste.com")).getId();
+
+        UserUpdateRequest update = new UserUpdateRequest();
+        update.setName("Usuário Atualizado");
+        update.setEmail("ocupado@teste.com");
+        update.setLogin("usuario.atualizado");
+
+        assertThatThrownBy(() -> userService.updateUserData(id, update))
+                .isInstanceOf(EmailAlreadyExistsException.class);
+
+        update.setEmail("livre@teste.com");
+        update.setLogin("ocupado");
+        assertThatThrownBy(() -> userService.updateUserData(id, update))
+                .isInstanceOf(LoginAlreadyExistsException.class);
+    }
+
+    private static UserRegistrationRequest registration(String email) {
+        AddressRequest address = new AddressRequest();
+        address.setStreet("Rua das Flores");
+        address.setNumber("100A");
+        address.setCity("São Paulo");
+        address.setZipCode("01234567");
+
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setName("Usuário Unicidade");
+        request.setEmail(email);
+        request.setLogin(email.substring(0, email.indexOf('@')));
+        request.setPassword("SenhaSegura123");
+        request.setUserType(UserType.CLIENT);
+        request.setAddress(address);
+        return request;
+    }
+}
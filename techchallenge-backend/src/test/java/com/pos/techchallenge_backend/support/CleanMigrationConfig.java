@@ -0,0 +1,25 @@
+package com.pos.techchallenge_backend.support;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Nos testes, apaga o banco antes de aplicar as migrações: cada contexto Spring começa com o esquema
+ * recém-criado e sem dados, como com o antigo ddl-auto=create-drop (bancos H2 em memória com
+ * DB_CLOSE_DELAY=-1 e os arquivos dos benchmarks sobrevivem entre contextos).
+ * Desligado com test.flyway.clean=false (benchmark de inicialização com o banco já migrado).
+ */
+@Configuration
+@ConditionalOnProperty(name = "test.flyway.clean", havingValue = "true", matchIfMissing = true)
+public class CleanMigrationConfig {
+
+    @Bean
+    public FlywayMigrationStrategy cleanMigrateStrategy() {
+        return flyway -> {
+            flyway.clean();
+            flyway.migrate();
+        };
+    }
+}
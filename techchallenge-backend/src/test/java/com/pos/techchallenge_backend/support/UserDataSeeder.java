@@ -0,0 +1,61 @@
+package com.pos.techchallenge_backend.support;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Insere usuários sintéticos direto via JDBC em lotes (sem BCrypt e sem JPA),
+ * para testes e benchmarks que precisam de tabelas grandes.
+ */
+public final class UserDataSeeder {
+
+    // Hash BCrypt fixo de "SenhaSegura123" (custo 4), para não pagar BCrypt na carga
+    public static final String PASSWORD_HASH = "$2a$04$Cd/CMCOWb7Ev9NrJLGGuJem6N5rNnsFDmOwokyb4n60EOIlUMLA96";
+    public static final String PASSWORD = "SenhaSegura123";
+
+    private static final String[] FIRST_NAMES = {"Ana", "Maria", "João", "José", "Pedro", "Paulo", "Lucas", "Juliana"};
+    private static final String[] LAST_NAMES = {"Silva", "Souza", "Oliveira", "Santos", "Pereira", "Lima", "Costa"};
+    private static final String[] CITIES = {"São Paulo", "Rio de Janeiro", "Belo Horizonte", "Curitiba", "Recife"};
+    private static final int BATCH_SIZE = 5_000;
+
+    private UserDataSeeder() {
+    }
+
+    /**
+     * Insere "count" usuários com IDs a partir de "firstId". Login e e-mail são derivados do ID.
+     */
+    public static void seed(JdbcTemplate jdbcTemplate, long firstId, int count) {
+        String sql = "insert into users (id, user_type, name, email, login, password, last_update_date, " +
+                "street, number, city, zip_code) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (long id = firstId; id < firstId + count; id++) {
+            int i = (int) id;
+            batch.add(new Object[]{
+                    id,
+                    i % 10 == 0 ? "RESTAURANT_OWNER" : "CLIENT",
+                    FIRST_NAMES[i % FIRST_NAMES.length] + " " + LAST_NAMES[(i / 7) % LAST_NAMES.length] + " " + id,
+                    "usuario" + id + "@seed.com",
+                    "usuario." + id,
+                    PASSWORD_HASH,
+                    now,
+                    "Rua " + (i % 500),
+                    String.valueOf(i % 2000),
+                    CITIES[i % CITIES.length],
+                    String.format("%08d", (i * 7919L) % 100_000_000L)
+            });
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+}